@@ -1,6 +1,8 @@
 import java.util.ArrayList;
 
 import cards.Card;
+import game.GameEventListener;
+import game.TextEventSink;
 import players.Player;
 
 /**
@@ -35,8 +37,6 @@ public class Showdown {
 	protected static final int HAND_TWO_GREATER = 2;
 	protected static final int HANDS_EQUAL = 0;
 	
-	protected static int winnerCounter = 1;
-	
 	public static void main(String args[]) {
 	}
 	
@@ -51,6 +51,19 @@ public class Showdown {
 	 * @return the winning player
 	 */
 	public static ArrayList<Player> showdown(ArrayList<Player> players, ArrayList<Card> comm) {
+		return showdown(players, comm, new TextEventSink(System.out));
+	}
+	
+	/**
+	 * As showdown above, with the end results of the round published to the
+	 * given listener instead of being printed.
+	 * 
+	 * @param players an ArrayList of all players
+	 * @param comm the five community cards
+	 * @param listener where the end results are published
+	 * @return the winning player
+	 */
+	public static ArrayList<Player> showdown(ArrayList<Player> players, ArrayList<Card> comm, GameEventListener listener) {
 		ArrayList<Player> winners = new ArrayList<Player>();
 		
 		for (Player player : players) { //The highest hand of each player is found and assigned to them
@@ -59,29 +72,32 @@ public class Showdown {
 		}
 		
 		players = orderPlayersByRank(players); //The players are ordered by their highest hand's rank
+		int winnerCounter = countWinners(players); //The players tied with the highest hand are counted
 		
 		for (int i = 0; i < winnerCounter; i++) //The winner(s) is/are added to the winners ArrayList
 			winners.add(players.get(i));
 		
+		StringBuilder results = new StringBuilder();
 		if (winnerCounter > 1) { //If a stalemate occurs all winners are listed appropriately
-			System.out.print("Stalemate!\nThe pot will be split between ");
+			results.append("Stalemate!\nThe pot will be split between ");
 			if (winnerCounter > 2) {
 				for (int i = 0; i < winnerCounter - 1; i++) {
-					System.out.print(winners.get(i).getName() + ", ");
+					results.append(winners.get(i).getName() + ", ");
 				}
 			}
 			else
-				System.out.print(winners.get(0).getName() + " ");
-			System.out.println("and " + winners.get(winnerCounter - 1).getName() + ".");
+				results.append(winners.get(0).getName() + " ");
+			results.append("and " + winners.get(winnerCounter - 1).getName() + ".");
 		}
 		else //The sole winner is listed
-			System.out.println(players.get(0).getName() + " wins the pot!");
+			results.append(players.get(0).getName() + " wins the pot!");
+		listener.message(results.toString());
 		
-		System.out.println("\nFinal Hands:"); //The highest hands of all players are displayed
+		listener.message("\nFinal Hands:"); //The highest hands of all players are displayed
 		for (Player player : players) {
-			System.out.println("\n" + player.getName() + ": " + RANKING_KEY[getHandRank(player.getHand())] + "\n");
+			listener.message("\n" + player.getName() + ": " + RANKING_KEY[getHandRank(player.getHand())] + "\n");
 			for (Card card : player.getHand()) {
-				System.out.println(card.toString());
+				listener.message(card.toString());
 			}
 		}
 		
@@ -311,8 +327,6 @@ public class Showdown {
 					highRank = rank;
 					highHand = hand;
 					highRankIndex = i;
-					if (newPlayers.size() == 0)
-						winnerCounter = 1;
 				}
 				
 				else if (rank == highRank) { //If a hand is equal in rank to the highest it is disputed
@@ -320,11 +334,6 @@ public class Showdown {
 					if (result == HAND_ONE_GREATER) { //The evaluated hand only replaces the highest if it is higher
 						highHand = hand;
 						highRankIndex = i;
-						if (newPlayers.size() == 0)
-							winnerCounter = 1;
-					}
-					else if ((result == HANDS_EQUAL) && (newPlayers.size() == 0)) { //If the hands are equal the highest hand is not updated but the winnerCounter is incremented
-						winnerCounter++;
 					}
 				}
 			}
@@ -336,6 +345,28 @@ public class Showdown {
 		return newPlayers;
 	}
 	
+	/**
+	 * Counts the Players at the front of an ordered list whose hands are
+	 * equal to the first, all of whom share the pot. The count is kept local
+	 * so that separate games may find their winners at the same time.
+	 * 
+	 * @param players an ArrayList of Players ordered by hands from highest to
+	 * lowest rank
+	 * @return the number of winners
+	 */
+	private static int countWinners(ArrayList<Player> players) {
+		ArrayList<Card> highHand = players.get(0).getHand();
+		int highRank = getHandRank(highHand), winnerCounter = 1;
+		
+		while (winnerCounter < players.size()) { //Each following Player is a winner while their hand is equal to the highest
+			ArrayList<Card> hand = players.get(winnerCounter).getHand();
+			if ((getHandRank(hand) != highRank) || (Dispute.dispute(hand, highHand, highRank) != HANDS_EQUAL))
+				break;
+			winnerCounter++;
+		}
+		return winnerCounter;
+	}
+	
 	/**
 	 * All 21 unique combinations of five card hands from a seven card set are
 	 * found by the below algorithm. Two blank spaces in the seven card set are
@@ -7,6 +7,11 @@ package cards;
  * E.g. the Ace of Spades would be classified by suite 1 and rank 12 as per the
  * mentioned keys.
  * 
+ * Cards are immutable, so the 52 distinct Cards are created once and shared
+ * through the of and fromId factories rather than being allocated for every
+ * new Deck. Each Card also has a compact id from 0 to 51, its suit times 13
+ * plus its rank, for indexing arrays and bit sets directly.
+ * 
  * @author Adam Hiles
  * @version 02/20/19
  */
@@ -14,8 +19,9 @@ public class Card {
 
 	//Instance Variables
 	
-	private int suit;
-	private int rank;
+	private final int suit;
+	private final int rank;
+	private final int id;
 	
 	//Class Constants
 	
@@ -25,6 +31,15 @@ public class Card {
 			"Six", "Seven", "Eight", "Nine", "Ten", "Jack", "Queen", "King", 
 			"Ace"};
 	
+	public static final int DECK_SIZE = 52;
+	
+	private static final Card[] CARDS = new Card[DECK_SIZE];
+	
+	static {
+		for (int id = 0; id < DECK_SIZE; id++)
+			CARDS[id] = new Card(id / 13, id % 13);
+	}
+	
 	//Constructors
 	
 	/**
@@ -33,7 +48,8 @@ public class Card {
 	 * Currently there is no check for proper values: 0 to 3 for the suit and
 	 * 0 to 12 for the rank. Passing incorrect values will not create errors 
 	 * in most aspects of usage (besides logical) except for in the toString()
-	 * method where the indexes will by out of the range of the keys.
+	 * method where the indexes will by out of the range of the keys. Callers
+	 * should prefer the of factory, which reuses the shared instances.
 	 * 
 	 * @param suit the caller's specified suit
 	 * @param rank the caller's specified rank
@@ -41,6 +57,31 @@ public class Card {
 	public Card(int suit, int rank) {
 		this.suit = suit;
 		this.rank = rank;
+		this.id = suit * 13 + rank;
+	}
+	
+	//Factories
+	
+	/**
+	 * Returns the shared Card with the given suit and rank. Unlike the
+	 * constructor no new object is allocated.
+	 * 
+	 * @param suit the suit of the Card, 0 to 3
+	 * @param rank the rank of the Card, 0 to 12
+	 * @return the canonical Card instance
+	 */
+	public static Card of(int suit, int rank) {
+		return CARDS[suit * 13 + rank];
+	}
+	
+	/**
+	 * Returns the shared Card with the given id.
+	 * 
+	 * @param id the id of the Card, 0 to 51
+	 * @return the canonical Card instance
+	 */
+	public static Card fromId(int id) {
+		return CARDS[id];
 	}
 	
 	//Getters
@@ -63,6 +104,15 @@ public class Card {
 		return rank;
 	}
 	
+	/**
+	 * Returns the compact id of the card, its suit times 13 plus its rank.
+	 * 
+	 * @return the id from 0 to 51
+	 */
+	public int id() {
+		return id;
+	}
+	
 	/**
 	 * For user interfaces the name of the card is converted from its byte
 	 * components to a string in the form "(rank) of (suit)" by retrieving its
@@ -75,4 +125,25 @@ public class Card {
 		String cardName = RANK_KEY[rank] + " of " + SUIT_KEY[suit];
 		return cardName;
 	}
+	
+	/**
+	 * Two Cards are equal if they share a suit and rank, so Cards made with
+	 * the constructor still match the shared instances.
+	 * 
+	 * @param other the object to compare to
+	 * @return whether the object is the same card
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other)
+			return true;
+		if (!(other instanceof Card))
+			return false;
+		return id == ((Card) other).id;
+	}
+	
+	@Override
+	public int hashCode() {
+		return id;
+	}
 }
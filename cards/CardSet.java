@@ -0,0 +1,229 @@
+package cards;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The CardSet class is an immutable set of Cards held in the low 52 bits of a
+ * single long, bit n being set when the Card with id n is present. Since a
+ * Card's id is its suit times 13 plus its rank, each suit occupies its own
+ * 13 bit block and can be read straight into the rank masks used by the
+ * SevenCardEvaluator.
+ *
+ * Membership, union, intersection and counting are all single operations on
+ * the long. To walk the Cards of a set without allocating, loop over its bits
+ * directly:
+ *
+ * for (long bits = set.bits(); bits != 0; bits &= bits - 1)
+ *     Card card = Card.fromId(Long.numberOfTrailingZeros(bits));
+ */
+public final class CardSet implements Iterable<Card> {
+
+	public static final CardSet EMPTY = new CardSet(0L);
+	public static final CardSet FULL_DECK = new CardSet((1L << Card.DECK_SIZE) - 1);
+
+	private final long bits;
+
+	private CardSet(long bits) {
+		this.bits = bits;
+	}
+
+	//Factories
+
+	/**
+	 * Returns the set with the given bits, only the low 52 of which are used.
+	 *
+	 * @param bits the bits of the set
+	 * @return the set
+	 */
+	public static CardSet fromBits(long bits) {
+		return new CardSet(bits & FULL_DECK.bits);
+	}
+
+	/**
+	 * Returns the set of the given Cards.
+	 *
+	 * @param cards any number of Cards
+	 * @return the set of the Cards
+	 */
+	public static CardSet of(Card... cards) {
+		long bits = 0L;
+		for (Card card : cards)
+			bits |= 1L << card.id();
+		return new CardSet(bits);
+	}
+
+	/**
+	 * Returns the set of the Cards in a list, such as a player's hole or the
+	 * community cards.
+	 *
+	 * @param cards the list of Cards
+	 * @return the set of the Cards
+	 */
+	public static CardSet fromList(ArrayList<Card> cards) {
+		return new CardSet(bitsOf(cards));
+	}
+
+	/**
+	 * Returns the bits of the Cards in a list without creating a set.
+	 *
+	 * @param cards the list of Cards
+	 * @return the bits of the Cards
+	 */
+	public static long bitsOf(ArrayList<Card> cards) {
+		long bits = 0L;
+		for (int i = 0; i < cards.size(); i++)
+			bits |= 1L << cards.get(i).id();
+		return bits;
+	}
+
+	//Getters
+
+	/**
+	 * Returns the bits of the set.
+	 *
+	 * @return the bits, the Card with id n being present if bit n is set
+	 */
+	public long bits() {
+		return bits;
+	}
+
+	/**
+	 * Returns the number of Cards in the set.
+	 *
+	 * @return the size of the set
+	 */
+	public int size() {
+		return Long.bitCount(bits);
+	}
+
+	public boolean isEmpty() {
+		return bits == 0L;
+	}
+
+	public boolean contains(Card card) {
+		return (bits & (1L << card.id())) != 0L;
+	}
+
+	/**
+	 * Returns whether every Card of another set is in this set.
+	 *
+	 * @param other the other set
+	 * @return true if the other set is a subset of this set
+	 */
+	public boolean containsAll(CardSet other) {
+		return (other.bits & ~bits) == 0L;
+	}
+
+	/**
+	 * Returns whether the two sets share any Card.
+	 *
+	 * @param other the other set
+	 * @return true if the sets intersect
+	 */
+	public boolean intersects(CardSet other) {
+		return (bits & other.bits) != 0L;
+	}
+
+	/**
+	 * Returns the 13 bit rank mask of the Cards of one suit.
+	 *
+	 * @param suit the suit, 0 to 3
+	 * @return the ranks present in the suit
+	 */
+	public int suitMask(int suit) {
+		return (int) (bits >>> (13 * suit)) & 0x1FFF;
+	}
+
+	//Operations
+
+	public CardSet with(Card card) {
+		return new CardSet(bits | (1L << card.id()));
+	}
+
+	public CardSet without(Card card) {
+		return new CardSet(bits & ~(1L << card.id()));
+	}
+
+	public CardSet union(CardSet other) {
+		return new CardSet(bits | other.bits);
+	}
+
+	public CardSet intersection(CardSet other) {
+		return new CardSet(bits & other.bits);
+	}
+
+	public CardSet minus(CardSet other) {
+		return new CardSet(bits & ~other.bits);
+	}
+
+	/**
+	 * Returns the Cards of a full deck missing from this set, e.g. the Cards
+	 * that may still be dealt once the known Cards are removed.
+	 *
+	 * @return the complement of the set
+	 */
+	public CardSet complement() {
+		return new CardSet(~bits & FULL_DECK.bits);
+	}
+
+	//Conversions
+
+	/**
+	 * Returns the Cards of the set in order of their ids.
+	 *
+	 * @return a new list of the Cards
+	 */
+	public ArrayList<Card> toList() {
+		ArrayList<Card> cards = new ArrayList<Card>(size());
+		for (long b = bits; b != 0L; b &= b - 1)
+			cards.add(Card.fromId(Long.numberOfTrailingZeros(b)));
+		return cards;
+	}
+
+	/**
+	 * Iterates over the Cards of the set in order of their ids.
+	 *
+	 * @return an iterator over the Cards
+	 */
+	@Override
+	public Iterator<Card> iterator() {
+		return new Iterator<Card>() {
+			private long remaining = bits;
+
+			@Override
+			public boolean hasNext() {
+				return remaining != 0L;
+			}
+
+			@Override
+			public Card next() {
+				if (remaining == 0L)
+					throw new NoSuchElementException();
+				int id = Long.numberOfTrailingZeros(remaining);
+				remaining &= remaining - 1;
+				return Card.fromId(id);
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (other instanceof CardSet) && (((CardSet) other).bits == bits);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(bits);
+	}
+
+	/**
+	 * Lists the names of the Cards in the set.
+	 *
+	 * @return the Cards in a user friendly form
+	 */
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+}
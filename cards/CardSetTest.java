@@ -0,0 +1,125 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * The CardSet is checked on adding, removing and finding Cards, on the order
+ * its Cards are listed in and on the layout of its bits, which the
+ * SevenCardEvaluator reads as one 13 bit rank mask per suit.
+ */
+public class CardSetTest {
+	@Test
+	/**
+	 * Cards added to a set should be found in it until they are removed, and
+	 * the set they were added to should be left as it was.
+	 */
+	public void test_addRemoveContains() {
+		Card aceOfSpades = Card.of(1, 12);
+		Card twoOfHearts = Card.of(0, 0);
+		CardSet set = CardSet.EMPTY.with(aceOfSpades).with(twoOfHearts);
+
+		assertTrue(set.contains(aceOfSpades));
+		assertTrue(set.contains(twoOfHearts));
+		assertFalse(set.contains(Card.of(2, 12)));
+		assertEquals(2, set.size());
+		assertEquals(set, set.with(aceOfSpades)); // adding a Card twice changes nothing
+
+		CardSet removed = set.without(aceOfSpades);
+		assertFalse(removed.contains(aceOfSpades));
+		assertEquals(1, removed.size());
+		assertTrue(set.contains(aceOfSpades));
+		assertTrue(removed.without(twoOfHearts).isEmpty());
+		assertTrue(CardSet.EMPTY.isEmpty());
+		assertEquals(0, CardSet.EMPTY.size());
+	}
+
+	@Test
+	/**
+	 * The set operations should agree with the Cards each set holds.
+	 */
+	public void test_operations() {
+		CardSet hole = CardSet.of(Card.of(0, 12), Card.of(1, 12));
+		CardSet board = CardSet.of(Card.of(1, 12), Card.of(2, 5), Card.of(3, 7));
+
+		assertEquals(4, hole.union(board).size());
+		assertEquals(CardSet.of(Card.of(1, 12)), hole.intersection(board));
+		assertEquals(CardSet.of(Card.of(0, 12)), hole.minus(board));
+		assertTrue(hole.intersects(board));
+		assertFalse(hole.minus(board).intersects(board));
+		assertTrue(hole.union(board).containsAll(hole));
+		assertFalse(hole.containsAll(board));
+
+		assertEquals(Card.DECK_SIZE, CardSet.FULL_DECK.size());
+		assertEquals(Card.DECK_SIZE - 3, board.complement().size());
+		assertFalse(board.complement().intersects(board));
+		assertEquals(CardSet.FULL_DECK, board.union(board.complement()));
+	}
+
+	@Test
+	/**
+	 * Cards should be iterated and listed in order of their ids, whatever
+	 * order they were added in.
+	 */
+	public void test_iterationOrder() {
+		CardSet set = CardSet.of(Card.fromId(51), Card.fromId(13), Card.fromId(0), Card.fromId(30));
+		int[] ids = {0, 13, 30, 51};
+
+		Iterator<Card> cards = set.iterator();
+		for (int id : ids)
+			assertEquals(Card.fromId(id), cards.next());
+		assertFalse(cards.hasNext());
+		try {
+			cards.next();
+			fail("An exhausted iterator should throw");
+		} catch (NoSuchElementException e) {}
+
+		ArrayList<Card> list = set.toList();
+		assertEquals(ids.length, list.size());
+		for (int i = 0; i < ids.length; i++)
+			assertEquals(ids[i], list.get(i).id());
+	}
+
+	@Test
+	/**
+	 * A list of Cards should make the same set as the Cards themselves, and
+	 * come back out of it in order of their ids.
+	 */
+	public void test_listRoundTrip() {
+		ArrayList<Card> cards = new ArrayList<Card>();
+		cards.add(Card.of(3, 2));
+		cards.add(Card.of(0, 11));
+		cards.add(Card.of(2, 0));
+
+		CardSet set = CardSet.fromList(cards);
+		assertEquals(CardSet.of(Card.of(3, 2), Card.of(0, 11), Card.of(2, 0)), set);
+		assertEquals(set.bits(), CardSet.bitsOf(cards));
+		assertEquals(set, CardSet.fromList(set.toList()));
+		assertTrue(set.toList().containsAll(cards));
+		assertEquals(CardSet.FULL_DECK, CardSet.fromList(CardSet.FULL_DECK.toList()));
+	}
+
+	@Test
+	/**
+	 * Bit n should be the Card with id n, each suit being a 13 bit block of
+	 * ranks, and bits beyond the deck should be dropped.
+	 */
+	public void test_idLayout() {
+		Card queenOfDiamonds = Card.of(2, 10);
+		assertEquals(1L << (2 * 13 + 10), CardSet.of(queenOfDiamonds).bits());
+		assertEquals(CardSet.of(queenOfDiamonds), CardSet.fromBits(1L << queenOfDiamonds.id()));
+
+		CardSet set = CardSet.of(Card.of(0, 0), Card.of(0, 12), Card.of(3, 4));
+		assertEquals((1 << 0) | (1 << 12), set.suitMask(0));
+		assertEquals(0, set.suitMask(1));
+		assertEquals(0, set.suitMask(2));
+		assertEquals(1 << 4, set.suitMask(3));
+
+		assertEquals(CardSet.FULL_DECK, CardSet.fromBits(-1L));
+		assertEquals(0x1FFF, CardSet.FULL_DECK.suitMask(3));
+	}
+}
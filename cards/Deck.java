@@ -1,46 +1,66 @@
 package cards;
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
- * The Deck class handles methods regarding the creation and handling of 52 Card
- * ArrayList objects representing a virtual deck of playing cards. Currently
- * decks can be shuffled and deal a full, five Card hand to an ArrayList.
- * 
+ * The Deck class handles methods regarding the creation and handling of 52
+ * Cards representing a virtual deck of playing cards. Currently decks can be
+ * shuffled and deal a full, five Card hand to an ArrayList.
+ *
+ * The Cards are held in a fixed array with a cursor marking the next Card to
+ * be dealt, so dealing and burning never shift the remaining Cards and a Deck
+ * can be reset for a new round without allocating anything.
+ *
  * @author Brayden Schmaltz, Adam Hiles
  * @version 02/20/19
  */
 public class Deck {
 
-	private ArrayList<Card> deck = new ArrayList<Card>();
+	private final Card[] deck = new Card[Card.DECK_SIZE];
+	private final RandomSource random;
+	private int next; // index of the next card to be dealt
 
 	/**
-	 * This constructor creates a new, unshuffled, 52 card deck sorted consecutively
-	 * in each suite, made from an ArrayList of Card objects so that cards can be
-	 * removed to, say, be dealt or burnt.
+	 * This constructor creates a new 52 card deck, made from the shared Card
+	 * instances sorted consecutively in each suite, then shuffles it.
 	 */
 	public Deck() {
-		for (int s = 0; s < 4; s++) { // The creation of each rank of card is repeated for each suite
-			for (int r = 0; r < 13; r++) { // Each rank of card is added to the deck
-				deck.add(new Card(s, r));
-			}
-		}
+		this(RandomSource.threadLocal());
+	}
+
+	/**
+	 * A deck may be given the RandomSource it shuffles with so that the
+	 * order of its cards can be reproduced from a seed.
+	 *
+	 * @param random the source of the deck's shuffles
+	 */
+	public Deck(RandomSource random) {
+		this.random = random;
+		reset();
+	}
+
+	/**
+	 * pre: N/A post: All 52 cards are back in the deck and shuffled
+	 * Returns every dealt or burnt card to the deck for a new round
+	 */
+	public void reset() {
+		for (int id = 0; id < deck.length; id++) // The cards are laid out in order of their ids
+			deck[id] = Card.fromId(id);
+		next = 0;
 		shuffle();
 	}
 
 	/**
-	 * pre: N/A post: The deck is shuffled Turns the created deck into a shuffled
-	 * deck
+	 * pre: N/A post: The cards left in the deck are shuffled
+	 * Shuffles the undealt cards in place with a Fisher-Yates shuffle, each
+	 * position being swapped with a random position at or before it
 	 */
 	public void shuffle() {
-		ArrayList<Card> tempDeck = new ArrayList<Card>();
-		while (deck.size() > 0) { // Cards are transferred from the deck to temp randomly until it is empty
-			Random rand = new Random();
-			int randIndex = rand.nextInt(deck.size());
-			tempDeck.add(deck.get(randIndex)); // A random Card's index is copied to the new sDeck
-			deck.remove(randIndex); // The copied Card is removed from the old deck to prevent duplicates
+		for (int i = deck.length - 1; i > next; i--) {
+			int j = next + random.nextInt(i - next + 1);
+			Card temp = deck[i];
+			deck[i] = deck[j];
+			deck[j] = temp;
 		}
-		deck.addAll(tempDeck); // Returns the shuffled cards from the temp deck to the deck
 	}
 
 	/**
@@ -48,37 +68,67 @@ public class Deck {
 	 * single card from the deck
 	 */
 	public Card dealSingle() {
-		Card card = deck.get(0);
-		burnCard();
-		return card;
+		return deck[next++];
 	}
 
 	/**
 	 * pre: N/A post: Card removed out of the deck Burns a card from the deck.
 	 */
 	private void burnCard() {
-		deck.remove(0);
+		next++;
 	}
 
 	/**
 	 * pre: The community cards are taken post: More cards are added to the middle
 	 * community cards. Adds cards to the middle cards after all the players have
 	 * completed their turns
-	 * 
+	 *
 	 * @param middleCards ArrayList
 	 */
 	public ArrayList<Card> dealCard(ArrayList<Card> middleCards) {
 		burnCard();
 		if (middleCards.size() < 3) {
-			for (int i = 0; i < 3; i++) {
-				middleCards.add(deck.get(0));
-				deck.remove(0);
-			}
+			for (int i = 0; i < 3; i++)
+				middleCards.add(deck[next++]);
 		} else {
-			middleCards.add(deck.get(0));
-			deck.remove(0);
+			middleCards.add(deck[next++]);
 		}
 
 		return middleCards;
 	}
+
+	/**
+	 * Copies out the order of the whole deck, the dealt and burnt cards first,
+	 * so that it can be saved.
+	 *
+	 * @param ids an array of Card.DECK_SIZE filled with the card ids
+	 * @return the index of the next card to be dealt
+	 */
+	public int getOrder(int[] ids) {
+		for (int i = 0; i < deck.length; i++)
+			ids[i] = deck[i].id();
+		return next;
+	}
+
+	/**
+	 * Lays the deck out in a saved order, so a hand in progress carries on
+	 * with the same cards still to come.
+	 *
+	 * @param ids the card ids of the whole deck, each id once
+	 * @param nextCard the index of the next card to be dealt
+	 */
+	public void setOrder(int[] ids, int nextCard) {
+		for (int i = 0; i < deck.length; i++)
+			deck[i] = Card.fromId(ids[i]);
+		next = nextCard;
+	}
+
+	/**
+	 * Returns the number of cards that have not been dealt or burnt.
+	 *
+	 * @return the number of cards left in the deck
+	 */
+	public int remaining() {
+		return deck.length - next;
+	}
 }
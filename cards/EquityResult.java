@@ -0,0 +1,179 @@
+package cards;
+
+/**
+ * The EquityResult class holds the outcome of an equity calculation for each
+ * player: how often they won outright, tied, or lost across the runouts, and
+ * their equity, the share of the pot they would take on average with ties
+ * split evenly. For sampled calculations a 95% confidence interval on the
+ * equity is also given.
+ *
+ * Results are filled by one task each and merged once all tasks are done.
+ */
+public class EquityResult {
+
+	private static final double Z_95 = 1.959964;
+
+	private final int players;
+	private long samples;
+	private final long[] wins;
+	private final long[] ties;
+	private final double[] shares; // sum of each player's share of the pot over all runouts
+	private final double[] squares; // sum of the squares of those shares, for the variance
+	private boolean exact;
+
+	/**
+	 * Creates an empty result for the given number of players.
+	 *
+	 * @param players the number of players
+	 */
+	public EquityResult(int players) {
+		this.players = players;
+		wins = new long[players];
+		ties = new long[players];
+		shares = new double[players];
+		squares = new double[players];
+	}
+
+	/**
+	 * Records one runout given each player's hand strength on it.
+	 *
+	 * @param strengths the strength of each player's best hand
+	 */
+	void record(int[] strengths) {
+		int best = -1, winners = 0;
+		for (int p = 0; p < players; p++) {
+			if (strengths[p] > best) {
+				best = strengths[p];
+				winners = 1;
+			} else if (strengths[p] == best) {
+				winners++;
+			}
+		}
+		double share = 1.0 / winners;
+		for (int p = 0; p < players; p++) {
+			if (strengths[p] == best) {
+				if (winners == 1)
+					wins[p]++;
+				else
+					ties[p]++;
+				shares[p] += share;
+				squares[p] += share * share;
+			}
+		}
+		samples++;
+	}
+
+	/**
+	 * Adds the runouts of another result for the same players to this one.
+	 *
+	 * @param other the result to add
+	 */
+	void merge(EquityResult other) {
+		samples += other.samples;
+		for (int p = 0; p < players; p++) {
+			wins[p] += other.wins[p];
+			ties[p] += other.ties[p];
+			shares[p] += other.shares[p];
+			squares[p] += other.squares[p];
+		}
+	}
+
+	void setExact(boolean exact) {
+		this.exact = exact;
+	}
+
+	/**
+	 * Returns whether every possible runout was counted rather than a sample.
+	 *
+	 * @return true for an exact result
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+
+	public int getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Returns the number of runouts counted.
+	 *
+	 * @return the number of runouts
+	 */
+	public long getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Returns the fraction of runouts the player won outright.
+	 *
+	 * @param player the index of the player
+	 * @return the win fraction
+	 */
+	public double win(int player) {
+		return samples == 0 ? 0.0 : (double) wins[player] / samples;
+	}
+
+	/**
+	 * Returns the fraction of runouts the player tied for the best hand.
+	 *
+	 * @param player the index of the player
+	 * @return the tie fraction
+	 */
+	public double tie(int player) {
+		return samples == 0 ? 0.0 : (double) ties[player] / samples;
+	}
+
+	/**
+	 * Returns the fraction of runouts the player lost.
+	 *
+	 * @param player the index of the player
+	 * @return the loss fraction
+	 */
+	public double loss(int player) {
+		return samples == 0 ? 0.0 : 1.0 - win(player) - tie(player);
+	}
+
+	/**
+	 * Returns the share of the pot the player takes on average.
+	 *
+	 * @param player the index of the player
+	 * @return the equity from 0 to 1
+	 */
+	public double equity(int player) {
+		return samples == 0 ? 0.0 : shares[player] / samples;
+	}
+
+	/**
+	 * Returns the half width of the 95% confidence interval on the player's
+	 * equity, 0 for an exact result.
+	 *
+	 * @param player the index of the player
+	 * @return the margin of error of the equity
+	 */
+	public double confidence(int player) {
+		if (exact || samples < 2)
+			return 0.0;
+		double mean = equity(player);
+		double variance = (squares[player] / samples - mean * mean) * samples / (samples - 1);
+		return Z_95 * Math.sqrt(Math.max(variance, 0.0) / samples);
+	}
+
+	/**
+	 * Lists each player's win, tie and loss fractions and equity.
+	 *
+	 * @return the result in a user friendly form
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		text.append(samples).append(exact ? " runouts (exact)" : " runouts (sampled)");
+		for (int p = 0; p < players; p++) {
+			text.append(String.format("%nPlayer %d: win %.4f, tie %.4f, loss %.4f, equity %.4f",
+					p + 1, win(p), tie(p), loss(p), equity(p)));
+			if (!exact)
+				text.append(String.format(" +/- %.4f", confidence(p)));
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,103 @@
+package cards;
+
+/**
+ * The EvaluatorHarness class checks that two HandEvaluators agree before a
+ * faster one is trusted in play. Every one of the 2,598,960 five card hands is
+ * compared exhaustively, then any number of random six and seven card hands
+ * are drawn from a seed and compared.
+ *
+ * Run from the command line with an optional number of random hands per size
+ * and seed:
+ *
+ * java cards.EvaluatorHarness [hands] [seed]
+ */
+public class EvaluatorHarness {
+
+	/**
+	 * The five card LookupEvaluator wrapped as a HandEvaluator so it can be
+	 * compared on five card hands.
+	 */
+	public static final HandEvaluator LOOKUP_FIVE = cards -> {
+		long b = cards;
+		int c1 = Long.numberOfTrailingZeros(b);
+		b &= b - 1;
+		int c2 = Long.numberOfTrailingZeros(b);
+		b &= b - 1;
+		int c3 = Long.numberOfTrailingZeros(b);
+		b &= b - 1;
+		int c4 = Long.numberOfTrailingZeros(b);
+		b &= b - 1;
+		int c5 = Long.numberOfTrailingZeros(b);
+		return LookupEvaluator.evaluate(Card.fromId(c1), Card.fromId(c2), Card.fromId(c3),
+				Card.fromId(c4), Card.fromId(c5));
+	};
+
+	public static void main(String[] args) {
+		int hands = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+		HandEvaluator reference = new ReferenceEvaluator();
+		HandEvaluator fast = SevenCardEvaluator.INSTANCE;
+
+		System.out.println("Five card hands, reference against fast: "
+				+ compareExhaustiveFive(reference, fast) + " mismatches");
+		System.out.println("Five card hands, reference against lookup: "
+				+ compareExhaustiveFive(reference, LOOKUP_FIVE) + " mismatches");
+		for (int size = 6; size <= 7; size++) {
+			System.out.println(hands + " random " + size + " card hands (seed " + seed + "): "
+					+ compareRandom(reference, fast, hands, size, seed) + " mismatches");
+		}
+	}
+
+	/**
+	 * Compares the two evaluators on every possible five card hand.
+	 *
+	 * @param expected the trusted evaluator
+	 * @param actual the evaluator under test
+	 * @return the number of hands on which they disagree
+	 */
+	public static long compareExhaustiveFive(HandEvaluator expected, HandEvaluator actual) {
+		long mismatches = 0;
+		for (int a = 0; a < 48; a++)
+			for (int b = a + 1; b < 49; b++)
+				for (int c = b + 1; c < 50; c++)
+					for (int d = c + 1; d < 51; d++)
+						for (int e = d + 1; e < 52; e++) {
+							long cards = (1L << a) | (1L << b) | (1L << c) | (1L << d) | (1L << e);
+							if (expected.strength(cards) != actual.strength(cards))
+								mismatches++;
+						}
+		return mismatches;
+	}
+
+	/**
+	 * Compares the two evaluators on random hands of the given size.
+	 *
+	 * @param expected the trusted evaluator
+	 * @param actual the evaluator under test
+	 * @param hands the number of hands to draw
+	 * @param size the number of cards in each hand, five to seven
+	 * @param seed the seed the hands are drawn from
+	 * @return the number of hands on which they disagree
+	 */
+	public static long compareRandom(HandEvaluator expected, HandEvaluator actual, int hands, int size, long seed) {
+		RandomSource random = RandomSource.seeded(seed);
+		long mismatches = 0;
+		for (int i = 0; i < hands; i++) {
+			long cards = randomHand(random, size);
+			if (expected.strength(cards) != actual.strength(cards))
+				mismatches++;
+		}
+		return mismatches;
+	}
+
+	/**
+	 * Draws the given number of distinct cards.
+	 */
+	static long randomHand(RandomSource random, int size) {
+		long cards = 0L;
+		while (Long.bitCount(cards) < size)
+			cards |= 1L << random.nextInt(Card.DECK_SIZE);
+		return cards;
+	}
+}
@@ -0,0 +1,106 @@
+package cards;
+import java.util.stream.IntStream;
+
+/**
+ * The EvaluatorSweep class passes every possible hand of a given size through
+ * a HandEvaluator, counting how many fall in each rank. The counts are checked
+ * against the known totals for five and seven card hands, proving the
+ * evaluator ranks every hand correctly, while the time taken gives its
+ * throughput in evaluations per second per core.
+ *
+ * The hands are split by their two lowest cards into 1,326 tasks which are run
+ * in parallel on the common fork-join pool, each keeping its own counts until
+ * they are merged at the end.
+ *
+ * Run from the command line with the optional hand sizes to sweep:
+ *
+ * java cards.EvaluatorSweep [size...]
+ */
+public class EvaluatorSweep {
+
+	private static final String[] RANKING_KEY = {"High Card", "One Pair",
+			"Two Pairs", "Three of a Kind", "Straight", "Flush", "Full House",
+			"Four of a Kind", "Straight Flush", "Royal Flush"};
+
+	/**
+	 * The number of five card hands of each rank, from High Card to Royal
+	 * Flush, out of 2,598,960.
+	 */
+	public static final long[] FIVE_CARD_COUNTS = {1302540, 1098240, 123552, 54912,
+			10200, 5108, 3744, 624, 36, 4};
+
+	/**
+	 * The number of seven card sets whose best hand is of each rank, from High
+	 * Card to Royal Flush, out of 133,784,560.
+	 */
+	public static final long[] SEVEN_CARD_COUNTS = {23294460, 58627800, 31433400,
+			6461620, 6180020, 4047644, 3473184, 224848, 37260, 4324};
+
+	public static void main(String[] args) {
+		int[] sizes = args.length == 0 ? new int[] {5, 7} : new int[args.length];
+		for (int i = 0; i < args.length; i++)
+			sizes[i] = Integer.parseInt(args[i]);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int size : sizes) {
+			long start = System.nanoTime();
+			long[] counts = sweep(SevenCardEvaluator.INSTANCE, size);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			long total = 0;
+			for (long count : counts)
+				total += count;
+			long[] expected = size == 5 ? FIVE_CARD_COUNTS : size == 7 ? SEVEN_CARD_COUNTS : null;
+
+			System.out.println(size + " card hands: " + total);
+			for (int rank = counts.length - 1; rank >= 0; rank--) {
+				String check = "";
+				if (expected != null)
+					check = counts[rank] == expected[rank] ? "  ok" : "  EXPECTED " + expected[rank];
+				System.out.printf("  %-16s %,12d%s%n", RANKING_KEY[rank], counts[rank], check);
+			}
+			System.out.printf("  %.2f s, %,.0f evaluations/s, %,.0f evaluations/s per core (%d cores)%n",
+					seconds, total / seconds, total / seconds / cores, cores);
+		}
+	}
+
+	/**
+	 * Evaluates every hand of the given size and counts the hands of each
+	 * rank.
+	 *
+	 * @param evaluator the evaluator to sweep
+	 * @param size the number of cards in each hand, five to seven
+	 * @return the number of hands of each rank, from High Card to Royal Flush
+	 */
+	public static long[] sweep(HandEvaluator evaluator, int size) {
+		return IntStream.range(0, Card.DECK_SIZE * Card.DECK_SIZE).parallel()
+				.filter(pair -> pair / Card.DECK_SIZE < pair % Card.DECK_SIZE)
+				.mapToObj(pair -> {
+					long[] counts = new long[RANKING_KEY.length];
+					int low = pair / Card.DECK_SIZE, high = pair % Card.DECK_SIZE;
+					count(evaluator, (1L << low) | (1L << high), high + 1, size - 2, counts);
+					return counts;
+				})
+				.reduce(new long[RANKING_KEY.length], EvaluatorSweep::merge);
+	}
+
+	/**
+	 * Adds every remaining card from the given id upwards in turn, evaluating
+	 * the hand once it is complete.
+	 */
+	private static void count(HandEvaluator evaluator, long cards, int next, int remaining, long[] counts) {
+		if (remaining == 0) {
+			counts[HandEvaluator.category(evaluator.strength(cards))]++;
+			return;
+		}
+		for (int id = next; id <= Card.DECK_SIZE - remaining; id++)
+			count(evaluator, cards | (1L << id), id + 1, remaining - 1, counts);
+	}
+
+	private static long[] merge(long[] a, long[] b) {
+		long[] merged = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			merged[i] = a[i] + b[i];
+		return merged;
+	}
+}
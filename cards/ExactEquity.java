@@ -0,0 +1,136 @@
+package cards;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The ExactEquity class finds each player's exact chance of winning by
+ * walking every possible runout of the missing community cards. With one or
+ * two cards to come, or heads up from the flop, there are at most around a
+ * thousand runouts, so counting them all is both faster and more accurate
+ * than sampling.
+ *
+ * Once the number of runouts passes a threshold the walk is split into one
+ * task per choice of the first missing card and run on a fork-join pool. If
+ * the number of runouts passes the calculator's limit, e.g. a multiway hand
+ * before the flop, the calculation is handed to a MonteCarloEquity with the
+ * limit as its sample count instead.
+ */
+public class ExactEquity {
+
+	public static final long DEFAULT_MAX_RUNOUTS = 250000;
+	private static final long PARALLEL_THRESHOLD = 5000;
+
+	private final HandEvaluator evaluator;
+	private final ForkJoinPool pool;
+	private final MonteCarloEquity sampler;
+	private final long maxRunouts;
+
+	/**
+	 * Creates a calculator using the fast evaluator and the common fork-join
+	 * pool, sampling when there are more than DEFAULT_MAX_RUNOUTS runouts.
+	 */
+	public ExactEquity() {
+		this(SevenCardEvaluator.INSTANCE, ForkJoinPool.commonPool(), new MonteCarloEquity(), DEFAULT_MAX_RUNOUTS);
+	}
+
+	/**
+	 * Creates a calculator with the given evaluator, pool and sampler to fall
+	 * back on.
+	 *
+	 * @param evaluator the engine to find hand strengths with
+	 * @param pool the pool large walks are split across
+	 * @param sampler the calculator used when there are too many runouts
+	 * @param maxRunouts the most runouts to walk before sampling instead
+	 */
+	public ExactEquity(HandEvaluator evaluator, ForkJoinPool pool, MonteCarloEquity sampler, long maxRunouts) {
+		this.evaluator = evaluator;
+		this.pool = pool;
+		this.sampler = sampler;
+		this.maxRunouts = maxRunouts;
+	}
+
+	/**
+	 * Finds the equity of each player over every runout, or over a sample of
+	 * runouts if there are too many.
+	 *
+	 * @param holes the hole cards of each player
+	 * @param board the community cards dealt so far, up to five
+	 * @param dead cards known to be out of the deck, such as folded holes
+	 * @return the win, tie and loss fractions and equity of each player
+	 */
+	public EquityResult calculate(CardSet[] holes, CardSet board, CardSet dead) {
+		long[] holeBits = MonteCarloEquity.validate(holes, board, dead);
+		int[] deck = MonteCarloEquity.remainingDeck(holeBits, board.bits(), dead.bits());
+		int missing = 5 - board.size();
+
+		long runouts = runouts(deck.length, missing);
+		if (runouts > maxRunouts)
+			return sampler.calculate(holes, board, dead, maxRunouts, 0);
+
+		EquityResult result;
+		if ((runouts < PARALLEL_THRESHOLD) || (missing == 0)) {
+			result = new EquityResult(holes.length);
+			walk(holeBits, board.bits(), deck, 0, missing, new int[holes.length], result);
+		} else {
+			result = walkParallel(holeBits, board.bits(), deck, missing);
+		}
+		result.setExact(true);
+		return result;
+	}
+
+	/**
+	 * Returns the number of ways to choose the missing cards from the
+	 * remaining deck.
+	 *
+	 * @param remaining the number of cards left in the deck
+	 * @param missing the number of community cards to come
+	 * @return the number of runouts
+	 */
+	public static long runouts(int remaining, int missing) {
+		long count = 1;
+		for (int i = 0; i < missing; i++)
+			count = count * (remaining - i) / (i + 1);
+		return count;
+	}
+
+	/**
+	 * Splits the walk by the first missing card, each task walking the
+	 * runouts whose lowest new card is its own.
+	 */
+	private EquityResult walkParallel(long[] holeBits, long boardBits, int[] deck, int missing) {
+		ArrayList<ForkJoinTask<EquityResult>> tasks = new ArrayList<ForkJoinTask<EquityResult>>();
+		for (int first = 0; first <= deck.length - missing; first++) {
+			final int index = first;
+			tasks.add(ForkJoinTask.adapt(() -> {
+				EquityResult part = new EquityResult(holeBits.length);
+				walk(holeBits, boardBits | (1L << deck[index]), deck, index + 1, missing - 1,
+						new int[holeBits.length], part);
+				return part;
+			}));
+		}
+
+		EquityResult result = new EquityResult(holeBits.length);
+		for (ForkJoinTask<EquityResult> task : tasks)
+			pool.execute(task);
+		for (ForkJoinTask<EquityResult> task : tasks)
+			result.merge(task.join());
+		return result;
+	}
+
+	/**
+	 * Adds each remaining card from the given index onwards to the runout in
+	 * turn, recording the result once the board is complete.
+	 */
+	private void walk(long[] holeBits, long runout, int[] deck, int next, int missing, int[] strengths,
+			EquityResult result) {
+		if (missing == 0) {
+			for (int p = 0; p < holeBits.length; p++)
+				strengths[p] = evaluator.strength(holeBits[p] | runout);
+			result.record(strengths);
+			return;
+		}
+		for (int i = next; i <= deck.length - missing; i++)
+			walk(holeBits, runout | (1L << deck[i]), deck, i + 1, missing - 1, strengths, result);
+	}
+}
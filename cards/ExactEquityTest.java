@@ -0,0 +1,61 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Exact equities are checked against runouts counted by hand, across the
+ * parallel walk, and for the switch to sampling on large walks.
+ */
+public class ExactEquityTest {
+	private static final ForkJoinPool POOL = new ForkJoinPool(2);
+	
+	@Test
+	/**
+	 * On a rainbow turn only the two remaining kings save pocket kings from
+	 * pocket aces.
+	 */
+	public void test_turnOuts() {
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(1, 12)), CardSet.of(Card.of(2, 11), Card.of(3, 11))};
+		CardSet board = CardSet.of(Card.of(0, 0), Card.of(1, 5), Card.of(2, 7), Card.of(3, 1));
+		EquityResult result = new ExactEquity().calculate(holes, board, CardSet.EMPTY);
+		
+		assertTrue("Every river should be counted", result.isExact());
+		assertEquals("There should be one runout per river card", 44, result.getSamples());
+		assertEquals("Aces should win unless a king comes", 42.0 / 44, result.win(0), 1e-12);
+		assertEquals("Kings should win on a king", 2.0 / 44, result.win(1), 1e-12);
+		assertEquals("No river should tie", 0.0, result.tie(0), 0.0);
+	}
+	
+	@Test
+	/**
+	 * Walking every board before the flop is split across threads and gives
+	 * pocket aces about 82% equity against pocket kings.
+	 */
+	public void test_parallelWalk() {
+		ExactEquity calculator = new ExactEquity(SevenCardEvaluator.INSTANCE, POOL, new MonteCarloEquity(), 2000000);
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(1, 12)), CardSet.of(Card.of(2, 11), Card.of(3, 11))};
+		EquityResult result = calculator.calculate(holes, CardSet.EMPTY, CardSet.EMPTY);
+		
+		assertTrue("Every board should be counted", result.isExact());
+		assertEquals("Every board of five from 48 cards should be counted", 1712304, result.getSamples());
+		assertEquals("Aces should have about 82% equity", 0.82, result.equity(0), 0.01);
+		assertEquals("The equities should add to one", 1.0, result.equity(0) + result.equity(1), 1e-9);
+	}
+	
+	@Test
+	/**
+	 * Too many runouts are sampled instead of walked.
+	 */
+	public void test_sampledFallback() {
+		MonteCarloEquity sampler = new MonteCarloEquity(SevenCardEvaluator.INSTANCE, RandomSource.seeded(233), POOL);
+		ExactEquity calculator = new ExactEquity(SevenCardEvaluator.INSTANCE, POOL, sampler, 10000);
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(1, 12)), CardSet.of(Card.of(2, 11), Card.of(3, 11))};
+		EquityResult result = calculator.calculate(holes, CardSet.EMPTY, CardSet.EMPTY);
+		
+		assertFalse("The boards should be sampled", result.isExact());
+		assertEquals("The limit should be the sample count", 10000, result.getSamples());
+	}
+}
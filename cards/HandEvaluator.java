@@ -0,0 +1,69 @@
+package cards;
+import java.util.ArrayList;
+
+/**
+ * A HandEvaluator finds the strength of the best five card hand within five
+ * to seven Cards. Every implementation must produce the same strength for
+ * the same Cards, so engines can be swapped freely once the
+ * EvaluatorHarness shows they agree.
+ *
+ * A strength holds the rank of the hand, one of the constants below, above
+ * bit 20, followed by four bits for each of up to five card ranks in the
+ * order they settle a dispute. A greater strength is always a better hand and
+ * equal strengths are tied.
+ */
+public interface HandEvaluator {
+
+	int HIGH_CARD = 0;
+	int ONE_PAIR = 1;
+	int TWO_PAIRS = 2;
+	int THREE_OF_A_KIND = 3;
+	int STRAIGHT = 4;
+	int FLUSH = 5;
+	int FULL_HOUSE = 6;
+	int FOUR_OF_A_KIND = 7;
+	int STRAIGHT_FLUSH = 8;
+	int ROYAL_FLUSH = 9;
+
+	int CATEGORY_SHIFT = 20;
+
+	/**
+	 * Returns the strength of the best five card hand within the Cards whose
+	 * ids are the set bits.
+	 *
+	 * @param cards the CardSet bits of five to seven Cards
+	 * @return the strength of the best hand
+	 */
+	int strength(long cards);
+
+	/**
+	 * Returns the strength of the best five card hand within a CardSet.
+	 *
+	 * @param cards a set of five to seven Cards
+	 * @return the strength of the best hand
+	 */
+	default int strength(CardSet cards) {
+		return strength(cards.bits());
+	}
+
+	/**
+	 * Returns the strength of the best five card hand within a list of Cards.
+	 *
+	 * @param cards five to seven Cards
+	 * @return the strength of the best hand
+	 */
+	default int strength(ArrayList<Card> cards) {
+		return strength(CardSet.bitsOf(cards));
+	}
+
+	/**
+	 * Extracts the rank of a hand, one of the constants above, from its
+	 * strength.
+	 *
+	 * @param strength a strength found by any evaluator
+	 * @return the rank of the hand
+	 */
+	static int category(int strength) {
+		return strength >>> CATEGORY_SHIFT;
+	}
+}
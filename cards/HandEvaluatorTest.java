@@ -0,0 +1,57 @@
+package cards;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * The fast HandEvaluator used in play is checked against the plain
+ * ReferenceEvaluator through the EvaluatorHarness, on every five card hand
+ * and on a seeded sample of six and seven card hands. The EvaluatorSweep then
+ * checks the rank counts of every five and seven card hand.
+ */
+public class HandEvaluatorTest {
+	private static final HandEvaluator REFERENCE = new ReferenceEvaluator();
+	
+	@Test
+	/**
+	 * Every five card hand should have the same strength in the reference,
+	 * seven card and lookup evaluators.
+	 */
+	public void test_exhaustiveFive() {
+		assertEquals("The seven card evaluator should agree on every hand", 0, 
+				EvaluatorHarness.compareExhaustiveFive(REFERENCE, SevenCardEvaluator.INSTANCE));
+		assertEquals("The lookup evaluator should agree on every hand", 0, 
+				EvaluatorHarness.compareExhaustiveFive(REFERENCE, EvaluatorHarness.LOOKUP_FIVE));
+	}
+	
+	@Test
+	/**
+	 * Random six and seven card hands should have the same strength in the
+	 * reference and seven card evaluators.
+	 */
+	public void test_randomSixAndSeven() {
+		assertEquals("The evaluators should agree on six card hands", 0, 
+				EvaluatorHarness.compareRandom(REFERENCE, SevenCardEvaluator.INSTANCE, 200000, 6, 233));
+		assertEquals("The evaluators should agree on seven card hands", 0, 
+				EvaluatorHarness.compareRandom(REFERENCE, SevenCardEvaluator.INSTANCE, 200000, 7, 233));
+	}
+	
+	@Test
+	/**
+	 * Sweeping every five card hand should give the known count of each rank.
+	 */
+	public void test_sweepFive() {
+		assertArrayEquals("Each rank should have its known count", EvaluatorSweep.FIVE_CARD_COUNTS, 
+				EvaluatorSweep.sweep(SevenCardEvaluator.INSTANCE, 5));
+	}
+	
+	@Test
+	/**
+	 * Sweeping every seven card set should give the known count of each rank
+	 * for the best hand.
+	 */
+	public void test_sweepSeven() {
+		assertArrayEquals("Each rank should have its known count", EvaluatorSweep.SEVEN_CARD_COUNTS, 
+				EvaluatorSweep.sweep(SevenCardEvaluator.INSTANCE, 7));
+	}
+}
@@ -2,6 +2,7 @@ package cards;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 import org.junit.Test;
 
@@ -527,4 +528,46 @@ public class HandTest {
 		assertEquals("hands are equal, should return HANDS_EQUAL", 0, result);
 	}
 	
+	//=========================================================================
+	// STRENGTH TESTS
+	
+	@Test
+	/*
+	 * Hands sorted by their strength should run from weakest to strongest,
+	 * the kicker settling the order of the two one pair hands.
+	 */
+	public void test_compareTo_sort() {
+		Hand pairLowKicker = new Hand();
+		pairLowKicker.addCard(new Card(0, 9));
+		pairLowKicker.addCard(new Card(1, 9));
+		pairLowKicker.addCard(new Card(2, 7));
+		pairLowKicker.addCard(new Card(3, 3));
+		pairLowKicker.addCard(new Card(0, 1));
+		
+		Hand pairHighKicker = new Hand();
+		pairHighKicker.addCard(new Card(2, 9));
+		pairHighKicker.addCard(new Card(3, 9));
+		pairHighKicker.addCard(new Card(0, 7));
+		pairHighKicker.addCard(new Card(1, 4));
+		pairHighKicker.addCard(new Card(2, 1));
+		
+		Hand wheel = new Hand();
+		wheel.addCard(new Card(1, 12));
+		wheel.addCard(new Card(2, 0));
+		wheel.addCard(new Card(3, 1));
+		wheel.addCard(new Card(0, 2));
+		wheel.addCard(new Card(1, 3));
+		
+		ArrayList<Hand> hands = new ArrayList<Hand>();
+		hands.add(wheel);
+		hands.add(pairHighKicker);
+		hands.add(pairLowKicker);
+		Collections.sort(hands);
+		
+		assertSame("The weakest hand should be", pairLowKicker, hands.get(0));
+		assertSame("The middle hand should be", pairHighKicker, hands.get(1));
+		assertSame("The strongest hand should be", wheel, hands.get(2));
+		assertEquals("The rank should be held in the strength", wheel.getRank(), wheel.strength() >>> 20);
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package cards;
+import java.util.ArrayList;
+
+/**
+ * The IncrementalEvaluator class keeps the evaluation state of one player's
+ * cards through a round. The hole Cards are added once when dealt, and each
+ * time the community cards grow only the new Cards are folded into the
+ * player's suit masks before the best hand is read off them again, so the
+ * cost of each street is the same however many players are seated.
+ *
+ * An evaluator is reset rather than replaced between rounds so it may be
+ * reused for the life of a player. The strengths themselves come from a
+ * HandEvaluator, the fast SevenCardEvaluator unless another is given.
+ */
+public class IncrementalEvaluator {
+
+	private HandEvaluator evaluator;
+	private long holeBits; // bits of the player's hole cards
+	private long bits; // bits of the hole and every community card seen so far
+	private int boardCount; // number of community cards folded in
+	private int strength;
+
+	public IncrementalEvaluator() {
+		this(SevenCardEvaluator.INSTANCE);
+	}
+
+	public IncrementalEvaluator(HandEvaluator evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Replaces the HandEvaluator the strengths are found with, re-evaluating
+	 * the Cards already added.
+	 *
+	 * @param evaluator the new HandEvaluator
+	 */
+	public void setEvaluator(HandEvaluator evaluator) {
+		this.evaluator = evaluator;
+		evaluate();
+	}
+
+	/**
+	 * Clears all Cards for a new round.
+	 */
+	public void reset() {
+		holeBits = 0L;
+		bits = 0L;
+		boardCount = 0;
+		strength = 0;
+	}
+
+	/**
+	 * Adds one of the player's hole Cards.
+	 *
+	 * @param card the dealt hole Card
+	 */
+	public void addHole(Card card) {
+		holeBits |= 1L << card.id();
+		bits |= 1L << card.id();
+		evaluate();
+	}
+
+	/**
+	 * Brings the evaluation up to date with the community cards. The board is
+	 * expected to only grow during a round, so only Cards past those already
+	 * seen are added. If the board has shrunk it belongs to a new round and is
+	 * folded in again from the hole Cards alone.
+	 *
+	 * @param board the community cards dealt so far
+	 */
+	public void update(ArrayList<Card> board) {
+		if (board.size() < boardCount) {
+			bits = holeBits;
+			boardCount = 0;
+		}
+		if (board.size() == boardCount)
+			return;
+		for (int i = boardCount; i < board.size(); i++)
+			bits |= 1L << board.get(i).id();
+		boardCount = board.size();
+		evaluate();
+	}
+
+	/**
+	 * Returns the strength of the best five card hand among the Cards added,
+	 * or 0 while there are fewer than five.
+	 *
+	 * @return the strength of the best hand
+	 */
+	public int strength() {
+		return strength;
+	}
+
+	/**
+	 * Returns the bits of all of the Cards added.
+	 *
+	 * @return the CardSet bits of the hole and community cards
+	 */
+	public long bits() {
+		return bits;
+	}
+
+	/**
+	 * Returns a Hand of the best five Cards among those added, which are only
+	 * picked out if its Cards are requested. With fewer than five Cards added
+	 * the Hand is empty.
+	 *
+	 * @return the best Hand
+	 */
+	public Hand toHand() {
+		if (strength == 0)
+			return new Hand();
+		return new Hand(bits, strength);
+	}
+
+	private void evaluate() {
+		if (Long.bitCount(bits) >= 5)
+			strength = evaluator.strength(bits);
+		else
+			strength = 0;
+	}
+}
@@ -0,0 +1,236 @@
+package cards;
+
+import static cards.HandEvaluator.*;
+
+/**
+ * The LookupEvaluator class ranks any five Cards with a handful of array
+ * lookups instead of sorting and counting. Every hand is mapped to a single
+ * strength integer where a greater value is always a better hand, so two
+ * hands are compared with one integer comparison.
+ *
+ * The tables are built once when the class is loaded. Hands with five
+ * distinct ranks are indexed directly by the 13 bit mask of their ranks, one
+ * table for flushes and one for all others. Hands containing a pair or better
+ * are identified by the product of a unique prime assigned to each rank,
+ * which is the same for any ordering of the cards, and found in an open
+ * addressed hash table keyed on that product.
+ *
+ * The strength integer holds the hand category (the ranking constants of the
+ * HandEvaluator, High Card to Royal Flush) above bit 20, followed by up to
+ * five four bit card ranks ordered by their importance in settling a dispute,
+ * e.g. the rank of the set of three in a full house before the rank of its
+ * pair.
+ */
+public final class LookupEvaluator {
+
+	private static final int[] PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31,
+			37, 41};
+
+	private static final int HASH_BITS = 14;
+	private static final int HASH_MASK = (1 << HASH_BITS) - 1;
+
+	private static final int[] FLUSHES = new int[1 << 13];
+	private static final int[] UNIQUE = new int[1 << 13];
+	private static final int[] PRODUCT_KEYS = new int[1 << HASH_BITS];
+	private static final int[] PRODUCT_VALUES = new int[1 << HASH_BITS];
+
+	static {
+		buildTables();
+	}
+
+	private LookupEvaluator() {}
+
+	/**
+	 * Returns the strength of the five given Cards.
+	 *
+	 * @param c1 the first Card
+	 * @param c2 the second Card
+	 * @param c3 the third Card
+	 * @param c4 the fourth Card
+	 * @param c5 the fifth Card
+	 * @return the strength of the hand, greater values being better hands
+	 */
+	public static int evaluate(Card c1, Card c2, Card c3, Card c4, Card c5) {
+		return evaluate(c1.getSuit(), c1.getRank(), c2.getSuit(), c2.getRank(),
+				c3.getSuit(), c3.getRank(), c4.getSuit(), c4.getRank(),
+				c5.getSuit(), c5.getRank());
+	}
+
+	/**
+	 * Returns the strength of five cards given as suit and rank pairs. If the
+	 * ranks are all distinct the rank mask alone identifies the hand, with the
+	 * suits only deciding between the flush and non flush tables. Otherwise
+	 * the prime product of the ranks is looked up.
+	 *
+	 * @return the strength of the hand, greater values being better hands
+	 */
+	public static int evaluate(int s1, int r1, int s2, int r2, int s3, int r3,
+			int s4, int r4, int s5, int r5) {
+		int mask = (1 << r1) | (1 << r2) | (1 << r3) | (1 << r4) | (1 << r5);
+		if (Integer.bitCount(mask) == 5) {
+			if ((s1 == s2) && (s1 == s3) && (s1 == s4) && (s1 == s5))
+				return FLUSHES[mask];
+			return UNIQUE[mask];
+		}
+		return lookupProduct(PRIMES[r1] * PRIMES[r2] * PRIMES[r3] * PRIMES[r4]
+				* PRIMES[r5]);
+	}
+
+	/**
+	 * Extracts the hand category, one of the Hand ranking constants, from a
+	 * strength integer.
+	 *
+	 * @param strength a strength returned by one of the evaluate methods
+	 * @return the category of the hand
+	 */
+	public static int category(int strength) {
+		return HandEvaluator.category(strength);
+	}
+
+	/**
+	 * Finds the strength stored for a prime product. The table is sized so
+	 * that a probe rarely goes past the first slot. An empty slot means the
+	 * cards could not have come from a single deck, e.g. five of one rank.
+	 */
+	private static int lookupProduct(int product) {
+		int slot = hash(product);
+		while (PRODUCT_KEYS[slot] != product) {
+			if (PRODUCT_KEYS[slot] == 0)
+				throw new IllegalArgumentException("Not a valid five card hand");
+			slot = (slot + 1) & HASH_MASK;
+		}
+		return PRODUCT_VALUES[slot];
+	}
+
+	private static int hash(int product) {
+		return (product * 0x9E3779B1) >>> (32 - HASH_BITS);
+	}
+
+	//=========================================================================
+	// TABLE GENERATION
+
+	/**
+	 * Every multiset of five ranks with no rank used more than four times is
+	 * generated, 6175 in total, and its strength written to the appropriate
+	 * table.
+	 */
+	private static void buildTables() {
+		int[] counts = new int[13];
+		fillRanks(counts, 12, 5);
+	}
+
+	/**
+	 * Recursively distributes the remaining cards over the ranks from the
+	 * given rank downwards, storing each completed multiset.
+	 */
+	private static void fillRanks(int[] counts, int rank, int remaining) {
+		if (remaining == 0) {
+			store(counts);
+			return;
+		}
+		if (rank < 0)
+			return;
+		for (int n = Math.min(4, remaining); n >= 0; n--) {
+			counts[rank] = n;
+			fillRanks(counts, rank - 1, remaining - n);
+		}
+		counts[rank] = 0;
+	}
+
+	private static void store(int[] counts) {
+		int mask = 0, product = 1;
+		for (int r = 0; r < 13; r++) {
+			if (counts[r] > 0)
+				mask |= 1 << r;
+			for (int n = 0; n < counts[r]; n++)
+				product *= PRIMES[r];
+		}
+
+		if (Integer.bitCount(mask) == 5) {
+			int straightHigh = straightHigh(mask);
+			if (straightHigh >= 0) {
+				FLUSHES[mask] = pack(straightHigh == 12 ? ROYAL_FLUSH : STRAIGHT_FLUSH, straightHigh);
+				UNIQUE[mask] = pack(STRAIGHT, straightHigh);
+			} else {
+				FLUSHES[mask] = packRanks(FLUSH, counts, 1);
+				UNIQUE[mask] = packRanks(HIGH_CARD, counts, 1);
+			}
+			return;
+		}
+
+		int slot = hash(product);
+		while (PRODUCT_KEYS[slot] != 0)
+			slot = (slot + 1) & HASH_MASK;
+		PRODUCT_KEYS[slot] = product;
+		PRODUCT_VALUES[slot] = pairedStrength(counts);
+	}
+
+	/**
+	 * For hands with at least two cards of the same rank the category is found
+	 * from the largest and second largest rank sets, then the ranks are packed
+	 * by descending set size and descending rank.
+	 */
+	private static int pairedStrength(int[] counts) {
+		int largest = 0, pairs = 0;
+		for (int r = 0; r < 13; r++) {
+			if (counts[r] > largest)
+				largest = counts[r];
+			if (counts[r] == 2)
+				pairs++;
+		}
+
+		int category;
+		if (largest == 4)
+			category = FOUR_OF_A_KIND;
+		else if ((largest == 3) && (pairs == 1))
+			category = FULL_HOUSE;
+		else if (largest == 3)
+			category = THREE_OF_A_KIND;
+		else if (pairs == 2)
+			category = TWO_PAIRS;
+		else
+			category = ONE_PAIR;
+
+		int packed = category, written = 0;
+		for (int size = 4; size >= 1; size--) {
+			for (int r = 12; r >= 0; r--) {
+				if (counts[r] == size) {
+					packed = (packed << 4) | r;
+					written++;
+				}
+			}
+		}
+		return packed << (4 * (5 - written));
+	}
+
+	/**
+	 * Packs the ranks present in the counts from highest to lowest below the
+	 * category.
+	 */
+	private static int packRanks(int category, int[] counts, int size) {
+		int packed = category;
+		for (int r = 12; r >= 0; r--) {
+			if (counts[r] == size)
+				packed = (packed << 4) | r;
+		}
+		return packed;
+	}
+
+	private static int pack(int category, int highRank) {
+		return (category << CATEGORY_SHIFT) | (highRank << 16);
+	}
+
+	/**
+	 * Returns the rank of the highest card of the straight formed by the five
+	 * ranks of the mask, or -1 if they are not consecutive. The ace may also
+	 * play low, making a Five the high card of that straight.
+	 */
+	private static int straightHigh(int mask) {
+		if (mask == 0x100F) // Ace, Two, Three, Four, Five
+			return 3;
+		int low = Integer.numberOfTrailingZeros(mask);
+		if ((mask >>> low) == 0x1F)
+			return low + 4;
+		return -1;
+	}
+}
@@ -0,0 +1,88 @@
+package cards;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * The LookupEvaluator is checked on hands of a known category, on the kicker
+ * orderings which settle hands of the same category, and on its refusal of
+ * five Cards which could not come from one deck.
+ */
+public class LookupEvaluatorTest {
+	@Test
+	/**
+	 * One hand of each category should be ranked as that category.
+	 */
+	public void test_categories() {
+		assertEquals(HandEvaluator.HIGH_CARD, category("Ah Jd 9c 6s 3h"));
+		assertEquals(HandEvaluator.ONE_PAIR, category("9h 9d Kc 6s 3h"));
+		assertEquals(HandEvaluator.TWO_PAIRS, category("9h 9d 3c 3s Ah"));
+		assertEquals(HandEvaluator.THREE_OF_A_KIND, category("7h 7d 7c Ks 2h"));
+		assertEquals(HandEvaluator.STRAIGHT, category("5h 6d 7c 8s 9h"));
+		assertEquals(HandEvaluator.STRAIGHT, category("Ah 2d 3c 4s 5h"));
+		assertEquals(HandEvaluator.FLUSH, category("2c 7c 9c Jc Kc"));
+		assertEquals(HandEvaluator.FULL_HOUSE, category("4h 4d 4c Ts Th"));
+		assertEquals(HandEvaluator.FOUR_OF_A_KIND, category("Qh Qd Qc Qs 2h"));
+		assertEquals(HandEvaluator.STRAIGHT_FLUSH, category("5d 6d 7d 8d 9d"));
+		assertEquals(HandEvaluator.ROYAL_FLUSH, category("Ts Js Qs Ks As"));
+	}
+
+	@Test
+	/**
+	 * Each category should beat the one below it, whatever the ranks.
+	 */
+	public void test_categoryOrder() {
+		String[] ascending = {"Ah Kd Qc Js 9h", "2h 2d 3c 4s 5h", "2h 2d 3c 3s 4h",
+				"2h 2d 2c 3s 4h", "Ah 2d 3c 4s 5h", "2c 3c 4c 5c 7c", "2h 2d 2c 3s 3h",
+				"2h 2d 2c 2s 3h", "Ah 2h 3h 4h 5h", "Th Jh Qh Kh Ah"};
+		for (int i = 1; i < ascending.length; i++)
+			assertTrue(ascending[i] + " should beat " + ascending[i - 1],
+					strength(ascending[i]) > strength(ascending[i - 1]));
+	}
+
+	@Test
+	/**
+	 * Hands of the same category should be settled by their ranks in order of
+	 * importance, and hands differing only in suits should tie.
+	 */
+	public void test_kickers() {
+		assertTrue(strength("Ah Ad Kc 4s 3h") > strength("Ah Ad Qc Js Th"));
+		assertTrue(strength("Kh Kd Qc Qs 2h") > strength("Kh Kd Jc Js Ah"));
+		assertTrue(strength("Kh Kd Qc Qs 3h") > strength("Kh Kd Qc Qs 2h"));
+		assertTrue(strength("3h 3d 3c 2s 2h") > strength("2h 2d 2c As Ah"));
+		assertTrue(strength("7h 7d 7c As 2h") > strength("7h 7d 7c Ks Qh"));
+		assertTrue(strength("Ac Kc 9c 4c 2c") > strength("Ac Qc Jc Tc 8c"));
+		assertTrue(strength("2h 3d 4c 5s 6h") > strength("Ah 2d 3c 4s 5h"));
+		assertTrue(strength("Ah Kd 9c 6s 3h") > strength("Ah Kd 9c 6s 2h"));
+		assertEquals(strength("Ah Kd 9c 6s 3h"), strength("As Kc 9d 6h 3s"));
+		assertEquals(strength("9h 9d 3c 3s Ah"), strength("3s Ah 9d 3c 9h"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	/**
+	 * Five Cards of one rank cannot come from a single deck.
+	 */
+	public void test_invalidHand() {
+		strength("Ah Ad Ac As Ah");
+	}
+
+	private static int category(String hand) {
+		return LookupEvaluator.category(strength(hand));
+	}
+
+	private static int strength(String hand) {
+		Card[] cards = cards(hand);
+		return LookupEvaluator.evaluate(cards[0], cards[1], cards[2], cards[3], cards[4]);
+	}
+
+	/**
+	 * Reads Cards written as a rank and a suit letter, e.g. "Ah Td 2c".
+	 */
+	static Card[] cards(String text) {
+		String[] names = text.split(" ");
+		Card[] cards = new Card[names.length];
+		for (int i = 0; i < names.length; i++)
+			cards[i] = Card.of("hsdc".indexOf(names[i].charAt(1)), "23456789TJQKA".indexOf(names[i].charAt(0)));
+		return cards;
+	}
+}
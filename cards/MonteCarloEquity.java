@@ -0,0 +1,154 @@
+package cards;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The MonteCarloEquity class estimates each player's chance of winning from
+ * their hole cards, the community cards dealt so far and any cards known to
+ * be out of play. Random runouts of the missing community cards are dealt from
+ * the remaining deck and every player's best hand is evaluated on each, the
+ * results being gathered in an EquityResult.
+ *
+ * The samples are split into tasks for a fork-join pool, several per worker
+ * so that uneven tasks balance out. Each task draws from its own stream of
+ * the calculator's RandomSource and keeps its own deck array, strengths and
+ * counts, so nothing is allocated or shared while sampling and the work
+ * scales with the number of cores. A calculation stops at whichever comes
+ * first of its sample count and its time budget.
+ */
+public class MonteCarloEquity {
+
+	private static final int TASKS_PER_WORKER = 4;
+	private static final int CLOCK_CHECK_INTERVAL = 1024; // samples between checks of the time budget
+
+	private final HandEvaluator evaluator;
+	private final RandomSource random;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a calculator using the fast evaluator, unseeded randomness and
+	 * the common fork-join pool.
+	 */
+	public MonteCarloEquity() {
+		this(SevenCardEvaluator.INSTANCE, RandomSource.threadLocal(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a calculator with the given evaluator, source of runouts and
+	 * pool to run on. A seeded source with a single worker pool reproduces the
+	 * same samples every time.
+	 *
+	 * @param evaluator the engine to find hand strengths with
+	 * @param random the source the runouts are dealt from
+	 * @param pool the pool the sampling tasks run on
+	 */
+	public MonteCarloEquity(HandEvaluator evaluator, RandomSource random, ForkJoinPool pool) {
+		this.evaluator = evaluator;
+		this.random = random;
+		this.pool = pool;
+	}
+
+	/**
+	 * Estimates the equity of each player by dealing random runouts.
+	 *
+	 * @param holes the hole cards of each player
+	 * @param board the community cards dealt so far, up to five
+	 * @param dead cards known to be out of the deck, such as folded holes
+	 * @param maxSamples the number of runouts to deal at most
+	 * @param timeBudgetMillis the time to stop sampling after, 0 for no limit
+	 * @return the win, tie and loss fractions and equity of each player
+	 */
+	public EquityResult calculate(CardSet[] holes, CardSet board, CardSet dead, long maxSamples,
+			long timeBudgetMillis) {
+		long[] holeBits = validate(holes, board, dead);
+		long boardBits = board.bits();
+		int[] remaining = remainingDeck(holeBits, boardBits, dead.bits());
+		int missing = 5 - board.size();
+		long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1000000L : Long.MAX_VALUE;
+
+		int taskCount = (int) Math.max(1, Math.min(maxSamples, (long) pool.getParallelism() * TASKS_PER_WORKER));
+		ArrayList<ForkJoinTask<EquityResult>> tasks = new ArrayList<ForkJoinTask<EquityResult>>(taskCount);
+		for (int t = 0; t < taskCount; t++) {
+			long samples = maxSamples / taskCount + (t < maxSamples % taskCount ? 1 : 0);
+			RandomSource stream = random.split();
+			tasks.add(ForkJoinTask.adapt(() -> sample(holeBits, boardBits, remaining.clone(), missing, samples,
+					deadline, stream)));
+		}
+
+		EquityResult result = new EquityResult(holes.length);
+		for (ForkJoinTask<EquityResult> task : tasks)
+			pool.execute(task);
+		for (ForkJoinTask<EquityResult> task : tasks)
+			result.merge(task.join());
+		return result;
+	}
+
+	/**
+	 * Deals the given number of runouts for one task. The missing community
+	 * cards are chosen by a partial Fisher-Yates shuffle of the front of the
+	 * task's own deck array, which never needs resetting since any order of
+	 * the remaining cards is as random as the next.
+	 */
+	private EquityResult sample(long[] holeBits, long boardBits, int[] deck, int missing, long samples,
+			long deadline, RandomSource stream) {
+		EquityResult result = new EquityResult(holeBits.length);
+		int[] strengths = new int[holeBits.length];
+		for (long s = 0; s < samples; s++) {
+			if ((s % CLOCK_CHECK_INTERVAL == 0) && (System.nanoTime() > deadline))
+				break;
+			long runout = boardBits;
+			for (int i = 0; i < missing; i++) {
+				int j = i + stream.nextInt(deck.length - i);
+				int id = deck[j];
+				deck[j] = deck[i];
+				deck[i] = id;
+				runout |= 1L << id;
+			}
+			for (int p = 0; p < holeBits.length; p++)
+				strengths[p] = evaluator.strength(holeBits[p] | runout);
+			result.record(strengths);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks that no card appears twice among the holes, board and dead
+	 * cards and that there are enough cards left to complete the board.
+	 */
+	static long[] validate(CardSet[] holes, CardSet board, CardSet dead) {
+		if (holes.length < 1)
+			throw new IllegalArgumentException("At least one player is required");
+		if (board.size() > 5)
+			throw new IllegalArgumentException("The board cannot have more than five cards");
+		long seen = board.bits();
+		if ((seen & dead.bits()) != 0L)
+			throw new IllegalArgumentException("A card is both on the board and dead");
+		seen |= dead.bits();
+		long[] holeBits = new long[holes.length];
+		for (int p = 0; p < holes.length; p++) {
+			holeBits[p] = holes[p].bits();
+			if ((holeBits[p] & seen) != 0L)
+				throw new IllegalArgumentException("A card of player " + (p + 1) + " is already in use");
+			seen |= holeBits[p];
+		}
+		if (Card.DECK_SIZE - Long.bitCount(seen) < 5 - board.size())
+			throw new IllegalArgumentException("Not enough cards are left to complete the board");
+		return holeBits;
+	}
+
+	/**
+	 * Lists the ids of the cards not held, on the board or dead.
+	 */
+	static int[] remainingDeck(long[] holeBits, long boardBits, long deadBits) {
+		long used = boardBits | deadBits;
+		for (long hole : holeBits)
+			used |= hole;
+		long left = ~used & CardSet.FULL_DECK.bits();
+		int[] deck = new int[Long.bitCount(left)];
+		int n = 0;
+		for (long b = left; b != 0L; b &= b - 1)
+			deck[n++] = Long.numberOfTrailingZeros(b);
+		return deck;
+	}
+}
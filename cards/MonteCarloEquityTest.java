@@ -0,0 +1,51 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Equity estimates are checked against well known matchups, and the inputs
+ * are checked for cards used twice.
+ */
+public class MonteCarloEquityTest {
+	private static final MonteCarloEquity CALCULATOR = new MonteCarloEquity(SevenCardEvaluator.INSTANCE, 
+			RandomSource.seeded(233), new ForkJoinPool(2));
+	
+	@Test
+	/**
+	 * Pocket aces hold about 82% equity against pocket kings before the flop.
+	 */
+	public void test_acesAgainstKings() {
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(1, 12)), CardSet.of(Card.of(2, 11), Card.of(3, 11))};
+		EquityResult result = CALCULATOR.calculate(holes, CardSet.EMPTY, CardSet.EMPTY, 40000, 0);
+		
+		assertEquals("Every sample should be dealt", 40000, result.getSamples());
+		assertEquals("Aces should have about 82% equity", 0.82, result.equity(0), 0.015);
+		assertEquals("The equities should add to one", 1.0, result.equity(0) + result.equity(1), 1e-9);
+		assertTrue("The confidence interval should be narrow", result.confidence(0) < 0.01);
+	}
+	
+	@Test
+	/**
+	 * With the board complete the same player wins every sample.
+	 */
+	public void test_completeBoard() {
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(0, 11)), CardSet.of(Card.of(1, 0), Card.of(2, 1))};
+		CardSet board = CardSet.of(Card.of(0, 10), Card.of(0, 9), Card.of(0, 8), Card.of(3, 2), Card.of(1, 3));
+		EquityResult result = CALCULATOR.calculate(holes, board, CardSet.EMPTY, 1000, 0);
+		
+		assertEquals("The royal flush should always win", 1.0, result.win(0), 0.0);
+		assertEquals("The other player should always lose", 1.0, result.loss(1), 0.0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	/**
+	 * A card held by a player cannot also be dead.
+	 */
+	public void test_duplicateCard() {
+		CardSet[] holes = {CardSet.of(Card.of(0, 12), Card.of(0, 11)), CardSet.of(Card.of(1, 0), Card.of(2, 1))};
+		CALCULATOR.calculate(holes, CardSet.EMPTY, CardSet.of(Card.of(0, 12)), 1000, 0);
+	}
+}
@@ -0,0 +1,355 @@
+package cards;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The PreflopEquityTable class holds the all-in equity of each of the 169
+ * starting hands against each other, so that decisions before the flop can
+ * be made from a single lookup rather than an equity calculation.
+ *
+ * The table is generated once by the main method into a small binary file
+ * which is memory mapped when opened, so opening costs almost nothing and
+ * only the pages looked up are ever read. Each matchup is kept as an unsigned
+ * 16 bit fraction of the pot. Rows are generated in parallel and flagged in
+ * the file header as they finish, so an interrupted generation picks up where
+ * it left off when run again with the same settings.
+ *
+ * The starting hands are indexed on a 13 by 13 grid of the two ranks, pairs
+ * on the diagonal, suited hands with the higher rank as the row and offsuit
+ * hands with the lower rank as the row.
+ *
+ * Run from the command line with the optional file, samples per matchup and
+ * seed:
+ *
+ * java cards.PreflopEquityTable [file] [samples] [seed]
+ */
+public final class PreflopEquityTable {
+
+	public static final int HANDS = 169;
+	public static final String DEFAULT_FILE = "Preflop.dat";
+
+	private static final int MAGIC = 0x50464551; // "PFEQ"
+	private static final int VERSION = 1;
+	static final int ROW_FLAGS = 20; // one byte per row, set once the row is complete
+	static final int DATA = 192; // equities of each matchup, row by row
+	static final int FILE_SIZE = DATA + HANDS * HANDS * 2;
+	private static final double SCALE = 65535.0;
+	private static final String RANK_CHARS = "23456789TJQKA";
+
+	private final ByteBuffer data;
+	private final double[] vsRandom = new double[HANDS];
+
+	private PreflopEquityTable(ByteBuffer data) {
+		this.data = data;
+		for (int hero = 0; hero < HANDS; hero++) {
+			double total = 0.0, weight = 0.0;
+			for (int villain = 0; villain < HANDS; villain++) {
+				total += combos(villain) * equity(hero, villain);
+				weight += combos(villain);
+			}
+			vsRandom[hero] = total / weight;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILE);
+		int samples = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		long start = System.nanoTime();
+		generate(file, samples, seed, SevenCardEvaluator.INSTANCE, ForkJoinPool.commonPool());
+		System.out.printf("Generated %s in %.1f s%n", file, (System.nanoTime() - start) / 1e9);
+
+		PreflopEquityTable table = open(file);
+		int aces = startingHand(CardSet.of(Card.of(0, 12), Card.of(1, 12)));
+		int kings = startingHand(CardSet.of(Card.of(0, 11), Card.of(1, 11)));
+		System.out.printf("AA against KK: %.4f, AA against a random hand: %.4f%n",
+				table.equity(aces, kings), table.equityVsRandom(aces));
+	}
+
+	/**
+	 * Generates the table into the given file, or finishes the rows missing
+	 * from a previous generation with the same settings.
+	 *
+	 * @param file the file to write
+	 * @param samples the number of runouts to deal for each matchup
+	 * @param seed the seed the runouts are dealt from
+	 * @param evaluator the engine to find hand strengths with
+	 * @param pool the pool the rows are generated on
+	 * @throws IOException if the file cannot be written or was generated with
+	 * other settings
+	 */
+	public static void generate(Path file, int samples, long seed, HandEvaluator evaluator, ForkJoinPool pool)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			long size = channel.size();
+			if (size != 0 && size != FILE_SIZE)
+				throw new IOException(file + " is not a preflop equity table");
+			MappedByteBuffer map = channel.map(MapMode.READ_WRITE, 0, FILE_SIZE);
+			if (size == 0) {
+				map.putInt(0, MAGIC);
+				map.putInt(4, VERSION);
+				map.putInt(8, samples);
+				map.putLong(12, seed);
+			} else {
+				checkHeader(map, file);
+				if (map.getInt(8) != samples || map.getLong(12) != seed)
+					throw new IOException(file + " was generated with other settings");
+			}
+
+			ArrayList<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+			for (int row = 0; row < HANDS; row++) {
+				if (map.get(ROW_FLAGS + row) != 0)
+					continue;
+				final int hero = row;
+				tasks.add(ForkJoinTask.adapt(() -> {
+					char[] equities = generateRow(hero, samples, seed, evaluator);
+					writeRow(map, hero, equities);
+				}));
+			}
+			for (ForkJoinTask<?> task : tasks)
+				pool.execute(task);
+			for (ForkJoinTask<?> task : tasks)
+				task.join();
+		}
+	}
+
+	/**
+	 * Maps a generated table from the given file.
+	 *
+	 * @param file the file to map
+	 * @return the table
+	 * @throws IOException if the file cannot be read or is not a complete
+	 * table
+	 */
+	public static PreflopEquityTable open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() != FILE_SIZE)
+				throw new IOException(file + " is not a preflop equity table");
+			MappedByteBuffer map = channel.map(MapMode.READ_ONLY, 0, FILE_SIZE);
+			checkHeader(map, file);
+			for (int row = 0; row < HANDS; row++) {
+				if (map.get(ROW_FLAGS + row) == 0)
+					throw new IOException(file + " has not finished generating");
+			}
+			return new PreflopEquityTable(map);
+		}
+	}
+
+	/**
+	 * Returns the table in DEFAULT_FILE of the working directory, mapped the
+	 * first time it is asked for, or null if there is no usable table there.
+	 * No lock is taken once it has been mapped, so tables being set up at
+	 * the same time do not wait on each other.
+	 *
+	 * @return the default table, or null
+	 */
+	public static PreflopEquityTable getDefault() {
+		return Default.TABLE;
+	}
+
+	/**
+	 * Holds the default table, which the JVM maps once, when getDefault is
+	 * first called.
+	 */
+	private static class Default {
+		static final PreflopEquityTable TABLE = load();
+
+		private static PreflopEquityTable load() {
+			Path file = Paths.get(DEFAULT_FILE);
+			if (!Files.exists(file))
+				return null;
+			try {
+				return open(file);
+			} catch (IOException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the share of the pot the hero's starting hand takes on average
+	 * all in against the villain's.
+	 *
+	 * @param hero the index of the hero's starting hand
+	 * @param villain the index of the villain's starting hand
+	 * @return the equity from 0 to 1
+	 */
+	public double equity(int hero, int villain) {
+		return data.getChar(DATA + (hero * HANDS + villain) * 2) / SCALE;
+	}
+
+	/**
+	 * Returns the equity of one player's hole cards against another's.
+	 *
+	 * @param hero the hero's hole cards
+	 * @param villain the villain's hole cards
+	 * @return the equity from 0 to 1
+	 */
+	public double equity(CardSet hero, CardSet villain) {
+		return equity(startingHand(hero), startingHand(villain));
+	}
+
+	/**
+	 * Returns the equity of a starting hand against a random hand, each other
+	 * starting hand weighted by its number of suit combinations.
+	 *
+	 * @param hero the index of the hero's starting hand
+	 * @return the equity from 0 to 1
+	 */
+	public double equityVsRandom(int hero) {
+		return vsRandom[hero];
+	}
+
+	/**
+	 * Returns the index of the starting hand of two hole cards.
+	 *
+	 * @param hole the two hole cards
+	 * @return the index from 0 to 168
+	 */
+	public static int startingHand(CardSet hole) {
+		return startingHand(hole.bits());
+	}
+
+	/**
+	 * Returns the index of the starting hand of two hole cards given as
+	 * CardSet bits.
+	 *
+	 * @param holeBits the bits of the two hole cards
+	 * @return the index from 0 to 168
+	 */
+	public static int startingHand(long holeBits) {
+		if (Long.bitCount(holeBits) != 2)
+			throw new IllegalArgumentException("A starting hand has exactly two cards");
+		int first = Long.numberOfTrailingZeros(holeBits);
+		int second = 63 - Long.numberOfLeadingZeros(holeBits);
+		int high = Math.max(first % 13, second % 13), low = Math.min(first % 13, second % 13);
+		if (first / 13 == second / 13)
+			return high * 13 + low;
+		return low * 13 + high;
+	}
+
+	/**
+	 * Returns the short name of a starting hand, such as AA, AKs or 72o.
+	 *
+	 * @param hand the index of the starting hand
+	 * @return the name
+	 */
+	public static String name(int hand) {
+		int row = hand / 13, column = hand % 13;
+		if (row == column)
+			return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(row);
+		if (row > column)
+			return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(column) + "s";
+		return "" + RANK_CHARS.charAt(column) + RANK_CHARS.charAt(row) + "o";
+	}
+
+	/**
+	 * Returns the number of suit combinations of a starting hand: 6 for a
+	 * pair, 4 for a suited hand and 12 for an offsuit hand.
+	 *
+	 * @param hand the index of the starting hand
+	 * @return the number of combinations
+	 */
+	public static int combos(int hand) {
+		int row = hand / 13, column = hand % 13;
+		return row == column ? 6 : row > column ? 4 : 12;
+	}
+
+	/**
+	 * Lists the CardSet bits of every pair of hole cards of a starting hand.
+	 */
+	static long[] holes(int hand) {
+		int row = hand / 13, column = hand % 13;
+		long[] holes = new long[combos(hand)];
+		int n = 0;
+		for (int s1 = 0; s1 < 4; s1++) {
+			for (int s2 = 0; s2 < 4; s2++) {
+				boolean take = row == column ? s1 < s2 : row > column ? s1 == s2 : s1 != s2;
+				if (take)
+					holes[n++] = (1L << (s1 * 13 + row)) | (1L << (s2 * 13 + column));
+			}
+		}
+		return holes;
+	}
+
+	/**
+	 * Finds the equity of one starting hand against every other from it
+	 * onwards. A hand against itself takes exactly half by symmetry.
+	 */
+	private static char[] generateRow(int hero, int samples, long seed, HandEvaluator evaluator) {
+		RandomSource random = RandomSource.seeded(seed + hero * 0x9E3779B97F4A7C15L);
+		char[] equities = new char[HANDS];
+		for (int villain = hero; villain < HANDS; villain++) {
+			double equity = villain == hero ? 0.5 : matchup(hero, villain, samples, random, evaluator);
+			equities[villain] = (char) Math.round(equity * SCALE);
+		}
+		return equities;
+	}
+
+	/**
+	 * Deals runouts for one matchup, cycling through every pair of hole cards
+	 * the two starting hands can be dealt without sharing a card.
+	 */
+	private static double matchup(int hero, int villain, int samples, RandomSource random,
+			HandEvaluator evaluator) {
+		ArrayList<long[]> deals = new ArrayList<long[]>();
+		for (long a : holes(hero)) {
+			for (long b : holes(villain)) {
+				if ((a & b) == 0L)
+					deals.add(new long[] {a, b});
+			}
+		}
+
+		double shares = 0.0;
+		for (int s = 0; s < samples; s++) {
+			long[] deal = deals.get(s % deals.size());
+			long used = deal[0] | deal[1];
+			long board = 0L;
+			for (int dealt = 0; dealt < 5; ) {
+				long card = 1L << random.nextInt(Card.DECK_SIZE);
+				if ((used & card) == 0L) {
+					used |= card;
+					board |= card;
+					dealt++;
+				}
+			}
+			int a = evaluator.strength(deal[0] | board), b = evaluator.strength(deal[1] | board);
+			shares += a > b ? 1.0 : a == b ? 0.5 : 0.0;
+		}
+		return shares / samples;
+	}
+
+	/**
+	 * Writes a finished row and the mirrored column, then flags the row once
+	 * the equities are safely on disk.
+	 */
+	private static void writeRow(MappedByteBuffer map, int hero, char[] equities) {
+		synchronized (map) {
+			for (int villain = hero; villain < HANDS; villain++) {
+				map.putChar(DATA + (hero * HANDS + villain) * 2, equities[villain]);
+				if (villain != hero)
+					map.putChar(DATA + (villain * HANDS + hero) * 2, (char) (65535 - equities[villain]));
+			}
+			map.force();
+			map.put(ROW_FLAGS + hero, (byte) 1);
+			map.force();
+		}
+	}
+
+	private static void checkHeader(ByteBuffer map, Path file) throws IOException {
+		if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+			throw new IOException(file + " is not a preflop equity table");
+	}
+}
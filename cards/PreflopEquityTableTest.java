@@ -0,0 +1,80 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * The starting hand indexes are checked over every pair of hole cards, and a
+ * small table is generated, mapped and resumed.
+ */
+public class PreflopEquityTableTest {
+	private static final ForkJoinPool POOL = new ForkJoinPool(2);
+	
+	@Test
+	/**
+	 * Every pair of hole cards falls in one of the 169 starting hands, each
+	 * holding its number of combinations.
+	 */
+	public void test_startingHands() {
+		int[] counts = new int[PreflopEquityTable.HANDS];
+		for (int a = 0; a < Card.DECK_SIZE; a++) {
+			for (int b = a + 1; b < Card.DECK_SIZE; b++)
+				counts[PreflopEquityTable.startingHand((1L << a) | (1L << b))]++;
+		}
+		for (int hand = 0; hand < PreflopEquityTable.HANDS; hand++) {
+			assertEquals(PreflopEquityTable.name(hand) + " has the wrong number of combinations", 
+					PreflopEquityTable.combos(hand), counts[hand]);
+			assertEquals(PreflopEquityTable.name(hand) + " has the wrong holes", 
+					PreflopEquityTable.combos(hand), PreflopEquityTable.holes(hand).length);
+		}
+		assertEquals("AKs", PreflopEquityTable.name(PreflopEquityTable.startingHand(CardSet.of(Card.of(2, 12), Card.of(2, 11)))));
+		assertEquals("72o", PreflopEquityTable.name(PreflopEquityTable.startingHand(CardSet.of(Card.of(0, 5), Card.of(3, 0)))));
+	}
+	
+	@Test
+	/**
+	 * A generated table is symmetric, puts strong hands ahead of weak ones,
+	 * and an interrupted row is generated again exactly as it was.
+	 */
+	public void test_generateAndResume() throws IOException {
+		Path file = Files.createTempFile("preflop", ".dat");
+		Files.delete(file);
+		try {
+			PreflopEquityTable.generate(file, 200, 233, SevenCardEvaluator.INSTANCE, POOL);
+			assertEquals("The file should be compact", PreflopEquityTable.FILE_SIZE, Files.size(file));
+			PreflopEquityTable table = PreflopEquityTable.open(file);
+			
+			int aces = PreflopEquityTable.startingHand(CardSet.of(Card.of(0, 12), Card.of(1, 12)));
+			int sevenTwo = PreflopEquityTable.startingHand(CardSet.of(Card.of(0, 5), Card.of(3, 0)));
+			assertEquals("A hand against itself should split", 0.5, table.equity(aces, aces), 1e-4);
+			assertEquals("The equities should add to one", 1.0, 
+					table.equity(aces, sevenTwo) + table.equity(sevenTwo, aces), 1e-4);
+			assertTrue("Aces should crush seven two", table.equity(aces, sevenTwo) > 0.75);
+			assertTrue("Aces should beat a random hand", table.equityVsRandom(aces) > 0.8);
+			double before = table.equity(sevenTwo, aces);
+			
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, PreflopEquityTable.FILE_SIZE);
+				map.put(PreflopEquityTable.ROW_FLAGS + sevenTwo, (byte) 0);
+				map.putChar(PreflopEquityTable.DATA + (sevenTwo * PreflopEquityTable.HANDS + aces) * 2, (char) 0);
+			}
+			try {
+				PreflopEquityTable.open(file);
+				fail("An unfinished table should not open");
+			} catch (IOException e) {
+			}
+			PreflopEquityTable.generate(file, 200, 233, SevenCardEvaluator.INSTANCE, POOL);
+			assertEquals("The row should be generated again", before, PreflopEquityTable.open(file).equity(sevenTwo, aces), 0.0);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package cards;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The RandomSource class is the single provider of randomness for a table:
+ * shuffling its Deck, naming its AI players and driving their decisions. A
+ * source is either seeded, in which case every number it produces follows
+ * from one master seed so a whole session can be replayed exactly, or
+ * unseeded, in which case it draws from the calling thread's
+ * ThreadLocalRandom.
+ *
+ * A seeded source is backed by a SplittableRandom and is meant to be used by
+ * one table at a time. Each component of a table receives its own stream by
+ * splitting the table's source, so no two threads ever share a generator or
+ * contend on a lock.
+ */
+public final class RandomSource {
+
+	private static final RandomSource THREAD_LOCAL = new RandomSource(null);
+
+	private final SplittableRandom stream; // null when drawing from ThreadLocalRandom
+
+	private RandomSource(SplittableRandom stream) {
+		this.stream = stream;
+	}
+
+	/**
+	 * Returns a source whose entire sequence, and that of every source split
+	 * from it, is determined by the given seed.
+	 *
+	 * @param seed the master seed
+	 * @return a new seeded source
+	 */
+	public static RandomSource seeded(long seed) {
+		return new RandomSource(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Returns the shared unseeded source, which draws from the
+	 * ThreadLocalRandom of whichever thread uses it.
+	 *
+	 * @return the unseeded source
+	 */
+	public static RandomSource threadLocal() {
+		return THREAD_LOCAL;
+	}
+
+	/**
+	 * Returns an independent stream for a component of a table. Splitting a
+	 * seeded source in the same order always produces the same streams, while
+	 * the unseeded source simply returns itself.
+	 *
+	 * @return a source for the exclusive use of the caller
+	 */
+	public RandomSource split() {
+		if (stream == null)
+			return this;
+		return new RandomSource(stream.split());
+	}
+
+	/**
+	 * Returns whether this source follows a master seed.
+	 *
+	 * @return true if the source is seeded
+	 */
+	public boolean isSeeded() {
+		return stream != null;
+	}
+
+	/**
+	 * Returns a random integer from 0 up to but not including the bound.
+	 *
+	 * @param bound the exclusive upper bound, greater than 0
+	 * @return the random integer
+	 */
+	public int nextInt(int bound) {
+		if (stream == null)
+			return ThreadLocalRandom.current().nextInt(bound);
+		return stream.nextInt(bound);
+	}
+}
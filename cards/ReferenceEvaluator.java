@@ -0,0 +1,101 @@
+package cards;
+
+/**
+ * The ReferenceEvaluator class is a deliberately plain HandEvaluator kept to
+ * check faster engines against. It shares no tables or bit tricks with them:
+ * every five card combination of the given Cards is ranked by sorting and
+ * counting, the way the rules are written, and the strongest is kept.
+ *
+ * It is far too slow for play and is only used by the EvaluatorHarness.
+ */
+public class ReferenceEvaluator implements HandEvaluator {
+
+	@Override
+	public int strength(long cards) {
+		int[] ids = new int[Long.bitCount(cards)];
+		int n = 0;
+		for (long b = cards; b != 0L; b &= b - 1)
+			ids[n++] = Long.numberOfTrailingZeros(b);
+
+		int best = -1;
+		int[] five = new int[5];
+		for (int a = 0; a < n - 4; a++)
+			for (int b = a + 1; b < n - 3; b++)
+				for (int c = b + 1; c < n - 2; c++)
+					for (int d = c + 1; d < n - 1; d++)
+						for (int e = d + 1; e < n; e++) {
+							five[0] = ids[a];
+							five[1] = ids[b];
+							five[2] = ids[c];
+							five[3] = ids[d];
+							five[4] = ids[e];
+							best = Math.max(best, rankFive(five));
+						}
+		return best;
+	}
+
+	/**
+	 * Ranks exactly five cards given by their ids.
+	 */
+	private static int rankFive(int[] ids) {
+		int[] ranks = new int[5];
+		boolean flush = true;
+		for (int i = 0; i < 5; i++) {
+			ranks[i] = ids[i] % 13;
+			if (ids[i] / 13 != ids[0] / 13)
+				flush = false;
+		}
+
+		int[] counts = new int[13];
+		for (int rank : ranks)
+			counts[rank]++;
+
+		// The ranks are ordered by how many cards share them, then by rank, both descending
+		Integer[] order = new Integer[5];
+		for (int i = 0; i < 5; i++)
+			order[i] = ranks[i];
+		java.util.Arrays.sort(order, (x, y) -> counts[x] != counts[y] ? counts[y] - counts[x] : y - x);
+
+		boolean distinct = counts[order[0]] == 1;
+		int straightHigh = -1;
+		if (distinct) {
+			if (order[0] - order[4] == 4)
+				straightHigh = order[0];
+			else if ((order[0] == 12) && (order[1] == 3)) // Five high straight with the ace played low
+				straightHigh = 3;
+		}
+
+		int category;
+		if (straightHigh >= 0 && flush)
+			category = straightHigh == 12 ? ROYAL_FLUSH : STRAIGHT_FLUSH;
+		else if (counts[order[0]] == 4)
+			category = FOUR_OF_A_KIND;
+		else if ((counts[order[0]] == 3) && (counts[order[3]] == 2))
+			category = FULL_HOUSE;
+		else if (flush)
+			category = FLUSH;
+		else if (straightHigh >= 0)
+			category = STRAIGHT;
+		else if (counts[order[0]] == 3)
+			category = THREE_OF_A_KIND;
+		else if ((counts[order[0]] == 2) && (counts[order[2]] == 2))
+			category = TWO_PAIRS;
+		else if (counts[order[0]] == 2)
+			category = ONE_PAIR;
+		else
+			category = HIGH_CARD;
+
+		if (straightHigh >= 0)
+			return (category << CATEGORY_SHIFT) | (straightHigh << 16);
+
+		// Each distinct rank is written once, in order, then shifted up to fill five places
+		int packed = category, written = 0;
+		for (int i = 0; i < 5; i++) {
+			if ((i == 0) || (order[i].intValue() != order[i - 1].intValue())) {
+				packed = (packed << 4) | order[i];
+				written++;
+			}
+		}
+		return packed << (4 * (5 - written));
+	}
+}
@@ -0,0 +1,228 @@
+package cards;
+import java.util.ArrayList;
+
+/**
+ * The SevenCardEvaluator class finds the strength of the best five card hand
+ * within five to seven Cards in a single pass, without building any of the
+ * 21 possible five card combinations. The Cards are folded into one 13 bit
+ * rank mask per suit and the category of the best hand is read off those
+ * masks with a few bitwise operations, highest category first.
+ *
+ * Strengths are identical to those of the LookupEvaluator for the best five
+ * Cards, so the two may be compared freely. When the five Cards making up the
+ * best hand are needed, e.g. to display them, they can be recovered with the
+ * bestFive method.
+ *
+ * This is the fast HandEvaluator used by the game, shared through INSTANCE.
+ */
+public final class SevenCardEvaluator implements HandEvaluator {
+
+	public static final SevenCardEvaluator INSTANCE = new SevenCardEvaluator();
+
+	private static final int WHEEL = 0x100F;
+	private static final int[] STRAIGHT_HIGH = new int[1 << 13];
+
+	static {
+		for (int mask = 0; mask < STRAIGHT_HIGH.length; mask++) {
+			STRAIGHT_HIGH[mask] = -1;
+			for (int high = 12; high >= 4; high--) {
+				int run = 0x1F << (high - 4);
+				if ((mask & run) == run) {
+					STRAIGHT_HIGH[mask] = high;
+					break;
+				}
+			}
+			if ((STRAIGHT_HIGH[mask] == -1) && ((mask & WHEEL) == WHEEL))
+				STRAIGHT_HIGH[mask] = 3;
+		}
+	}
+
+	private SevenCardEvaluator() {}
+
+	@Override
+	public int strength(long cards) {
+		return evaluate(cards);
+	}
+
+	/**
+	 * Returns the strength of the best five card hand within the given Cards.
+	 *
+	 * @param cards five to seven Cards
+	 * @return the strength of the best hand, greater values being better hands
+	 * @throws IllegalArgumentException if there are not five to seven Cards
+	 */
+	public static int evaluate(ArrayList<Card> cards) {
+		checkSize(cards.size());
+		int s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		for (int i = 0; i < cards.size(); i++) {
+			Card card = cards.get(i);
+			int bit = 1 << card.getRank();
+			switch (card.getSuit()) {
+			case 0: s0 |= bit; break;
+			case 1: s1 |= bit; break;
+			case 2: s2 |= bit; break;
+			default: s3 |= bit; break;
+			}
+		}
+		return evaluateSuitMasks(s0, s1, s2, s3);
+	}
+
+	/**
+	 * Returns the strength of the best five card hand within a CardSet.
+	 *
+	 * @param cards a set of five to seven Cards
+	 * @return the strength of the best hand, greater values being better hands
+	 * @throws IllegalArgumentException if there are not five to seven Cards
+	 */
+	public static int evaluate(CardSet cards) {
+		checkSize(cards.size());
+		return evaluate(cards.bits());
+	}
+
+	/**
+	 * Returns the strength of the best five card hand within the Cards whose
+	 * ids are the set bits, each suit's ranks being a 13 bit block.
+	 *
+	 * @param bits the bits of five to seven Cards
+	 * @return the strength of the best hand, greater values being better hands
+	 */
+	public static int evaluate(long bits) {
+		return evaluateSuitMasks((int) bits & 0x1FFF, (int) (bits >>> 13) & 0x1FFF,
+				(int) (bits >>> 26) & 0x1FFF, (int) (bits >>> 39) & 0x1FFF);
+	}
+
+	/**
+	 * Returns the strength of the best five card hand within the cards
+	 * described by one rank mask per suit. At most seven cards may be set
+	 * across the masks, which guarantees that a flush can never coexist with
+	 * four of a kind or a full house.
+	 *
+	 * @return the strength of the best hand, greater values being better hands
+	 */
+	public static int evaluateSuitMasks(int s0, int s1, int s2, int s3) {
+		int flushMask = 0;
+		if (Integer.bitCount(s0) >= 5)
+			flushMask = s0;
+		else if (Integer.bitCount(s1) >= 5)
+			flushMask = s1;
+		else if (Integer.bitCount(s2) >= 5)
+			flushMask = s2;
+		else if (Integer.bitCount(s3) >= 5)
+			flushMask = s3;
+
+		if (flushMask != 0) {
+			int high = STRAIGHT_HIGH[flushMask];
+			if (high == 12)
+				return pack(ROYAL_FLUSH, 12);
+			else if (high >= 0)
+				return pack(STRAIGHT_FLUSH, high);
+			return packTop(FLUSH, 0, 0, flushMask, 5);
+		}
+
+		int ranks = s0 | s1 | s2 | s3;
+		int fours = s0 & s1 & s2 & s3;
+		int threes = (s0 & s1 & s2) | (s0 & s1 & s3) | (s0 & s2 & s3) | (s1 & s2 & s3);
+		int twos = (s0 & s1) | (s0 & s2) | (s0 & s3) | (s1 & s2) | (s1 & s3) | (s2 & s3);
+
+		if (fours != 0) {
+			int quad = Integer.highestOneBit(fours);
+			return packTop(FOUR_OF_A_KIND, rankOf(quad), 1, ranks & ~quad, 1);
+		}
+
+		if (threes != 0) {
+			int trip = Integer.highestOneBit(threes);
+			int pairs = twos & ~trip;
+			if (pairs != 0) {
+				int pair = rankOf(Integer.highestOneBit(pairs));
+				return pack(FULL_HOUSE, (rankOf(trip) << 4) | pair, 2);
+			}
+		}
+
+		int straightHigh = STRAIGHT_HIGH[ranks];
+		if (straightHigh >= 0)
+			return pack(STRAIGHT, straightHigh);
+
+		if (threes != 0) {
+			int trip = Integer.highestOneBit(threes);
+			return packTop(THREE_OF_A_KIND, rankOf(trip), 1, ranks & ~trip, 2);
+		}
+
+		if (twos != 0) {
+			int high = Integer.highestOneBit(twos);
+			int rest = twos & ~high;
+			if (rest != 0) {
+				int low = Integer.highestOneBit(rest);
+				return packTop(TWO_PAIRS, (rankOf(high) << 4) | rankOf(low), 2,
+						ranks & ~high & ~low, 1);
+			}
+			return packTop(ONE_PAIR, rankOf(high), 1, ranks & ~high, 3);
+		}
+
+		return packTop(HIGH_CARD, 0, 0, ranks, 5);
+	}
+
+	/**
+	 * Picks the five Cards making up the best hand out of the given Cards. The
+	 * combinations are only searched here, so this should be reserved for
+	 * when the Cards must be shown rather than compared.
+	 *
+	 * @param cards five to seven Cards
+	 * @return the five Cards forming the strongest hand
+	 */
+	public static ArrayList<Card> bestFive(ArrayList<Card> cards) {
+		int target = evaluate(cards);
+		int n = cards.size();
+		ArrayList<Card> best = new ArrayList<Card>();
+		for (int a = 0; a < n - 4; a++)
+			for (int b = a + 1; b < n - 3; b++)
+				for (int c = b + 1; c < n - 2; c++)
+					for (int d = c + 1; d < n - 1; d++)
+						for (int e = d + 1; e < n; e++) {
+							if (LookupEvaluator.evaluate(cards.get(a), cards.get(b), cards.get(c),
+									cards.get(d), cards.get(e)) == target) {
+								best.add(cards.get(a));
+								best.add(cards.get(b));
+								best.add(cards.get(c));
+								best.add(cards.get(d));
+								best.add(cards.get(e));
+								return best;
+							}
+						}
+		return best;
+	}
+
+	/**
+	 * Fewer than five Cards leave no hand to rank, and more than seven could
+	 * hold a flush alongside four of a kind, which the masks cannot rank.
+	 */
+	private static void checkSize(int size) {
+		if ((size < 5) || (size > 7))
+			throw new IllegalArgumentException("A hand is made from five to seven Cards, not " + size);
+	}
+
+	private static int rankOf(int bit) {
+		return Integer.numberOfTrailingZeros(bit);
+	}
+
+	/**
+	 * Packs the category and the given leading ranks, then fills the
+	 * remaining places with the highest ranks of the kicker mask.
+	 */
+	private static int packTop(int category, int lead, int leadCount, int kickers, int kickerCount) {
+		int packed = lead;
+		for (int i = 0; i < kickerCount; i++) {
+			int bit = Integer.highestOneBit(kickers);
+			packed = (packed << 4) | rankOf(bit);
+			kickers &= ~bit;
+		}
+		return pack(category, packed, leadCount + kickerCount);
+	}
+
+	private static int pack(int category, int ranks, int count) {
+		return (category << CATEGORY_SHIFT) | (ranks << (4 * (5 - count)));
+	}
+
+	private static int pack(int category, int highRank) {
+		return pack(category, highRank, 1);
+	}
+}
@@ -0,0 +1,81 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * The SevenCardEvaluator is checked on six and seven card boards where the
+ * best five Cards must be picked over weaker ones, against the LookupEvaluator
+ * on those five, and on its refusal of too few or too many Cards.
+ */
+public class SevenCardEvaluatorTest {
+	@Test
+	/**
+	 * The best hand within seven Cards should have the strength of its five
+	 * Cards alone, with the weaker Cards ignored.
+	 */
+	public void test_bestOfSeven() {
+		assertBest("Ah Kh 2h 7h 9h 9d 9c", "Ah Kh 9h 7h 2h"); // a flush over three of a kind
+		assertBest("9h 9d 9c 4s 4h 4d Ac", "9h 9d 9c 4s 4h"); // two sets make a full house
+		assertBest("Kh Kd 7c 7s 3h 3d 2c", "Kh Kd 7c 7s 3h"); // the third pair is a kicker
+		assertBest("Ah 2d 3c 4s 5h 6d Kc", "2d 3c 4s 5h 6d"); // the six high straight beats the wheel
+		assertBest("Qh Qd Qc Qs 2h 3d Ac", "Qh Qd Qc Qs Ac"); // the kicker of four comes from anywhere
+		assertBest("8s 9s Ts Js Qs Ks 2d", "9s Ts Js Qs Ks");
+		assertBest("Ah Kd 9c 6s 4h 3d 2c", "Ah Kd 9c 6s 4h");
+	}
+
+	@Test
+	/**
+	 * Six Cards should be ranked by their best five just as seven are.
+	 */
+	public void test_bestOfSix() {
+		assertBest("Th Td Tc 5s 5h 5d", "Th Td Tc 5s 5h");
+		assertBest("2c 5c 8c Jc Kc Ac", "5c 8c Jc Kc Ac");
+		assertBest("Jh Jd 8c 8s 6h 2d", "Jh Jd 8c 8s 6h");
+	}
+
+	@Test
+	/**
+	 * The five Cards picked for display should make the best hand.
+	 */
+	public void test_bestFive() {
+		ArrayList<Card> seven = list("Ah Kh 2h 7h 9h 9d 9c");
+		ArrayList<Card> best = SevenCardEvaluator.bestFive(seven);
+		assertEquals(5, best.size());
+		assertTrue(best.containsAll(list("Ah Kh 9h 7h 2h")));
+	}
+
+	@Test
+	/**
+	 * Fewer than five or more than seven Cards should be refused rather than
+	 * given a meaningless strength, as should a Hand made from them.
+	 */
+	public void test_invalidSize() {
+		String[] sizes = {"Ah Kd 9c 6s", "Ah Kd 9c 6s 4h 3d 2c 5s"};
+		for (String cards : sizes) {
+			try {
+				SevenCardEvaluator.evaluate(list(cards));
+				fail("Evaluating " + cards + " should fail");
+			} catch (IllegalArgumentException e) {}
+			try {
+				new Hand(list(cards));
+				fail("A Hand of " + cards + " should fail");
+			} catch (IllegalArgumentException e) {}
+		}
+	}
+
+	private static void assertBest(String cards, String best) {
+		Card[] five = LookupEvaluatorTest.cards(best);
+		int expected = LookupEvaluator.evaluate(five[0], five[1], five[2], five[3], five[4]);
+		assertEquals("The best hand within " + cards + " should be " + best, expected,
+				SevenCardEvaluator.evaluate(list(cards)));
+		assertEquals(expected, SevenCardEvaluator.evaluate(CardSet.fromList(list(cards))));
+	}
+
+	private static ArrayList<Card> list(String cards) {
+		return new ArrayList<Card>(Arrays.asList(LookupEvaluatorTest.cards(cards)));
+	}
+}
@@ -0,0 +1,393 @@
+package cards;
+import java.util.ArrayList;
+
+/**
+ * The SuitIsomorphism class gives each combination of hole and community
+ * cards a dense index that is the same for every combination differing only
+ * by a relabelling of the suits. Tables keyed by these indexes, such as
+ * equities, memoized evaluations or AI buckets, are up to 24 times smaller
+ * than tables keyed by the cards themselves, and may be plain arrays sized by
+ * size().
+ *
+ * The cards are dealt in rounds, the hole cards first and then each street of
+ * the board, and cards of different rounds are never interchangeable. There
+ * are 169 classes before the flop, 1,286,792 on the flop, 55,190,538 on the
+ * turn and 2,428,287,420 on the river. An index is turned back into a
+ * canonical combination of its class by unindex.
+ *
+ * Each suit is described by its shape, the number of its cards dealt in each
+ * round, and by the index of which ranks those are. The suits are sorted by
+ * shape and index, the sorted shapes pick a configuration, and the indexes of
+ * the suits sharing a shape are ranked as a multiset within it.
+ */
+public final class SuitIsomorphism {
+
+	public static final SuitIsomorphism PREFLOP = new SuitIsomorphism(2);
+	public static final SuitIsomorphism FLOP = new SuitIsomorphism(2, 3);
+	public static final SuitIsomorphism TURN = new SuitIsomorphism(2, 3, 1);
+	public static final SuitIsomorphism RIVER = new SuitIsomorphism(2, 3, 1, 1);
+
+	private static final int SUITS = 4;
+	private static final int RANKS = 13;
+	private static final int RANK_MASK = (1 << RANKS) - 1;
+	private static final int[] RANK_SET_INDEX = new int[1 << RANKS]; // colex index of each set of ranks among sets of its size
+
+	static {
+		for (int ranks = 0; ranks <= RANK_MASK; ranks++) {
+			int index = 0, k = 0;
+			for (int rank = 0; rank < RANKS; rank++) {
+				if ((ranks & (1 << rank)) != 0)
+					index += (int) choose(rank, ++k);
+			}
+			RANK_SET_INDEX[ranks] = index;
+		}
+	}
+
+	private final int[] cardsPerRound;
+	private final int[][] shapes; // cards dealt in each round of each suit shape
+	private final long[] shapeSize; // number of ways to choose the ranks of each shape
+	private final int[] shapeByCode; // shape of each mixed radix code of round counts
+	private final int[] configByKey; // configuration of each multiset of four shapes, -1 if the counts do not add up
+	private final int[][] configShapes; // shapes of each configuration, highest first
+	private final long[] configOffset; // first index of each configuration, with the total size at the end
+
+	/**
+	 * Creates an indexer for the given number of cards dealt in each round.
+	 *
+	 * @param cardsPerRound the number of cards in each round, hole cards first
+	 */
+	public SuitIsomorphism(int... cardsPerRound) {
+		int total = 0, codes = 1;
+		for (int cards : cardsPerRound) {
+			if (cards < 1)
+				throw new IllegalArgumentException("Every round deals at least one card");
+			total += cards;
+			codes *= cards + 1;
+		}
+		if (cardsPerRound.length == 0 || total > 7)
+			throw new IllegalArgumentException("Between one and seven cards may be dealt");
+		this.cardsPerRound = cardsPerRound.clone();
+
+		ArrayList<int[]> shapeList = new ArrayList<int[]>();
+		shapeByCode = new int[codes];
+		for (int code = 0; code < codes; code++) {
+			int[] counts = new int[cardsPerRound.length];
+			for (int round = 0, rest = code; round < counts.length; round++) {
+				counts[round] = rest % (cardsPerRound[round] + 1);
+				rest /= cardsPerRound[round] + 1;
+			}
+			shapeByCode[code] = shapeList.size();
+			shapeList.add(counts);
+		}
+		shapes = shapeList.toArray(new int[0][]);
+		shapeSize = new long[shapes.length];
+		for (int shape = 0; shape < shapes.length; shape++) {
+			long size = 1;
+			int used = 0;
+			for (int count : shapes[shape]) {
+				size *= choose(RANKS - used, count);
+				used += count;
+			}
+			shapeSize[shape] = size;
+		}
+
+		configByKey = new int[(int) choose(shapes.length + SUITS - 1, SUITS)];
+		ArrayList<int[]> configList = new ArrayList<int[]>();
+		ArrayList<Long> offsets = new ArrayList<Long>();
+		long offset = 0;
+		int[] chosen = new int[SUITS];
+		for (int key = 0; key < configByKey.length; key++) {
+			unrankMultiset(key, shapes.length, SUITS, chosen);
+			configByKey[key] = -1;
+			if (!addsUp(chosen))
+				continue;
+			int[] config = new int[SUITS];
+			for (int i = 0; i < SUITS; i++)
+				config[i] = chosen[SUITS - 1 - i];
+			configByKey[key] = configList.size();
+			configList.add(config);
+			offsets.add(offset);
+			offset += configSize(config);
+		}
+		offsets.add(offset);
+		configShapes = configList.toArray(new int[0][]);
+		configOffset = new long[offsets.size()];
+		for (int i = 0; i < configOffset.length; i++)
+			configOffset[i] = offsets.get(i);
+	}
+
+	/**
+	 * Returns the number of classes, one more than the greatest index.
+	 *
+	 * @return the number of classes
+	 */
+	public long size() {
+		return configOffset[configOffset.length - 1];
+	}
+
+	/**
+	 * Returns the number of rounds of cards.
+	 *
+	 * @return the number of rounds
+	 */
+	public int rounds() {
+		return cardsPerRound.length;
+	}
+
+	/**
+	 * Returns the index of the class of the given cards.
+	 *
+	 * @param roundBits the CardSet bits of the cards dealt in each round
+	 * @return the index from 0 up to but not including size()
+	 */
+	public long index(long... roundBits) {
+		if (roundBits.length != cardsPerRound.length)
+			throw new IllegalArgumentException("Expected cards for " + cardsPerRound.length + " rounds");
+		long seen = 0L;
+		for (int round = 0; round < roundBits.length; round++) {
+			if ((Long.bitCount(roundBits[round]) != cardsPerRound[round])
+					|| ((roundBits[round] & ~CardSet.FULL_DECK.bits()) != 0L))
+				throw new IllegalArgumentException("Round " + (round + 1) + " should have " + cardsPerRound[round] + " cards");
+			if ((seen & roundBits[round]) != 0L)
+				throw new IllegalArgumentException("A card is dealt in more than one round");
+			seen |= roundBits[round];
+		}
+
+		int[] shape = new int[SUITS];
+		long[] suitIndex = new long[SUITS];
+		for (int suit = 0; suit < SUITS; suit++) {
+			int used = 0, code = 0, radix = 1;
+			long index = 0, multiplier = 1;
+			for (int round = 0; round < roundBits.length; round++) {
+				int ranks = (int) (roundBits[round] >>> (suit * RANKS)) & RANK_MASK;
+				int count = Integer.bitCount(ranks);
+				index += multiplier * RANK_SET_INDEX[squeeze(ranks, used)];
+				multiplier *= choose(RANKS - Integer.bitCount(used), count);
+				used |= ranks;
+				code += count * radix;
+				radix *= cardsPerRound[round] + 1;
+			}
+			shape[suit] = shapeByCode[code];
+			suitIndex[suit] = index;
+		}
+
+		for (int i = 1; i < SUITS; i++) { // highest shape first, then highest index
+			for (int j = i; j > 0 && ((shape[j] > shape[j - 1])
+					|| (shape[j] == shape[j - 1] && suitIndex[j] > suitIndex[j - 1])); j--) {
+				int s = shape[j];
+				shape[j] = shape[j - 1];
+				shape[j - 1] = s;
+				long x = suitIndex[j];
+				suitIndex[j] = suitIndex[j - 1];
+				suitIndex[j - 1] = x;
+			}
+		}
+
+		long key = 0;
+		for (int j = 0; j < SUITS; j++)
+			key += choose(shape[SUITS - 1 - j] + j, j + 1);
+		int config = configByKey[(int) key];
+
+		long index = 0, multiplier = 1;
+		for (int start = 0; start < SUITS; ) {
+			int end = start + 1;
+			while (end < SUITS && shape[end] == shape[start])
+				end++;
+			int k = end - start;
+			long rank = 0;
+			for (int j = 0; j < k; j++)
+				rank += choose(suitIndex[end - 1 - j] + j, j + 1);
+			index += multiplier * rank;
+			multiplier *= choose(shapeSize[shape[start]] + k - 1, k);
+			start = end;
+		}
+		return configOffset[config] + index;
+	}
+
+	/**
+	 * Returns the index of the class of a player's hole cards and the
+	 * community cards in the order they were dealt.
+	 *
+	 * @param hole the hole cards
+	 * @param board the community cards, flop first
+	 * @return the index from 0 up to but not including size()
+	 */
+	public long index(CardSet hole, ArrayList<Card> board) {
+		long[] roundBits = new long[cardsPerRound.length];
+		roundBits[0] = hole.bits();
+		int next = 0;
+		for (int round = 1; round < roundBits.length; round++) {
+			for (int i = 0; i < cardsPerRound[round] && next < board.size(); i++)
+				roundBits[round] |= 1L << board.get(next++).id();
+		}
+		if (next != board.size())
+			throw new IllegalArgumentException("Expected fewer community cards");
+		return index(roundBits);
+	}
+
+	/**
+	 * Returns the canonical cards of a class, the cards every member of the
+	 * class is a relabelling of the suits of.
+	 *
+	 * @param index the index of the class
+	 * @return the CardSet bits of the cards dealt in each round
+	 */
+	public long[] unindex(long index) {
+		if (index < 0 || index >= size())
+			throw new IllegalArgumentException("No class has the index " + index);
+		int low = 0, high = configShapes.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (configOffset[middle] <= index)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		int[] shape = configShapes[low];
+		long rest = index - configOffset[low];
+
+		long[] suitIndex = new long[SUITS];
+		long[] group = new long[SUITS];
+		for (int start = 0; start < SUITS; ) {
+			int end = start + 1;
+			while (end < SUITS && shape[end] == shape[start])
+				end++;
+			int k = end - start;
+			long count = choose(shapeSize[shape[start]] + k - 1, k);
+			unrankMultiset(rest % count, shapeSize[shape[start]], k, group);
+			rest /= count;
+			for (int j = 0; j < k; j++)
+				suitIndex[end - 1 - j] = group[j];
+			start = end;
+		}
+
+		long[] roundBits = new long[cardsPerRound.length];
+		for (int suit = 0; suit < SUITS; suit++) {
+			int used = 0;
+			long suitRest = suitIndex[suit];
+			for (int round = 0; round < roundBits.length; round++) {
+				int count = shapes[shape[suit]][round];
+				long ways = choose(RANKS - Integer.bitCount(used), count);
+				int ranks = spread(unrankSet(suitRest % ways, count), used);
+				suitRest /= ways;
+				used |= ranks;
+				roundBits[round] |= (long) ranks << (suit * RANKS);
+			}
+		}
+		return roundBits;
+	}
+
+	private boolean addsUp(int[] config) {
+		for (int round = 0; round < cardsPerRound.length; round++) {
+			int total = 0;
+			for (int shape : config)
+				total += shapes[shape][round];
+			if (total != cardsPerRound[round])
+				return false;
+		}
+		for (int shape : config) {
+			int total = 0;
+			for (int count : shapes[shape])
+				total += count;
+			if (total > RANKS)
+				return false;
+		}
+		return true;
+	}
+
+	private long configSize(int[] config) {
+		long size = 1;
+		for (int start = 0; start < SUITS; ) {
+			int end = start + 1;
+			while (end < SUITS && config[end] == config[start])
+				end++;
+			size *= choose(shapeSize[config[start]] + end - start - 1, end - start);
+			start = end;
+		}
+		return size;
+	}
+
+	/**
+	 * Renumbers the ranks of a set as positions among the ranks not yet used.
+	 */
+	private static int squeeze(int ranks, int used) {
+		int squeezed = 0;
+		for (int bits = ranks; bits != 0; bits &= bits - 1) {
+			int rank = Integer.numberOfTrailingZeros(bits);
+			squeezed |= 1 << (rank - Integer.bitCount(used & ((1 << rank) - 1)));
+		}
+		return squeezed;
+	}
+
+	/**
+	 * Turns positions among the ranks not yet used back into ranks.
+	 */
+	private static int spread(int positions, int used) {
+		int ranks = 0;
+		for (int rank = 0, position = 0; rank < RANKS; rank++) {
+			if ((used & (1 << rank)) != 0)
+				continue;
+			if ((positions & (1 << position)) != 0)
+				ranks |= 1 << rank;
+			position++;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Returns the set of the given size with the given colex index.
+	 */
+	private static int unrankSet(long index, int size) {
+		int set = 0;
+		for (int k = size; k > 0; k--) {
+			int position = (int) largestWithChooseAtMost(index, k, RANKS);
+			index -= choose(position, k);
+			set |= 1 << position;
+		}
+		return set;
+	}
+
+	/**
+	 * Fills values, lowest first, with the multiset of k values below n with
+	 * the given colex index.
+	 */
+	private static void unrankMultiset(long index, long n, int k, long[] values) {
+		for (int j = k; j > 0; j--) {
+			long shifted = largestWithChooseAtMost(index, j, n + k - 1);
+			index -= choose(shifted, j);
+			values[j - 1] = shifted - (j - 1);
+		}
+	}
+
+	private static void unrankMultiset(long index, int n, int k, int[] values) {
+		long[] wide = new long[k];
+		unrankMultiset(index, n, k, wide);
+		for (int j = 0; j < k; j++)
+			values[j] = (int) wide[j];
+	}
+
+	/**
+	 * Returns the largest x below the bound with x choose k at most the given
+	 * value.
+	 */
+	private static long largestWithChooseAtMost(long value, int k, long bound) {
+		long low = k - 1, high = bound - 1;
+		while (low < high) {
+			long middle = (low + high + 1) >>> 1;
+			if (choose(middle, k) <= value)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		return low;
+	}
+
+	private static long choose(long n, int k) {
+		if (k < 0 || n < k)
+			return 0;
+		long result = 1;
+		for (int i = 1; i <= k; i++)
+			result = result * (n - k + i) / i;
+		return result;
+	}
+}
@@ -0,0 +1,115 @@
+package cards;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+/**
+ * The number of classes is checked against the known totals for each street,
+ * every class is turned back into cards and indexed again, and relabelling
+ * the suits of random hands is checked to keep their index.
+ */
+public class SuitIsomorphismTest {
+	
+	@Test
+	/**
+	 * Each street has the known number of classes.
+	 */
+	public void test_sizes() {
+		assertEquals(169, SuitIsomorphism.PREFLOP.size());
+		assertEquals(1286792, SuitIsomorphism.FLOP.size());
+		assertEquals(55190538, SuitIsomorphism.TURN.size());
+		assertEquals(2428287420L, SuitIsomorphism.RIVER.size());
+	}
+	
+	@Test
+	/**
+	 * Every pair of hole cards indexes to one of the 169 classes, the class
+	 * sizes matching the number of suit combinations of its starting hand.
+	 */
+	public void test_preflop() {
+		int[] counts = new int[169];
+		for (int a = 0; a < Card.DECK_SIZE; a++) {
+			for (int b = a + 1; b < Card.DECK_SIZE; b++)
+				counts[(int) SuitIsomorphism.PREFLOP.index((1L << a) | (1L << b))]++;
+		}
+		for (int i = 0; i < counts.length; i++) {
+			long hole = SuitIsomorphism.PREFLOP.unindex(i)[0];
+			assertEquals("Class " + i + " has the wrong size", 
+					PreflopEquityTable.combos(PreflopEquityTable.startingHand(hole)), counts[i]);
+		}
+	}
+	
+	@Test
+	/**
+	 * Every flop class is turned back into cards which index to the same
+	 * class.
+	 */
+	public void test_flopRoundTrip() {
+		SuitIsomorphism flop = SuitIsomorphism.FLOP;
+		for (long i = 0; i < flop.size(); i++) {
+			long[] cards = flop.unindex(i);
+			assertEquals("Class " + i + " did not survive the round trip", i, flop.index(cards));
+		}
+	}
+	
+	@Test
+	/**
+	 * Random river hands keep their index when their suits are relabelled,
+	 * and their canonical cards index the same.
+	 */
+	public void test_suitPermutations() {
+		RandomSource random = RandomSource.seeded(233);
+		SuitIsomorphism river = SuitIsomorphism.RIVER;
+		for (int n = 0; n < 20000; n++) {
+			long[] cards = new long[4];
+			long used = 0L;
+			int[] perRound = {2, 3, 1, 1};
+			for (int round = 0; round < 4; round++) {
+				while (Long.bitCount(cards[round]) < perRound[round]) {
+					long card = 1L << random.nextInt(Card.DECK_SIZE);
+					if ((used & card) == 0L) {
+						used |= card;
+						cards[round] |= card;
+					}
+				}
+			}
+			long index = river.index(cards);
+			assertEquals("The canonical cards should have the same index", index, river.index(river.unindex(index)));
+			
+			int[] permutation = {0, 1, 2, 3};
+			for (int i = 3; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int swap = permutation[i];
+				permutation[i] = permutation[j];
+				permutation[j] = swap;
+			}
+			long[] relabelled = new long[4];
+			for (int round = 0; round < 4; round++) {
+				for (int suit = 0; suit < 4; suit++)
+					relabelled[round] |= ((cards[round] >>> (suit * 13)) & 0x1FFF) << (permutation[suit] * 13);
+			}
+			assertEquals("Relabelling the suits should keep the index", index, river.index(relabelled));
+		}
+	}
+	
+	@Test
+	/**
+	 * The community cards are split into streets in the order dealt.
+	 */
+	public void test_boardOrder() {
+		CardSet hole = CardSet.of(Card.of(0, 12), Card.of(1, 12));
+		ArrayList<Card> board = new ArrayList<Card>();
+		board.add(Card.of(0, 3));
+		board.add(Card.of(2, 7));
+		board.add(Card.of(3, 9));
+		board.add(Card.of(1, 0));
+		long turn = SuitIsomorphism.TURN.index(hole, board);
+		assertEquals(turn, SuitIsomorphism.TURN.index(hole.bits(), 
+				CardSet.of(Card.of(0, 3), Card.of(2, 7), Card.of(3, 9)).bits(), 1L << Card.of(1, 0).id()));
+		
+		board.add(0, board.remove(3));
+		assertNotEquals("A different turn card should change the class", turn, SuitIsomorphism.TURN.index(hole, board));
+	}
+}
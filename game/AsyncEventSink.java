@@ -0,0 +1,204 @@
+package game;
+
+/**
+ * A TextEventSink that hands its lines to a background thread, so the tables
+ * publishing events never wait on the console or disk. Lines are queued as
+ * they are published and written in batches, with one flush of the output
+ * per batch rather than one per line. If the queue fills up the publishing
+ * table waits for room, so no line is ever dropped.
+ *
+ * One sink may be shared by several tables playing at once; the lines of each
+ * table keep their order. The sink must be closed once the games are over to
+ * write the last lines.
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+public class AsyncEventSink extends TextEventSink implements AutoCloseable {
+
+    private static final int CAPACITY = 8192; // lines queued before a table waits
+    private static final int BATCH = 512; // lines written per flush at most
+    private static final Object CLOSE = new Object(); // queued last to stop the writer
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(CAPACITY);
+    private final Writer out;
+    private final boolean closeOut;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Creates a sink writing to the given writer, which is closed with the sink
+     *
+     * @param out where the lines are written
+     */
+    public AsyncEventSink(Writer out) {
+        this(out, true);
+    }
+
+    private AsyncEventSink(Writer out, boolean closeOut) {
+        this.out = out;
+        this.closeOut = closeOut;
+        writer = new Thread(this::drain, "event-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a sink writing to the console, which is flushed but left open
+     * when the sink is closed
+     *
+     * @return the sink
+     */
+    public static AsyncEventSink console() {
+        return new AsyncEventSink(new OutputStreamWriter(System.out), false);
+    }
+
+    /**
+     * Creates a sink writing to a file, replacing anything already in it
+     *
+     * @param path the file
+     * @return the sink
+     * @throws IOException if the file cannot be opened
+     */
+    public static AsyncEventSink file(Path path) throws IOException {
+        return new AsyncEventSink(Files.newBufferedWriter(path));
+    }
+
+    @Override
+    protected void write(String line) {
+        synchronized (this) { // so the line cannot be queued behind the writer's stop
+            if (closed) {
+                throw new IllegalStateException("The event sink has been closed");
+            }
+            put(line);
+        }
+    }
+
+    /**
+     * Waits until every line published so far has been written
+     *
+     * @throws IOException           if a line could not be written, or the
+     *                               thread was interrupted while waiting
+     * @throws IllegalStateException if the sink has been closed
+     */
+    public void flush() throws IOException {
+        CountDownLatch written = new CountDownLatch(1);
+        synchronized (this) { // so the writer cannot have stopped before the latch is queued
+            if (closed) {
+                throw new IllegalStateException("The event sink has been closed");
+            }
+            put(written);
+        }
+        try {
+            written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the event sink");
+        }
+        checkFailure();
+    }
+
+    /**
+     * Writes the remaining lines and stops the background thread
+     *
+     * @throws IOException if a line could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            put(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (closeOut) {
+            out.close();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Queues an item, waiting for room however often the thread is
+     * interrupted, so that no line is lost; the interrupt is kept for the
+     * caller to see afterwards
+     */
+    private void put(Object item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Run by the background thread: takes whatever lines are waiting, writes
+     * them, flushes once and then releases anyone waiting on a flush
+     */
+    private void drain() {
+        ArrayList<Object> batch = new ArrayList<Object>(BATCH);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH - 1);
+
+            for (Object item : batch) {
+                if (item == CLOSE) {
+                    running = false;
+                } else if (item instanceof String && failure == null) {
+                    try {
+                        out.write((String) item);
+                        out.write(System.lineSeparator());
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            for (Object item : batch) {
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+}
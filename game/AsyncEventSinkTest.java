@@ -0,0 +1,147 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import cards.RandomSource;
+import players.Action;
+import players.Human;
+import players.Player;
+
+public class AsyncEventSinkTest {
+	// testing that every line published from several tables is written in each table's order
+	@Test
+	public void test_tablesKeepOrder() throws Exception {
+		StringWriter out = new StringWriter();
+		AsyncEventSink sink = new AsyncEventSink(out);
+		Thread[] tables = new Thread[4];
+		for (int t = 0; t < tables.length; t++) {
+			int table = t;
+			tables[t] = new Thread(() -> {
+				for (int i = 0; i < 5000; i++) {
+					sink.message(table + " " + i);
+				}
+			});
+			tables[t].start();
+		}
+		for (Thread table : tables) {
+			table.join();
+		}
+		sink.close();
+
+		String[] lines = out.toString().split(System.lineSeparator());
+		assertEquals(20000, lines.length);
+		int[] next = new int[tables.length];
+		for (String line : lines) {
+			String[] parts = line.split(" ");
+			int table = Integer.parseInt(parts[0]);
+			assertEquals("Lines of one table should stay in order", next[table]++, Integer.parseInt(parts[1]));
+		}
+	}
+
+	// testing that flush waits for the lines and a closed sink takes no more
+	@Test
+	public void test_flushAndClose() throws IOException {
+		StringWriter out = new StringWriter();
+		AsyncEventSink sink = new AsyncEventSink(out);
+		Human ann = new Human("Ann", 100);
+		sink.playerActed(ann, Action.BET, 40);
+		sink.flush();
+		assertEquals("Ann bet $40." + System.lineSeparator(), out.toString());
+
+		sink.close();
+		sink.close();
+		try {
+			sink.message("late");
+			fail("A closed sink should not take more lines");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			sink.flush();
+			fail("A closed sink should not wait for a flush");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	// testing that every line taken while the sink is being closed is still written
+	@Test
+	public void test_publishWhileClosing() throws Exception {
+		for (int run = 0; run < 20; run++) {
+			StringWriter out = new StringWriter();
+			AsyncEventSink sink = new AsyncEventSink(out);
+			int[] taken = new int[4];
+			Thread[] tables = new Thread[taken.length];
+			for (int t = 0; t < tables.length; t++) {
+				int table = t;
+				tables[t] = new Thread(() -> {
+					try {
+						while (true) {
+							sink.message("line");
+							taken[table]++;
+						}
+					} catch (IllegalStateException e) {
+						// the sink was closed
+					}
+				});
+				tables[t].start();
+			}
+			Thread.sleep(2);
+			sink.close();
+			int total = 0;
+			for (int t = 0; t < tables.length; t++) {
+				tables[t].join();
+				total += taken[t];
+			}
+
+			String written = out.toString();
+			assertEquals("Every line taken should be written", total,
+					written.isEmpty() ? 0 : written.split(System.lineSeparator()).length);
+		}
+	}
+
+	// testing that a line published from an interrupted thread is still written
+	@Test
+	public void test_interruptedPublisher() throws IOException {
+		StringWriter out = new StringWriter();
+		AsyncEventSink sink = new AsyncEventSink(out);
+		Thread.currentThread().interrupt();
+		sink.message("kept");
+		assertTrue("The interrupt should be left for the caller", Thread.interrupted());
+		sink.close();
+		assertEquals("kept" + System.lineSeparator(), out.toString());
+	}
+
+	// testing that a game publishes each hand, action and pot to its listener
+	@Test
+	public void test_gameEvents() {
+		int[] counts = new int[3];
+		Simulator simulator = new Simulator(4, 1000, RandomSource.seeded(5));
+		simulator.setListener(new GameEventListener() {
+			@Override
+			public void handStarted(ArrayList<Player> players) {
+				counts[0]++;
+			}
+
+			@Override
+			public void playerActed(Player player, Action action, int amount) {
+				counts[1]++;
+			}
+
+			@Override
+			public void potsSettled(ArrayList<Player> winners, int pot) {
+				counts[2]++;
+				assertFalse(winners.isEmpty());
+			}
+		});
+		SimulationStats stats = simulator.run(200);
+
+		assertEquals(200, counts[0]);
+		assertEquals(200, counts[2]);
+		assertTrue(counts[1] >= stats.getActions());
+	}
+}
@@ -8,12 +8,23 @@ package game;
  * @version 03/11/19
  */
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
 
 import cards.Card;
+import cards.CardSet;
 import cards.Deck;
+import cards.EquityResult;
+import cards.ExactEquity;
+import cards.HandEvaluator;
+import cards.PreflopEquityTable;
+import cards.RandomSource;
+import cards.SevenCardEvaluator;
 import players.AI;
+import players.Action;
 import players.Human;
 import players.Player;
 
@@ -22,7 +33,15 @@ public class Game {
     private ArrayList<Player> players = new ArrayList<Player>();
     protected ArrayList<Player> roundPlayers = new ArrayList<Player>();
     private ArrayList<Card> middleCards = new ArrayList<Card>();
-    private Deck cardDeck = new Deck();
+    private final RandomSource random;
+    private Deck cardDeck;
+    private HandEvaluator evaluator = SevenCardEvaluator.INSTANCE;
+    private GameEventListener listener = GameEventListener.NONE;
+    private GameJournal journal; // null when the game's transitions are not journaled
+    private long transitions; // the number of state transitions so far, numbering the journal's records
+    private final ArrayList<String> cpuNames = new ArrayList<String>(); // names still free for this game's AI players
+    private int betInterval;
+    private final PreflopEquityTable preflop = PreflopEquityTable.getDefault(); // looked up once for all of this game's AI players
     private Player lastPlayer;
     private int roundNum;
     private int playerCount;
@@ -30,7 +49,7 @@ public class Game {
     private int highestBet;
     private double smallBlind;
     private int highBetHolder;
-    private int pot;
+    private final PotManager pots = new PotManager(); // every player's chips put in this hand
     private boolean gameOver;
     private boolean userFolded;
     private boolean sBlindDone;
@@ -42,9 +61,19 @@ public class Game {
      * game object is created
      */
     public Game() {
+        this(RandomSource.threadLocal());
+    }
+
+    /*
+     * Constructor for a game whose deck, seating and AI decisions all come from
+     * the given source, so a seeded source replays the same session every time
+     */
+    public Game(RandomSource random) {
+        this.random = random;
+        cardDeck = new Deck(random.split());
         roundNum = 0;
         playerCount = 0;
-        pot = 0;
+        pots.clear();
         highestBet = 0;
         highBetHolder = 0;
         smallBlind = 0;
@@ -62,9 +91,23 @@ public class Game {
      * @return arraylist of the generated players
      */
     public Game(ArrayList<String> name, ArrayList<Integer> stack, int smlBlind) {
+        this(name, stack, smlBlind, RandomSource.threadLocal());
+    }
+
+    /**
+     * Generates the old players loaded from a file in the SaveIO class, drawing
+     * the game's randomness from the given source
+     * 
+     * @param name, stack name and stack contain the arrayList passed from SaveIO to
+     *              Game
+     * @param random the source of the deck's shuffles and the AI's decisions
+     */
+    public Game(ArrayList<String> name, ArrayList<Integer> stack, int smlBlind, RandomSource random) {
+        this.random = random;
+        cardDeck = new Deck(random.split());
         roundNum = 0;
         playerCount = 0;
-        pot = 0;
+        pots.clear();
         highestBet = 0;
         highBetHolder = 0;
         smallBlind = smlBlind;
@@ -85,7 +128,7 @@ public class Game {
         ArrayList<String> names = new ArrayList<String>(name);
         ArrayList<Integer> stacks = new ArrayList<Integer>(stack);
         int position = 0;
-        AI.setBetIntervals((int) (smallBlind / 0.025));
+        betInterval = (int) (0.01 * (int) (smallBlind / 0.025));
         for (int i = 0; i < name.size(); i++) {
             if (names.get(i).equals("You")) {
                 position = i;
@@ -95,7 +138,12 @@ public class Game {
             if (n == position)
                 players.add(new Human("You", stacks.get(n)));
             else
-                players.add(new AI(names.get(n), stacks.get(n)));
+                players.add(new AI(names.get(n), stacks.get(n), random.split(), betInterval, preflop));
+        }
+
+        for (Player player : players) {
+            player.setEvaluator(evaluator);
+            player.setListener(listener);
         }
 
         for (int i = 0; i < 2; i++) {
@@ -113,16 +161,38 @@ public class Game {
      * @return arraylist of the generated players
      */
     public ArrayList<Player> generatePlayers(int numOfPlayers, int stackAmt) {
-        Random playerPos = new Random();
-        int position = playerPos.nextInt(numOfPlayers);
-        AI.clearCPUName();
-        AI.addCPUName();
-        AI.setBetIntervals(stackAmt);
+        return seatPlayers(numOfPlayers, stackAmt, random.nextInt(numOfPlayers));
+    }
+
+    /**
+     * Generates a table of AI players only, for headless games such as the
+     * Simulator
+     * 
+     * @param number of players and stackamt of each
+     * @return arraylist of the generated players
+     */
+    public ArrayList<Player> generateAIPlayers(int numOfPlayers, int stackAmt) {
+        return seatPlayers(numOfPlayers, stackAmt, -1);
+    }
+
+    /**
+     * Seats the players with the user at the given position, or no user if the
+     * position is -1
+     */
+    private ArrayList<Player> seatPlayers(int numOfPlayers, int stackAmt, int position) {
+        cpuNames.clear();
+        cpuNames.addAll(Arrays.asList(AI.newNames));
+        betInterval = (int) (0.01 * stackAmt);
         for (int n = 0; n < numOfPlayers; n++) {
             if (n == position)
                 players.add(new Human("You"));
             else
-                players.add(new AI());
+                players.add(new AI(random.split(), cpuNames, betInterval, preflop));
+        }
+
+        for (Player player : players) {
+            player.setEvaluator(evaluator);
+            player.setListener(listener);
         }
 
         for (int i = 0; i < 2; i++) {
@@ -144,10 +214,18 @@ public class Game {
      * setup
      */
     public void setupRound() {
+        setupRound(null);
+    }
+
+    /**
+     * Sets up the next round with the deck laid out in the given order, as it
+     * was when a journaled round was set up, or shuffled if the order is null
+     */
+    void setupRound(int[] deckOrder) {
         roundPlayers.clear();
         roundNum = 0;
         playerCount = 0;
-        pot = 0;
+        pots.clear();
         highestBet = 0;
         sBlindDone = false;
         bBlindDone = false;
@@ -155,8 +233,11 @@ public class Game {
             player.emptyHand();
             player.emptyHole();
         }
-        cardDeck = null;
-        cardDeck = new Deck();
+        if (deckOrder == null) {
+            cardDeck.reset();
+        } else {
+            cardDeck.setOrder(deckOrder, 0);
+        }
         for (int i = 0; i < 2; i++) {
             for (Player player : players)
                 player.setHole(cardDeck.dealSingle());
@@ -176,6 +257,13 @@ public class Game {
         for (int i = 0; i < 3; i++) {
             middleCards = cardDeck.dealCard(middleCards);
         }
+        transitions++;
+        if (journal != null) {
+            int[] order = new int[Card.DECK_SIZE];
+            cardDeck.getOrder(order);
+            journal.hand(transitions, order);
+        }
+        listener.handStarted(roundPlayers);
     }
 
     /**
@@ -196,6 +284,10 @@ public class Game {
         for (Player player : roundPlayers) {
             player.setHighBet(highestBet);
         }
+        transitions++;
+        if (journal != null) {
+            journal.next(transitions);
+        }
     }
 
     /**
@@ -203,27 +295,48 @@ public class Game {
      * continue the game
      */
     public void incrementRound() {
-        ArrayList<Card> roundComm = new ArrayList<Card>();
         playerCount = 0;
         highestBet = 0;
         highBetHolder = 0;
 
-        for (Card roundCard : middleCards) {
-            roundComm.add(roundCard);
-        }
         roundNum++;
+        ArrayList<Card> roundComm = getRoundComm();
+
+        for (Player player : roundPlayers) {
+            collectBet(player);
+            player.setAction(Action.NONE);
+            player.setHand(roundComm);
+        }
+        transitions++;
+        if (journal != null) {
+            journal.street(transitions);
+        }
+        if (roundNum < 4) {
+            listener.streetDealt(roundNum, getBoard());
+        }
+    }
+
+    /**
+     * Gets the community cards the players' hands are made from this round
+     */
+    private ArrayList<Card> getRoundComm() {
+        ArrayList<Card> roundComm = new ArrayList<Card>(middleCards);
         if (roundNum == 0) {
             roundComm.remove(middleCards.size() - 1);
             roundComm.remove(middleCards.size() - 2);
         } else if (roundNum == 1) {
             roundComm.remove(middleCards.size() - 1);
         }
+        return roundComm;
+    }
 
-        for (Player player : roundPlayers) {
-            pot += player.getBet();
+    /**
+     * Moves a player's bet for the round into the pots
+     */
+    private void collectBet(Player player) {
+        if (player.getBet() > 0) {
+            pots.add(player, player.getBet());
             player.setBet(0);
-            player.setAction(" ");
-            player.setHand(roundComm);
         }
     }
 
@@ -234,39 +347,48 @@ public class Game {
      */
     public Player processTurn() {
         Player curPlayer = roundPlayers.get(playerCount);
+        int stackBefore = curPlayer.stack;
+        boolean blind = false;
 
         if (roundNum == 0 && playerCount == 0 && sBlindDone == false) {
             if (roundPlayers.get(playerCount).stack < smallBlind) {
-                roundPlayers.get(playerCount).allIn("A");
+                roundPlayers.get(playerCount).allIn();
                 highBetHolder = (int) smallBlind;
             } else {
-                bet((int) (smallBlind));
+                placeBet((int) (smallBlind));
                 highBetHolder = roundPlayers.get(playerCount).getBet();
             }
             
             sBlindDone = true;
+            blind = true;
         } else if (roundNum == 0 && playerCount == 1 && bBlindDone == false) {
             if (roundPlayers.get(playerCount).stack < (smallBlind * 2)) {
-                roundPlayers.get(playerCount).allIn("A");
+                roundPlayers.get(playerCount).allIn();
                 highBetHolder = (int)smallBlind*2;
             } else {
-                bet((int) (smallBlind));
+                placeBet((int) (smallBlind));
                 highBetHolder = roundPlayers.get(playerCount).getBet();
             }
             bBlindDone = true;
+            blind = true;
         } else if (playerCount == 0 && roundNum != 0 && highestBet == 0) {
             roundPlayers.get(playerCount).getDecision2();
-        } else if (lastPlayer.getAction() == "Raised" || lastPlayer.getAction() == "Bet"
-                || lastPlayer.getAction() == "All In" || lastPlayer.getAction() == "Called") {
-            roundPlayers.get(playerCount).getDecision();
-        } else if (highestBet == 0) {
-            if (lastPlayer.getAction() == "Checked" || lastPlayer.getAction() == "Folded") {
-                roundPlayers.get(playerCount).getDecision2();
-            }
-        } else if (lastPlayer.getAction() == "Folded" && highestBet != 0) {
-            roundPlayers.get(playerCount).getDecision();
         } else {
-            roundPlayers.get(playerCount).getDecision();
+            switch (lastPlayer.getAction()) {
+            case RAISE:
+            case BET:
+            case ALL_IN:
+            case CALL:
+                roundPlayers.get(playerCount).getDecision();
+                break;
+            default:
+                // Also reached when the player before is all in and has yet to act this round
+                if (highestBet == 0) {
+                    roundPlayers.get(playerCount).getDecision2();
+                } else {
+                    roundPlayers.get(playerCount).getDecision();
+                }
+            }
         }
 
         if (roundPlayers.get(playerCount).getBet() > highBetHolder) {
@@ -274,13 +396,14 @@ public class Game {
         }
 
         setLastPlayer(roundPlayers.get(playerCount));
-        if (roundPlayers.get(playerCount).getAction() == "Folded") {
+        if (roundPlayers.get(playerCount).getAction() == Action.FOLD) {
             curPlayer = roundPlayers.get(playerCount);
-            pot += curPlayer.getBet();
-            curPlayer.setBet(0);
+            collectBet(curPlayer);
+            pots.fold(curPlayer);
             roundPlayers.remove(playerCount);
             playerCount -= 1;
         }
+        journalAction(curPlayer, stackBefore, blind);
 
         return curPlayer;
     }
@@ -290,32 +413,38 @@ public class Game {
      * from the round
      */
     public void fold() {
-        roundPlayers.get(playerCount).fold("F");
+        Player player = roundPlayers.get(playerCount);
+        int stackBefore = player.stack;
+        roundPlayers.get(playerCount).fold();
         setLastPlayer(roundPlayers.get(playerCount));
-        pot += roundPlayers.get(playerCount).getBet();
-        roundPlayers.get(playerCount).setBet(0);
+        collectBet(roundPlayers.get(playerCount));
+        pots.fold(roundPlayers.get(playerCount));
         roundPlayers.remove(playerCount);
         playerCount -= 1;
         userFolded = true;
+        journalAction(player, stackBefore, false);
     }
 
     /**
      * Calls the player's action when the player chooses to Call or Check
      */
     public void call() {
+        Player player = roundPlayers.get(playerCount);
+        int stackBefore = player.stack;
         if (roundPlayers.get(playerCount).getBet() == highestBet) {
-            roundPlayers.get(playerCount).check("C");
+            roundPlayers.get(playerCount).check();
         }
 
         else if (roundPlayers.get(playerCount).stack <= (highestBet - roundPlayers.get(playerCount).getBet())) {
-            roundPlayers.get(playerCount).allIn("A");
+            roundPlayers.get(playerCount).allIn();
         }
 
         else {
-            roundPlayers.get(playerCount).call("L");
+            roundPlayers.get(playerCount).call();
         }
 
         setLastPlayer(roundPlayers.get(playerCount));
+        journalAction(player, stackBefore, false);
     }
 
     /**
@@ -323,16 +452,27 @@ public class Game {
      * stack
      */
     public void bet(int betAmt) {
+        Player player = roundPlayers.get(playerCount);
+        int stackBefore = player.stack;
+        placeBet(betAmt);
+        journalAction(player, stackBefore, false);
+    }
+
+    /**
+     * Bets for the current player, as bet does, without journaling it as a
+     * transition of its own
+     */
+    private void placeBet(int betAmt) {
         if (roundPlayers.get(playerCount).stack <= (betAmt + highestBet)) {
-            roundPlayers.get(playerCount).allIn("A");
+            roundPlayers.get(playerCount).allIn();
             betAmt = roundPlayers.get(playerCount).getBet();
         }
 
         else {
             if (highestBet == 0 || (roundNum == 0 && betAmt > highestBet * 2)) {
-                roundPlayers.get(playerCount).BetRaise("B", betAmt);
+                roundPlayers.get(playerCount).bet(betAmt);
             } else {
-                roundPlayers.get(playerCount).BetRaise("R", betAmt);
+                roundPlayers.get(playerCount).raise(betAmt);
             }
         }
 
@@ -340,6 +480,45 @@ public class Game {
         setLastPlayer(roundPlayers.get(playerCount));
     }
 
+    /**
+     * Counts a player's action as a transition and journals it with the chips
+     * it put in and where the betting now stands
+     */
+    private void journalAction(Player player, int stackBefore, boolean blind) {
+        transitions++;
+        if (journal != null) {
+            journal.action(transitions, blind, player.getAction(), stackBefore - player.stack, highBetHolder,
+                    (sBlindDone ? 1 : 0) | (bBlindDone ? 2 : 0) | (userFolded ? 4 : 0));
+        }
+    }
+
+    /**
+     * Takes a journaled action again for the current player, leaving the game
+     * as it was once the action was first taken
+     * 
+     * @param action the action taken
+     * @param amount the chips it put in
+     * @param holder the highest bet of the round after the action
+     * @param flags  1 if the small blind was posted, 2 if the big blind was, 4
+     *               if the user has folded
+     */
+    void replayAction(Action action, int amount, int holder, int flags) {
+        Player player = roundPlayers.get(playerCount);
+        player.replay(action, amount);
+        setLastPlayer(player);
+        highBetHolder = holder;
+        sBlindDone = (flags & 1) != 0;
+        bBlindDone = (flags & 2) != 0;
+        userFolded = (flags & 4) != 0;
+        if (action == Action.FOLD) {
+            collectBet(player);
+            pots.fold(player);
+            roundPlayers.remove(playerCount);
+            playerCount -= 1;
+        }
+        transitions++;
+    }
+
     /**
      * Checks to see if the bet round is still running, used for GUI and TBGame
      * 
@@ -377,7 +556,7 @@ public class Game {
         } else if (highestBet == 0) {
             int checkCount = 0;
             for (Player player : roundPlayers) {
-                if ((player.getAction() == "Checked") || (player.getStack() == 0)) {
+                if ((player.getAction() == Action.CHECK) || (player.getStack() == 0)) {
                     checkCount++;
                 }
             }
@@ -403,41 +582,81 @@ public class Game {
     }
 
     /**
-     * Figures out the winner by determining which player has the highest card rank
+     * Checks whether anyone is left to bet: at least two players with chips, or
+     * one who has yet to call the highest bet. Once this is false no further
+     * action can change the hand, so the board can be run out to the showdown.
      * 
-     * @return an arraylist of type player corresponding to the evaluated relation
+     * @return a boolean condition corresponding to the evaluated relation
      */
-    public ArrayList<Player> showdown() {
-        ArrayList<Player> encapPlayers = new ArrayList<Player>(), winners = new ArrayList<Player>();
-        encapPlayers.addAll(roundPlayers); // The player ArrayList is encapsulated by the proxy encapPlayers ArrayList
-
-        Player highestPlayer = encapPlayers.get(0);
-        int highPlayerIndex = 0;
-        for (int index = 1; index < encapPlayers.size(); index++) {
-            if (encapPlayers.get(index).getHand().compareHand(highestPlayer.getHand()) == 1)
-                highestPlayer = encapPlayers.get(index);
-            highPlayerIndex = index;
-        }
-        winners.add(highestPlayer);
-        encapPlayers.remove(highestPlayer);
-
-        for (Player player : encapPlayers) {
-            if (player.getHand().compareHand(highestPlayer.getHand()) == 0)
-                winners.add(player);
-        }
-
-        int divisor = winners.size();
-        for (Player player : winners) {
-            player.stack += (int) (pot / divisor);
-            pot -= (int) (pot / divisor);
-            if (pot % 2 == 1) {
-                if (player == winners.get(0)) {
-                    player.stack++;
+    public boolean isBettingOpen() {
+        int withChips = 0;
+        int toMatch = Math.max(highestBet, highBetHolder);
+        for (Player player : roundPlayers) {
+            if (player.getStack() > 0) {
+                withChips++;
+                if (player.getBet() < toMatch) {
+                    return true;
                 }
             }
-            divisor--;
+        }
+        return withChips > 1;
+    }
+
+    /**
+     * Checks whether no hand is in play: none has been dealt yet, or the last
+     * one has been shown down and its pots paid out. A loaded game only needs a
+     * new hand dealt when this is true, otherwise it carries on the saved one.
+     *
+     * @return a boolean condition corresponding to the evaluated relation
+     */
+    public boolean isBetweenHands() {
+        if (roundPlayers.isEmpty()) {
+            return true;
+        }
+        if (roundNum < 4 || pots.getTotal() > 0) {
+            return false;
+        }
+        for (Player player : roundPlayers) {
+            if (player.getBet() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deals the rest of the board straight to the showdown when no further
+     * betting is possible, collecting the bets of the current round first
+     */
+    public void runOut() {
+        while (roundNum < 4) {
+            incrementRound();
+        }
+    }
+
+    /**
+     * Figures out the winner by determining which player has the highest card
+     * rank. Each of the main and side pots is won only by the strongest hand
+     * among the players who put in enough to be eligible for it.
+     * 
+     * @return every player who won chips, the winners of the main pot first
+     */
+    public ArrayList<Player> showdown() {
+        for (Player player : roundPlayers) {
+            collectBet(player);
         }
 
+        long commBits = getCommSet().bits();
+        int total = pots.getTotal();
+        ArrayList<Player> winners = pots.settle(roundPlayers,
+                player -> evaluator.strength(player.getHoleSet().bits() | commBits));
+        pots.clear();
+        transitions++;
+        if (journal != null) {
+            journal.pot(transitions, total);
+        }
+        listener.potsSettled(winners, total);
+
         ArrayList<Player> gameOverList = new ArrayList<Player>();
         gameOverList.addAll(players);
 
@@ -481,6 +700,172 @@ public class Game {
         players.addAll(tempPList);
     }
 
+    /**
+     * Writes the whole state of the game for SaveIO, so a game saved mid hand
+     * carries on with the same cards: every seat's name, stack, bet, action
+     * and hole cards, the players still in the round, the community cards,
+     * the order of the deck, the pots and where the betting stands
+     * 
+     * @return the state, ready to be read
+     */
+    ByteBuffer snapshot() {
+        byte[][] names = new byte[players.size()][];
+        int size = 104 + Card.DECK_SIZE;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = players.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            size += names[i].length + 56;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putDouble(smallBlind);
+        out.putInt(betInterval);
+        out.put((byte) roundNum);
+        out.put((byte) playerCount);
+        out.putInt(highestBet);
+        out.putInt(highBetHolder);
+        out.put((byte) ((gameOver ? 1 : 0) | (userFolded ? 2 : 0) | (sBlindDone ? 4 : 0) | (bBlindDone ? 8 : 0)
+                | (userWon ? 16 : 0)));
+        out.put((byte) players.indexOf(lastPlayer));
+
+        out.put((byte) players.size());
+        for (int i = 0; i < names.length; i++) {
+            Player player = players.get(i);
+            out.put((byte) (player instanceof Human ? 1 : 0));
+            out.putShort((short) names[i].length);
+            out.put(names[i]);
+            out.putInt(player.getStack());
+            out.putInt(player.getBet());
+            out.putInt(player.getHighBet());
+            out.putInt(player.getMinBet());
+            out.put((byte) player.getAction().ordinal());
+            out.putLong(player.getLastMove());
+            putCards(out, player.getHole());
+        }
+        out.put((byte) roundPlayers.size());
+        for (Player player : roundPlayers) {
+            out.put((byte) players.indexOf(player));
+        }
+        putCards(out, middleCards);
+
+        int[] deck = new int[Card.DECK_SIZE];
+        out.put((byte) cardDeck.getOrder(deck));
+        for (int id : deck) {
+            out.put((byte) id);
+        }
+
+        ArrayList<Player> contributors = pots.getContributors();
+        out.put((byte) contributors.size());
+        for (Player player : contributors) {
+            out.put((byte) players.indexOf(player));
+            out.putInt(pots.getContribution(player));
+            out.put((byte) (pots.isFolded(player) ? 1 : 0));
+        }
+        out.putLong(transitions);
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Rebuilds a game from the state written by snapshot
+     * 
+     * @param in      the state
+     * @param version the version of SaveIO's format the state was saved in,
+     *                from 2 holding the number of transitions
+     * @param random  the source of the AI's decisions and later shuffles
+     * @return the game, as it was when it was saved
+     * @throws BufferUnderflowException  if the state is cut short
+     * @throws IndexOutOfBoundsException if the state refers to a seat or card
+     *                                   that does not exist
+     */
+    static Game fromSnapshot(ByteBuffer in, int version, RandomSource random) {
+        Game game = new Game(random);
+        game.smallBlind = in.getDouble();
+        game.betInterval = in.getInt();
+        game.roundNum = in.get();
+        game.playerCount = in.get();
+        game.highestBet = in.getInt();
+        game.highBetHolder = in.getInt();
+        int flags = in.get();
+        game.gameOver = (flags & 1) != 0;
+        game.userFolded = (flags & 2) != 0;
+        game.sBlindDone = (flags & 4) != 0;
+        game.bBlindDone = (flags & 8) != 0;
+        game.userWon = (flags & 16) != 0;
+        int lastPlayer = in.get();
+
+        int seats = in.get() & 0xFF;
+        for (int i = 0; i < seats; i++) {
+            boolean human = in.get() == 1;
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            String playerName = new String(name, StandardCharsets.UTF_8);
+            int stack = in.getInt();
+            Player player = human ? new Human(playerName, stack)
+                    : new AI(playerName, stack, random.split(), game.betInterval, game.preflop);
+            player.setEvaluator(game.evaluator);
+            player.setListener(game.listener);
+            player.setBet(in.getInt());
+            player.setHighBet(in.getInt());
+            player.setMinBet(in.getInt());
+            player.setAction(Action.values()[in.get()]);
+            player.setLastMove(in.getLong());
+            for (Card card : getCards(in)) {
+                player.setHole(card);
+            }
+            game.players.add(player);
+        }
+        if (lastPlayer >= 0) {
+            game.lastPlayer = game.players.get(lastPlayer);
+        }
+        int inRound = in.get();
+        for (int i = 0; i < inRound; i++) {
+            game.roundPlayers.add(game.players.get(in.get()));
+        }
+        game.middleCards = getCards(in);
+
+        int next = in.get();
+        int[] deck = new int[Card.DECK_SIZE];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = Card.fromId(in.get()).id();
+        }
+        game.cardDeck.setOrder(deck, next);
+
+        int contributors = in.get();
+        for (int i = 0; i < contributors; i++) {
+            Player player = game.players.get(in.get());
+            game.pots.add(player, in.getInt());
+            if (in.get() == 1) {
+                game.pots.fold(player);
+            }
+        }
+        if (version >= 2) {
+            game.transitions = in.getLong();
+        }
+
+        if (game.roundNum > 0) {
+            ArrayList<Card> roundComm = game.getRoundComm();
+            for (Player player : game.roundPlayers) {
+                player.setHand(roundComm);
+            }
+        }
+        return game;
+    }
+
+    private static void putCards(ByteBuffer out, ArrayList<Card> cards) {
+        out.put((byte) cards.size());
+        for (Card card : cards) {
+            out.put((byte) card.id());
+        }
+    }
+
+    private static ArrayList<Card> getCards(ByteBuffer in) {
+        int count = in.get();
+        ArrayList<Card> cards = new ArrayList<Card>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.fromId(in.get()));
+        }
+        return cards;
+    }
+
     /**
      * Gets the master list of the created players
      * 
@@ -545,6 +930,49 @@ public class Game {
         return middleCards;
     }
 
+    /**
+     * Gives the middle community cards used for the round as a set, for
+     * evaluators and equity calculations
+     * 
+     * @return a CardSet of the community cards
+     */
+    public CardSet getCommSet() {
+        return CardSet.fromList(middleCards);
+    }
+
+    /**
+     * Gives the community cards shown so far in the round, none in the blind
+     * round, then the flop, turn and river as the rounds go on
+     * 
+     * @return a CardSet of the shown community cards
+     */
+    public CardSet getBoardSet() {
+        return CardSet.fromList(getBoard());
+    }
+
+    /**
+     * Copies out the community cards shown so far in the round
+     */
+    private ArrayList<Card> getBoard() {
+        int shown = roundNum == 0 ? 0 : Math.min(roundNum + 2, middleCards.size());
+        return new ArrayList<Card>(middleCards.subList(0, shown));
+    }
+
+    /**
+     * Works out the odds of each player still in the round from the community
+     * cards shown so far, exactly where the runouts are few enough
+     * 
+     * @param calculator the equity calculator to use
+     * @return the equity of each round player, in the order of getPlayers
+     */
+    public EquityResult getEquity(ExactEquity calculator) {
+        CardSet[] holes = new CardSet[roundPlayers.size()];
+        for (int i = 0; i < holes.length; i++) {
+            holes[i] = roundPlayers.get(i).getHoleSet();
+        }
+        return calculator.calculate(holes, getBoardSet(), CardSet.EMPTY);
+    }
+
     /**
      * Gets the smallblind for GUI and TBGame
      * 
@@ -569,7 +997,17 @@ public class Game {
      * @return a int corresponding to the evaluated relation
      */
     public int getPot() {
-        return pot;
+        return pots.getTotal();
+    }
+
+    /**
+     * Gets the main pot followed by any side pots, as they stand after the
+     * bets collected so far
+     * 
+     * @return the pots, the main pot first
+     */
+    public ArrayList<PotManager.Pot> getPots() {
+        return pots.getPots();
     }
 
     /**
@@ -608,6 +1046,48 @@ public class Game {
         return userWon;
     }
 
+    /**
+     * Sets the engine used to evaluate every player's hands, e.g. to run a
+     * faster HandEvaluator once the EvaluatorHarness shows it agrees with the
+     * reference
+     * 
+     * @param handEvaluator the engine to find hand strengths with
+     */
+    public void setEvaluator(HandEvaluator handEvaluator) {
+        evaluator = handEvaluator;
+        for (Player player : players)
+            player.setEvaluator(handEvaluator);
+    }
+
+    /**
+     * Sets the listener told of the game's events and every player's actions,
+     * GameEventListener.NONE to publish nothing
+     */
+    public void setListener(GameEventListener gameListener) {
+        listener = gameListener;
+        for (Player player : players)
+            player.setListener(gameListener);
+    }
+
+    /**
+     * Sets the journal every transition of the game's state is appended to,
+     * null to journal nothing. The journal should be checkpointed with the
+     * game straight after, so it only holds transitions since the save.
+     * 
+     * @param gameJournal the journal
+     */
+    public void setJournal(GameJournal gameJournal) {
+        journal = gameJournal;
+    }
+
+    /**
+     * Gets the number of transitions of the game's state so far, the number
+     * of the last journaled record
+     */
+    long getTransitions() {
+        return transitions;
+    }
+
     /**
      * Sets an object of type player to the last player that the game was just
      * getting input from
@@ -0,0 +1,73 @@
+package game;
+
+/**
+ * Receives the events of a game as it is played: each hand dealt, each street
+ * of community cards, each player's action and the pots being won. Game and
+ * Player publish to a listener instead of printing, so headless games are not
+ * slowed by output and several tables do not wait on one console. The
+ * players' actions come through the ActionListener this extends. Every
+ * method does nothing by default, so a listener only needs to override the
+ * events it wants.
+ */
+
+import java.util.ArrayList;
+
+import cards.Card;
+import players.Action;
+import players.ActionListener;
+import players.Player;
+
+public interface GameEventListener extends ActionListener {
+
+    /**
+     * The listener that ignores every event, used unless another is set
+     */
+    GameEventListener NONE = new GameEventListener() {
+    };
+
+    /**
+     * A new hand has been dealt
+     *
+     * @param players the players dealt into the hand
+     */
+    default void handStarted(ArrayList<Player> players) {
+    }
+
+    /**
+     * A new street has begun
+     *
+     * @param round the round number, 1 for the flop to 3 for the river
+     * @param board the community cards shown so far
+     */
+    default void streetDealt(int round, ArrayList<Card> board) {
+    }
+
+    /**
+     * A player has taken an action
+     *
+     * @param player the player
+     * @param action the action taken
+     * @param amount the chips the action put in
+     */
+    @Override
+    default void playerActed(Player player, Action action, int amount) {
+    }
+
+    /**
+     * The pots of a hand have been won
+     *
+     * @param winners every player who won chips, the winners of the main pot
+     *                first
+     * @param pot     the chips in every pot together
+     */
+    default void potsSettled(ArrayList<Player> winners, int pot) {
+    }
+
+    /**
+     * Any other text for whoever is watching
+     *
+     * @param text the message
+     */
+    default void message(String text) {
+    }
+}
@@ -0,0 +1,549 @@
+package game;
+
+/**
+ * An append-only journal of every transition of a Game's state, so a table
+ * which crashes can be recovered to its last action rather than its last
+ * save. A game with a journal set appends a record as each hand is set up, a
+ * blind is posted, a player acts, the turn moves on, a street is dealt and the
+ * pots are won, and recovery loads the last save and replays the records made
+ * since onto it.
+ *
+ * Appending only copies the record into a buffer. A background thread writes
+ * the buffer out and forces it to disk once syncRecords records are waiting
+ * or the oldest of them has waited syncMillis, whichever comes first, so many
+ * records share one fsync and the game never waits on the disk. A crash loses
+ * at most those last unsynced records.
+ *
+ * The file starts with a magic number and the format version. Each record is
+ * its length, its type, the number of the transition as counted by the game,
+ * the type's fields and a CRC32, so a record torn by a crash is found and
+ * the journal read up to it. The numbers let a record already in the save be
+ * skipped, so a crash between saving and emptying the journal loses nothing.
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import cards.Card;
+import cards.RandomSource;
+import players.Action;
+import players.Player;
+
+public class GameJournal implements AutoCloseable {
+
+    public static final Path FILE = Paths.get("Save.journal");
+    public static final long DEFAULT_SYNC_MILLIS = 20;
+    public static final int DEFAULT_SYNC_RECORDS = 256;
+
+    static final int HAND = 1; // the deck's order as the hand was set up
+    static final int BLIND = 2; // a blind posted, with the fields of an action
+    static final int ACTION = 3; // the action, chips put in, highest bet and blind flags
+    static final int NEXT = 4; // the turn moved on to the next player
+    static final int STREET = 5; // the next street dealt
+    static final int POT = 6; // the pots won, with the chips in them
+    private static final int MAGIC = 0x54484A4C; // "THJL"
+    private static final short VERSION = 1;
+    private static final int HEADER = 6;
+    private static final int MAX_RECORD = 1 + 1 + 8 + Card.DECK_SIZE + 4;
+    private static final int BUFFER = 64 << 10;
+
+    private final FileChannel channel;
+    private final Object channelLock = new Object(); // held while writing to or emptying the file
+    private final long syncNanos;
+    private final int syncRecords;
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+    private ByteBuffer filling = ByteBuffer.allocate(BUFFER); // records waiting to be written
+    private ByteBuffer flushing = ByteBuffer.allocate(BUFFER); // records being written
+    private int start; // the position in filling of the record being appended
+    private int pending; // the number of records in filling
+    private long firstPending; // when the oldest record in filling was appended
+    private long appended;
+    private long durable; // the number of records forced to disk
+    private boolean urgent;
+    private boolean closed;
+    private IOException failure;
+
+    private GameJournal(FileChannel channel, long syncMillis, int syncRecords) {
+        this.channel = channel;
+        this.syncNanos = TimeUnit.MILLISECONDS.toNanos(syncMillis);
+        this.syncRecords = syncRecords;
+        flusher = new Thread(this::flushLoop, "journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens a journal, syncing every DEFAULT_SYNC_MILLIS or
+     * DEFAULT_SYNC_RECORDS records
+     *
+     * @param file the journal file, created if it does not exist
+     * @return the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static GameJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_SYNC_MILLIS, DEFAULT_SYNC_RECORDS);
+    }
+
+    /**
+     * Opens a journal, appending after its last whole record
+     *
+     * @param file        the journal file, created if it does not exist
+     * @param syncMillis  the longest a record waits to be forced to disk
+     * @param syncRecords the most records that wait to be forced to disk
+     * @return the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static GameJournal open(Path file, long syncMillis, int syncRecords) throws IOException {
+        return open(file, syncMillis, syncRecords, false);
+    }
+
+    /**
+     * Opens a journal emptied of any records it held, for a game which does
+     * not follow on from them, syncing every DEFAULT_SYNC_MILLIS or
+     * DEFAULT_SYNC_RECORDS records
+     *
+     * @param file the journal file, created if it does not exist
+     * @return the journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static GameJournal create(Path file) throws IOException {
+        return open(file, DEFAULT_SYNC_MILLIS, DEFAULT_SYNC_RECORDS, true);
+    }
+
+    private static GameJournal open(Path file, long syncMillis, int syncRecords, boolean empty) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (empty) {
+                channel.truncate(0);
+            }
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putShort(VERSION);
+                header.flip();
+                channel.write(header, 0);
+                end = HEADER;
+            } else {
+                ByteBuffer journal = readAll(channel);
+                checkHeader(journal, file);
+                while (nextRecord(journal) != null) {
+                    // skips to the end of the last whole record
+                }
+                end = journal.position();
+            }
+            channel.truncate(end); // drops a record torn by a crash
+            channel.position(end);
+            return new GameJournal(channel, syncMillis, syncRecords);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads a saved game and replays the journal onto it
+     *
+     * @param save       the file the game was saved to by SaveIO
+     * @param file       the journal, which may not exist
+     * @param random     the source of the game's randomness from now on
+     * @param wholeHands true to stop at the end of the last hand whose pots were
+     *                   won, false to replay every record
+     * @return the game as of the last record replayed
+     * @throws IOException if the save or the journal cannot be read, or the
+     *                     journal does not follow on from the save
+     */
+    public static Game recover(Path save, Path file, RandomSource random, boolean wholeHands) throws IOException {
+        Game game = new SaveIO().loadGame(save, random);
+        replay(file, game, wholeHands);
+        return game;
+    }
+
+    /**
+     * Replays the records of a journal which came after the game's state
+     *
+     * @param file       the journal, which may not exist
+     * @param game       the game, as it was loaded from its last save
+     * @param wholeHands true to stop at the end of the last hand whose pots were
+     *                   won, false to replay every record
+     * @return the number of records replayed
+     * @throws IOException if the journal cannot be read or does not follow on
+     *                     from the game
+     */
+    public static long replay(Path file, Game game, boolean wholeHands) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        ByteBuffer journal;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            journal = readAll(in);
+        }
+        checkHeader(journal, file);
+
+        long last = Long.MAX_VALUE;
+        if (wholeHands) {
+            last = 0;
+            ByteBuffer scan = journal.duplicate();
+            for (ByteBuffer record = nextRecord(scan); record != null; record = nextRecord(scan)) {
+                if (record.get(0) == POT) {
+                    last = record.getLong(1);
+                }
+            }
+        }
+
+        long replayed = 0;
+        for (ByteBuffer record = nextRecord(journal); record != null; record = nextRecord(journal)) {
+            int type = record.get();
+            long number = record.getLong();
+            if (number > last) {
+                break;
+            } else if (number <= game.getTransitions()) {
+                continue; // already in the save
+            } else if (number != game.getTransitions() + 1) {
+                throw new IOException(file + " does not follow on from the saved game");
+            }
+            try {
+                apply(game, type, record);
+            } catch (RuntimeException e) {
+                throw new IOException(file + " holds a transition the game cannot take", e);
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private static void apply(Game game, int type, ByteBuffer record) throws IOException {
+        switch (type) {
+        case HAND:
+            int[] deck = new int[Card.DECK_SIZE];
+            for (int i = 0; i < deck.length; i++) {
+                deck[i] = Card.fromId(record.get()).id();
+            }
+            game.setupRound(deck);
+            break;
+        case BLIND:
+        case ACTION:
+            game.replayAction(Action.values()[record.get()], record.getInt(), record.getInt(), record.get());
+            break;
+        case NEXT:
+            game.incrementPlayer();
+            break;
+        case STREET:
+            game.incrementRound();
+            break;
+        case POT:
+            int pot = game.getPot();
+            for (Player player : game.getPlayers()) {
+                pot += player.getBet();
+            }
+            if (pot != record.getInt()) {
+                throw new IOException("The pot replayed does not match the pot journaled");
+            }
+            game.showdown();
+            break;
+        default:
+            throw new IOException("Unknown journal record " + type);
+        }
+    }
+
+    /**
+     * Reads a whole journal into memory rather than mapping it, so the file
+     * can be emptied by a checkpoint straight after it is replayed
+     */
+    private static ByteBuffer readAll(FileChannel in) throws IOException {
+        ByteBuffer journal = ByteBuffer.allocate((int) in.size());
+        while (journal.hasRemaining() && in.read(journal, journal.position()) >= 0) {
+            // reads until the whole file is in
+        }
+        journal.flip();
+        return journal;
+    }
+
+    private static void checkHeader(ByteBuffer journal, Path file) throws IOException {
+        if (journal.remaining() < HEADER || journal.getInt() != MAGIC) {
+            throw new IOException(file + " is not a game journal");
+        }
+        short version = journal.getShort();
+        if (version != VERSION) {
+            throw new IOException(file + " was written in format " + version + ", not " + VERSION);
+        }
+    }
+
+    /**
+     * Reads the next whole record, leaving the journal after it
+     *
+     * @return the record from its type up to its CRC, or null at the end of
+     *         the journal or a torn record
+     */
+    private static ByteBuffer nextRecord(ByteBuffer journal) {
+        if (!journal.hasRemaining()) {
+            return null;
+        }
+        int length = journal.get(journal.position()) & 0xFF;
+        if (length < 9 || journal.remaining() < 1 + length + 4) {
+            return null;
+        }
+        ByteBuffer record = journal.duplicate();
+        record.limit(journal.position() + 1 + length);
+        record.position(journal.position() + 1);
+        record = record.slice();
+        CRC32 check = new CRC32();
+        check.update(record.duplicate());
+        if ((int) check.getValue() != journal.getInt(journal.position() + 1 + length)) {
+            return null;
+        }
+        journal.position(journal.position() + 1 + length + 4);
+        return record;
+    }
+
+    synchronized void hand(long number, int[] deck) {
+        begin(HAND, number);
+        for (int id : deck) {
+            filling.put((byte) id);
+        }
+        end();
+    }
+
+    synchronized void action(long number, boolean blind, Action action, int amount, int highBet, int flags) {
+        begin(blind ? BLIND : ACTION, number);
+        filling.put((byte) action.ordinal()).putInt(amount).putInt(highBet).put((byte) flags);
+        end();
+    }
+
+    synchronized void next(long number) {
+        begin(NEXT, number);
+        end();
+    }
+
+    synchronized void street(long number) {
+        begin(STREET, number);
+        end();
+    }
+
+    synchronized void pot(long number, int pot) {
+        begin(POT, number);
+        filling.putInt(pot);
+        end();
+    }
+
+    /**
+     * Starts a record, waiting for the flusher if the buffer is full
+     */
+    private void begin(int type, long number) {
+        try {
+            while (filling.remaining() < MAX_RECORD && failure == null) {
+                notifyAll();
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for the journal"));
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        } else if (closed) {
+            throw new IllegalStateException("The journal is closed");
+        }
+        start = filling.position();
+        filling.put((byte) 0).put((byte) type).putLong(number);
+    }
+
+    private void end() {
+        int length = filling.position() - start - 1;
+        filling.put(start, (byte) length);
+        crc.reset();
+        crc.update(filling.array(), start + 1, length);
+        filling.putInt((int) crc.getValue());
+        appended++;
+        if (pending++ == 0) {
+            firstPending = System.nanoTime();
+            notifyAll();
+        } else if (pending >= syncRecords) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Forces every record appended so far to disk, waiting until it is
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appended;
+            if (pending > 0) {
+                urgent = true;
+                notifyAll();
+            }
+            try {
+                while (durable < target && failure == null) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for the journal");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Saves the game and empties the journal, which from then on holds only
+     * the transitions since the save. The game must not change until this
+     * returns.
+     *
+     * @param game the game journaled to this journal
+     * @param save the file to save the game to
+     * @throws IOException if the game could not be saved or the journal
+     *                     emptied
+     */
+    public void checkpoint(Game game, Path save) throws IOException {
+        long records;
+        synchronized (this) {
+            records = appended;
+        }
+        checkpoint(game.snapshot(), records, save);
+    }
+
+    /**
+     * Saves the game on an executor, so the thread it is played on never waits
+     * on the disk. The game is copied out before this returns and may carry
+     * on straight away. The journal is emptied only if nothing was journaled
+     * while the save was written; otherwise it keeps every record, and those
+     * already in the save are skipped when it is replayed.
+     *
+     * @param game     the game journaled to this journal
+     * @param save     the file to save the game to
+     * @param executor runs the save
+     * @return completes once the game is saved, or exceptionally with an
+     *         UncheckedIOException if it could not be
+     */
+    public CompletableFuture<Void> checkpoint(Game game, Path save, Executor executor) {
+        ByteBuffer state = game.snapshot();
+        long records;
+        synchronized (this) {
+            records = appended;
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                checkpoint(state, records, save);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Saves a snapshot taken once the given number of records were appended,
+     * then empties the journal if no record has been appended since. The file
+     * is held while it is emptied, so a record appended meanwhile is written
+     * after it is.
+     */
+    private void checkpoint(ByteBuffer state, long records, Path save) throws IOException {
+        sync();
+        new SaveIO().saveSnapshot(state, save);
+        synchronized (channelLock) {
+            synchronized (this) {
+                if (appended != records) {
+                    return;
+                }
+            }
+            channel.truncate(HEADER);
+            channel.position(HEADER);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Forces the last records to disk and closes the journal
+     *
+     * @throws IOException if the journal could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes out and forces to disk each batch of records once it is due
+     */
+    private void flushLoop() {
+        try {
+            while (true) {
+                int batch;
+                synchronized (this) {
+                    while (!isDue()) {
+                        if (closed && pending == 0) {
+                            return;
+                        } else if (pending == 0) {
+                            wait();
+                        } else {
+                            long waited = System.nanoTime() - firstPending;
+                            wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(syncNanos - waited)));
+                        }
+                    }
+                    ByteBuffer full = filling;
+                    filling = flushing;
+                    flushing = full;
+                    batch = pending;
+                    pending = 0;
+                    urgent = false;
+                    notifyAll(); // the buffer has room again
+                }
+
+                flushing.flip();
+                synchronized (channelLock) {
+                    while (flushing.hasRemaining()) {
+                        channel.write(flushing);
+                    }
+                    channel.force(false);
+                }
+                flushing.clear();
+                synchronized (this) {
+                    durable += batch;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                failure = new InterruptedIOException("The journal was interrupted");
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean isDue() {
+        return pending > 0 && (urgent || closed || pending >= syncRecords || filling.remaining() < MAX_RECORD
+                || System.nanoTime() - firstPending >= syncNanos);
+    }
+}
@@ -0,0 +1,175 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import cards.RandomSource;
+
+public class GameJournalTest {
+	// testing that a game recovered mid hand from its save and journal is the game as it was
+	@Test
+	public void test_recoverMidHand() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		Game game = newGame();
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"), 5, 64)) {
+			game.setJournal(journal);
+			journal.checkpoint(game, dir.resolve("Save.dat"));
+			for (int hand = 0; hand < 20 && !game.isGameOver(); hand++) {
+				playHand(game);
+			}
+			game.setupRound();
+			for (int turn = 0; turn < 3; turn++) {
+				game.processTurn();
+				game.incrementPlayer();
+			}
+		}
+
+		Game recovered = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(2), false);
+		assertEquals(game.snapshot(), recovered.snapshot());
+		assertEquals(0, recovered.getRound());
+		assertTrue(recovered.getPot() + recovered.getPlayers().get(0).getBet() > 0);
+	}
+
+	// testing that recovering whole hands stops where the last pots were won
+	@Test
+	public void test_recoverWholeHands() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		Game game = newGame();
+		byte[] lastHand;
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"))) {
+			game.setJournal(journal);
+			journal.checkpoint(game, dir.resolve("Save.dat"));
+			for (int hand = 0; hand < 5; hand++) {
+				playHand(game);
+			}
+			lastHand = game.snapshot().array().clone();
+			game.setupRound();
+			game.processTurn();
+		}
+
+		Game recovered = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(2), true);
+		assertArrayEquals(lastHand, recovered.snapshot().array());
+	}
+
+	// testing that a record torn by a crash and records already saved are both passed over
+	@Test
+	public void test_tornAndSavedRecords() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		Game game = newGame();
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"))) {
+			game.setJournal(journal);
+			journal.checkpoint(game, dir.resolve("Save.dat"));
+			playHand(game);
+			new SaveIO().saveGame(game, dir.resolve("Save.dat")); // as if the crash came before the journal was emptied
+			playHand(game);
+		}
+		try (FileChannel channel = FileChannel.open(dir.resolve("Save.journal"), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 2);
+		}
+
+		Game recovered = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(2), false);
+		assertEquals(game.getTransitions() - 1, recovered.getTransitions());
+
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"))) {
+			recovered.setJournal(journal);
+			recovered.setupRound(); // carries on after the last whole record
+		}
+		Game again = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(3), false);
+		assertEquals(recovered.snapshot(), again.snapshot());
+	}
+
+	// testing that a checkpoint written while the game plays on keeps the records journaled meanwhile
+	@Test
+	public void test_checkpointInBackground() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		Game game = newGame();
+		ArrayList<Runnable> later = new ArrayList<Runnable>();
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"))) {
+			game.setJournal(journal);
+			journal.checkpoint(game, dir.resolve("Save.dat"));
+			playHand(game);
+			CompletableFuture<Void> checkpoint = journal.checkpoint(game, dir.resolve("Save.dat"), later::add);
+			playHand(game); // played before the save is written
+			later.forEach(Runnable::run);
+			checkpoint.join();
+		}
+		assertTrue(Files.size(dir.resolve("Save.journal")) > 6);
+
+		Game recovered = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(2), false);
+		assertEquals(game.snapshot(), recovered.snapshot());
+	}
+
+	// testing that a journal created for another game holds none of the last game's records
+	@Test
+	public void test_createForAnotherGame() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		Game last = newGame();
+		try (GameJournal journal = GameJournal.open(dir.resolve("Save.journal"))) {
+			last.setJournal(journal);
+			journal.checkpoint(last, dir.resolve("Save.dat"));
+			for (int hand = 0; hand < 3; hand++) {
+				playHand(last);
+			}
+		}
+
+		Game game = new Game(RandomSource.seeded(4));
+		game.generateAIPlayers(3, 500);
+		game.setupRound();
+		ArrayList<Runnable> later = new ArrayList<Runnable>();
+		try (GameJournal journal = GameJournal.create(dir.resolve("Save.journal"))) {
+			game.setJournal(journal);
+			CompletableFuture<Void> checkpoint = journal.checkpoint(game, dir.resolve("Save.dat"), later::add);
+			playHand(game); // played before the save is written
+			later.forEach(Runnable::run);
+			checkpoint.join();
+		}
+
+		Game recovered = GameJournal.recover(dir.resolve("Save.dat"), dir.resolve("Save.journal"),
+				RandomSource.seeded(2), false);
+		assertEquals(game.snapshot(), recovered.snapshot());
+	}
+
+	private static Game newGame() {
+		Game game = new Game(RandomSource.seeded(1));
+		game.generateAIPlayers(4, 1000);
+		game.setupRound();
+		return game;
+	}
+
+	private static void playHand(Game game) {
+		if (game.getRound() == 4) {
+			game.setupRound();
+		}
+		while (game.getRound() < 4) {
+			int street = game.getRound();
+			boolean running = game.isBettingOpen();
+			for (int actions = 0; running && actions < 200; actions++) {
+				if (game.getCurrentPlayer().getStack() > 0) {
+					game.processTurn();
+				}
+				game.incrementPlayer();
+				running = game.isBettingOpen() && game.isBetRoundRunning();
+			}
+			if (!game.isBettingOpen()) {
+				game.runOut();
+			} else if (game.getRound() == street) {
+				game.incrementRound();
+			}
+		}
+		game.showdown();
+	}
+}
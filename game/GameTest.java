@@ -6,6 +6,7 @@ import org.junit.Test;
 
 import cards.Card;
 import cards.Deck;
+import cards.RandomSource;
 import players.AI;
 import players.Human;
 import players.Player;
@@ -88,4 +89,21 @@ public class GameTest {
 		assertEquals(4, game.getComm().size());
 		assertEquals(0, game.getPot());
 	}
-}
+
+	// testing that a seeded game deals the same cards every time
+	@Test
+	public void test_seededGameReplays() {
+		Game game1 = new Game(RandomSource.seeded(233));
+		Game game2 = new Game(RandomSource.seeded(233));
+		ArrayList<Player> players1 = game1.generatePlayers(4, 1000);
+		ArrayList<Player> players2 = game2.generatePlayers(4, 1000);
+		game1.setupRound();
+		game2.setupRound();
+
+		assertEquals(game1.getComm(), game2.getComm());
+		for (int i = 0; i < players1.size(); i++) {
+			assertEquals(players1.get(i).getName(), players2.get(i).getName());
+			assertEquals(players1.get(i).getHole(), players2.get(i).getHole());
+		}
+	}
+}
\ No newline at end of file
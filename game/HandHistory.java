@@ -0,0 +1,265 @@
+package game;
+
+/**
+ * One hand read back from a HandHistoryLog: who was dealt in with what stack
+ * and hole cards, every action in order with the street it was taken on, the
+ * board, and who won the pot. Each action is kept packed as in
+ * Action.pack, so a long run of hands can be read without creating an object
+ * per action.
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import cards.Card;
+import players.Action;
+
+public class HandHistory {
+
+    private final int table;
+    private final String[] names;
+    private final int[] seats;
+    private final int[] stacks;
+    private final int[] holes;
+    private int[] board = new int[5];
+    private int boardSize;
+    private int[] actors = new int[16];
+    private long[] moves = new long[16];
+    private byte[] streets = new byte[16];
+    private int actionCount;
+    private int pot;
+    private int[] winners = new int[0];
+
+    private HandHistory(int table, String[] names, int[] seats, int[] stacks, int[] holes) {
+        this.table = table;
+        this.names = names;
+        this.seats = seats;
+        this.stacks = stacks;
+        this.holes = holes;
+    }
+
+    /**
+     * Reads the names of a table record, the record's tag and table number
+     * already read
+     *
+     * @param record the record
+     * @return the name of each seat
+     */
+    static String[] decodeTable(ByteBuffer record) {
+        String[] table = new String[record.get() & 0xFF];
+        for (int i = 0; i < table.length; i++) {
+            byte[] utf = new byte[getVarint(record)];
+            record.get(utf);
+            table[i] = new String(utf, StandardCharsets.UTF_8);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a hand record, the record's tag and table number already read
+     *
+     * @param record  the record
+     * @param tableId the number of the table the hand was played at
+     * @param table   the names of the table's seats, null if not known
+     * @return the hand
+     * @throws IllegalArgumentException if the record is cut short or malformed
+     */
+    static HandHistory decode(ByteBuffer record, int tableId, String[] table) {
+        try {
+            int count = record.get() & 0xFF;
+            int[] seats = new int[count];
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                seats[i] = record.get() & 0xFF;
+                names[i] = table != null && seats[i] < table.length ? table[seats[i]] : "Seat " + seats[i];
+            }
+            int[] stacks = new int[count];
+            for (int i = 0; i < count; i++) {
+                stacks[i] = getVarint(record);
+            }
+            int[] holes = new int[2 * count];
+            getCards(record, holes, 0, holes.length);
+
+            HandHistory hand = new HandHistory(tableId, names, seats, stacks, holes);
+            int street = 0;
+            while (true) {
+                int event = record.get() & 0xFF;
+                if (event == HandHistoryEncoder.END) {
+                    hand.pot = getVarint(record);
+                    hand.winners = new int[record.get() & 0xFF];
+                    for (int i = 0; i < hand.winners.length; i++) {
+                        hand.winners[i] = record.get() & 0xFF;
+                    }
+                    return hand;
+                } else if ((event & 7) == HandHistoryEncoder.STREET) {
+                    int cards = event >>> 3;
+                    getCards(record, hand.board, hand.boardSize, cards);
+                    hand.boardSize += cards;
+                    street++;
+                } else {
+                    Action action = Action.values()[event & 7];
+                    int amount = 0;
+                    if (HandHistoryEncoder.hasAmount(action)) {
+                        int zigzag = getVarint(record);
+                        amount = zigzag >>> 1 ^ -(zigzag & 1);
+                    }
+                    hand.addAction(event >>> 3, Action.pack(action, amount), street);
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The hand record is malformed", e);
+        }
+    }
+
+    static int getVarint(ByteBuffer record) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = record.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The varint is too long");
+    }
+
+    private static void getCards(ByteBuffer record, int[] cards, int from, int count) {
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < from + count; i++) {
+            while (bitCount < 6) {
+                bits |= (record.get() & 0xFF) << bitCount;
+                bitCount += 8;
+            }
+            cards[i] = bits & 0x3F;
+            if (cards[i] >= Card.DECK_SIZE && cards[i] != HandHistoryEncoder.UNKNOWN_CARD) {
+                throw new IllegalArgumentException("The card id " + cards[i] + " is out of range");
+            }
+            bits >>>= 6;
+            bitCount -= 6;
+        }
+    }
+
+    private void addAction(int actor, long move, int street) {
+        if (actionCount == moves.length) {
+            actors = Arrays.copyOf(actors, actionCount * 2);
+            moves = Arrays.copyOf(moves, actionCount * 2);
+            streets = Arrays.copyOf(streets, actionCount * 2);
+        }
+        actors[actionCount] = actor;
+        moves[actionCount] = move;
+        streets[actionCount] = (byte) street;
+        actionCount++;
+    }
+
+    /**
+     * Gets the number of the table the hand was played at, unique within the
+     * log it was written to
+     *
+     * @return the table number
+     */
+    public int getTable() {
+        return table;
+    }
+
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    public String getName(int player) {
+        return names[player];
+    }
+
+    public int getSeat(int player) {
+        return seats[player];
+    }
+
+    /**
+     * Gets a player's stack before the blinds were posted
+     *
+     * @param player the player's index in the hand
+     * @return the stack
+     */
+    public int getStack(int player) {
+        return stacks[player];
+    }
+
+    /**
+     * Gets a player's hole cards, those never shown left out
+     *
+     * @param player the player's index in the hand
+     * @return the known cards, two if both were dealt or shown
+     */
+    public ArrayList<Card> getHole(int player) {
+        ArrayList<Card> hole = new ArrayList<Card>(2);
+        for (int i = 2 * player; i < 2 * player + 2; i++) {
+            if (holes[i] != HandHistoryEncoder.UNKNOWN_CARD) {
+                hole.add(Card.fromId(holes[i]));
+            }
+        }
+        return hole;
+    }
+
+    /**
+     * Gets the community cards dealt before the hand ended
+     *
+     * @return the board
+     */
+    public ArrayList<Card> getBoard() {
+        ArrayList<Card> cards = new ArrayList<Card>(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            cards.add(Card.fromId(board[i]));
+        }
+        return cards;
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Gets the index in the hand of the player who took an action
+     *
+     * @param action the index of the action
+     * @return the player's index
+     */
+    public int getActor(int action) {
+        return actors[action];
+    }
+
+    /**
+     * Gets an action and the chips it put in, packed as in Action.pack
+     *
+     * @param action the index of the action
+     * @return the packed move
+     */
+    public long getMove(int action) {
+        return moves[action];
+    }
+
+    /**
+     * Gets the street an action was taken on, 0 for preflop to 3 for the river
+     *
+     * @param action the index of the action
+     * @return the street
+     */
+    public int getStreet(int action) {
+        return streets[action];
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    /**
+     * Gets the index in the hand of every player who won chips
+     *
+     * @return the winners, the winners of the main pot first
+     */
+    public int[] getWinners() {
+        return winners.clone();
+    }
+}
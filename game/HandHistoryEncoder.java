@@ -0,0 +1,198 @@
+package game;
+
+/**
+ * Encodes played hands into the compact records of a HandHistoryLog. A table
+ * record names the seats of a table, and each hand record played there refers
+ * to the table by its number and to its seats by index, so the hands of many
+ * tables can be mixed in one log:
+ *
+ * table: 1, the table number as a varint, seat count, then each name as a
+ * varint length and UTF-8 bytes
+ *
+ * hand: 2, the table number as a varint, player count, each player's seat,
+ * each player's starting stack as a varint, the hole cards as 6 bit card ids
+ * with 63 for a card that was never shown, then the hand's events in order:
+ *
+ * - an action: one byte of the player's index in the hand times 8 plus the
+ * Action's ordinal, followed for a bet, raise, call or all in by the chips put
+ * in as a zigzag varint
+ * - a street: one byte of the number of new cards times 8 plus 7, followed by
+ * the new cards as 6 bit card ids
+ * - the end: 0xFF, the pot as a varint, the number of winners and the index
+ * of each winner in the hand
+ *
+ * A typical hand of six players fits in about 40 bytes.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import players.Action;
+
+public class HandHistoryEncoder {
+
+    static final int TABLE = 1;
+    static final int HAND = 2;
+    static final int STREET = 7; // low bits of a street event, above every Action ordinal
+    static final int END = 0xFF;
+    public static final int UNKNOWN_CARD = 63; // a hole card that was never shown
+
+    private byte[] buffer = new byte[256];
+    private int size;
+    private int bits; // card bits waiting to fill a byte
+    private int bitCount;
+
+    /**
+     * Starts a table record naming its seats
+     *
+     * @param table the number of the table
+     * @param names the name of each seat
+     */
+    public void table(int table, String[] names) {
+        size = 0;
+        putByte(TABLE);
+        putVarint(table);
+        putByte(names.length);
+        for (String name : names) {
+            byte[] utf = name.getBytes(StandardCharsets.UTF_8);
+            putVarint(utf.length);
+            ensure(utf.length);
+            System.arraycopy(utf, 0, buffer, size, utf.length);
+            size += utf.length;
+        }
+    }
+
+    /**
+     * Starts a hand record
+     *
+     * @param table  the number of the table the hand is played at
+     * @param seats  the seat of each player dealt in
+     * @param stacks the stack of each player before the blinds
+     * @param holes  the card ids of each player's two hole cards, in player
+     *               order
+     */
+    public void beginHand(int table, int[] seats, int[] stacks, int[] holes) {
+        size = 0;
+        putByte(HAND);
+        putVarint(table);
+        putByte(seats.length);
+        for (int seat : seats) {
+            putByte(seat);
+        }
+        for (int i = 0; i < seats.length; i++) {
+            putVarint(stacks[i]);
+        }
+        putCards(holes, 0, 2 * seats.length);
+    }
+
+    /**
+     * Adds a player's action to the hand
+     *
+     * @param player the player's index in the hand
+     * @param action the action taken
+     * @param amount the chips the action put in
+     */
+    public void action(int player, Action action, int amount) {
+        putByte(player << 3 | action.ordinal());
+        if (hasAmount(action)) {
+            putVarint(amount << 1 ^ amount >> 31);
+        }
+    }
+
+    /**
+     * Adds the cards of a new street to the hand
+     *
+     * @param cards the card ids
+     * @param from  the index of the first new card
+     * @param count the number of new cards
+     */
+    public void street(int[] cards, int from, int count) {
+        putByte(count << 3 | STREET);
+        putCards(cards, from, count);
+    }
+
+    /**
+     * Ends the hand with who won the pot
+     *
+     * @param pot     the chips in every pot together
+     * @param winners the index in the hand of each player who won chips
+     */
+    public void endHand(int pot, int[] winners) {
+        putByte(END);
+        putVarint(pot);
+        putByte(winners.length);
+        for (int winner : winners) {
+            putByte(winner);
+        }
+    }
+
+    /**
+     * Gets the bytes of the record so far, valid up to size()
+     *
+     * @return the buffer holding the record
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Gets the length of the record so far
+     *
+     * @return the number of bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether an action is followed by the chips it put in
+     */
+    static boolean hasAmount(Action action) {
+        switch (action) {
+        case BET:
+        case RAISE:
+        case CALL:
+        case ALL_IN:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void putCards(int[] cards, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            bits |= cards[i] << bitCount;
+            bitCount += 6;
+            while (bitCount >= 8) {
+                putByte(bits);
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+        }
+        if (bitCount > 0) {
+            putByte(bits);
+        }
+        bits = 0;
+        bitCount = 0;
+    }
+
+    private void putVarint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void putByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
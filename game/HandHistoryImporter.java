@@ -0,0 +1,673 @@
+package game;
+
+/**
+ * Imports Hold'em hand histories from PokerStars style text files into a
+ * HandHistoryLog, so hands played on other sites can be replayed against the
+ * hand evaluator and the AI. The file is read through a FileChannel into a
+ * large byte buffer and each hand is parsed straight from the bytes into a
+ * compact record; only the seat names are ever made into Strings, and only
+ * when they change.
+ *
+ * A large file is split into one region per thread of the pool, each region
+ * starting at the first hand after its share of the file, and the regions
+ * are parsed at the same time. Every region is recorded as its own table of
+ * the log. Hands of other games are skipped, as are hands which cannot be
+ * parsed.
+ *
+ * Money amounts are kept in cents and tournament chips as they are; a hand is
+ * taken for a cash game when it is not a tournament and its blinds are given
+ * in a currency. A bet returned uncalled is taken off the bet, so the chips
+ * of a hand's actions add up to its pot. Hole cards are only known for the
+ * hero and for players who showed, and the pot is the total pot given in the
+ * summary.
+ *
+ * Run from the command line with the file, the log directory and optionally
+ * the number of threads:
+ *
+ * java game.HandHistoryImporter [file] [log] [threads]
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import players.Action;
+
+public class HandHistoryImporter {
+
+    private static final int DEFAULT_BUFFER = 4 << 20;
+    private static final long MIN_REGION = 1 << 20; // smaller files are not split
+    private static final int MAX_SEATS = 10;
+
+    private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+    private static final byte[] HAND_START = ascii("PokerStars ");
+    private static final byte[] HOLDEM = ascii("Hold'em");
+    private static final byte[] TOURNAMENT = ascii(" Tournament #");
+    private static final byte[] SEAT = ascii("Seat ");
+    private static final byte[] IN_CHIPS = ascii(" in chips");
+    private static final byte[] STARS = ascii("*** ");
+    private static final byte[] FLOP = ascii("*** FLOP ***");
+    private static final byte[] TURN = ascii("*** TURN ***");
+    private static final byte[] RIVER = ascii("*** RIVER ***");
+    private static final byte[] SUMMARY = ascii("*** SUMMARY ***");
+    private static final byte[] DEALT_TO = ascii("Dealt to ");
+    private static final byte[] TOTAL_POT = ascii("Total pot ");
+    private static final byte[] COLLECTED = ascii(" collected ");
+    private static final byte[] UNCALLED = ascii("Uncalled bet (");
+    private static final byte[] RETURNED_TO = ascii(") returned to ");
+    private static final byte[] POSTS = ascii("posts ");
+    private static final byte[] ANTE = ascii("posts the ante");
+    private static final byte[] FOLDS = ascii("folds");
+    private static final byte[] CHECKS = ascii("checks");
+    private static final byte[] CALLS = ascii("calls ");
+    private static final byte[] BETS = ascii("bets ");
+    private static final byte[] RAISES = ascii("raises ");
+    private static final byte[] TO = ascii(" to ");
+    private static final byte[] SHOWS = ascii("shows [");
+    private static final byte[] ALL_IN = ascii(" and is all-in");
+    private static final String RANKS = "23456789TJQKA";
+    private static final String SUITS = "hsdc"; // in the order of Card's suits
+
+    private final HandHistoryLog log;
+    private final ForkJoinPool pool;
+    private final int bufferSize;
+    private final AtomicLong hands = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * Creates an importer appending to the given log
+     *
+     * @param log  the log the hands are recorded to
+     * @param pool the pool the regions of a file are parsed on
+     */
+    public HandHistoryImporter(HandHistoryLog log, ForkJoinPool pool) {
+        this(log, pool, DEFAULT_BUFFER);
+    }
+
+    HandHistoryImporter(HandHistoryLog log, ForkJoinPool pool, int bufferSize) {
+        this.log = log;
+        this.pool = pool;
+        this.bufferSize = bufferSize;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args[0]);
+        ForkJoinPool pool = args.length > 2 ? new ForkJoinPool(Integer.parseInt(args[2])) : ForkJoinPool.commonPool();
+        try (HandHistoryLog log = HandHistoryLog.open(Paths.get(args[1]))) {
+            HandHistoryImporter importer = new HandHistoryImporter(log, pool);
+            long start = System.nanoTime();
+            importer.importFile(file);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d hands imported, %,d skipped in %.2f s, %.0f MB/s%n", importer.getHands(),
+                    importer.getSkipped(), seconds, file.toFile().length() / 1e6 / seconds);
+        }
+    }
+
+    /**
+     * Imports every hand of a file, splitting it between the pool's threads
+     *
+     * @param file the hand history file
+     * @return the number of hands imported from the file
+     * @throws IOException if the file cannot be read or the log written
+     */
+    public long importFile(Path file) throws IOException {
+        long before = hands.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int regions = (int) Math.max(1, Math.min(pool.getParallelism(), size / MIN_REGION));
+            long[] bounds = new long[regions + 1];
+            for (int i = 1; i < regions; i++) {
+                bounds[i] = nextHand(channel, i * (size / regions));
+            }
+            bounds[regions] = size;
+
+            ArrayList<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(regions);
+            for (int i = 0; i < regions; i++) {
+                RegionParser parser = new RegionParser(channel, bounds[i], bounds[i + 1]);
+                tasks.add(pool.submit(() -> {
+                    try {
+                        parser.run();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return hands.get() - before;
+    }
+
+    /**
+     * Gets the number of hands imported so far
+     *
+     * @return the number of hands
+     */
+    public long getHands() {
+        return hands.get();
+    }
+
+    /**
+     * Gets the number of hands skipped so far, being of another game or not
+     * able to be parsed
+     *
+     * @return the number of hands
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Finds the start of the first hand at or after the given offset
+     */
+    private long nextHand(FileChannel channel, long offset) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+        long position = offset - 1; // a hand starts after a new line
+        long size = channel.size();
+        while (position < size) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            byte[] bytes = chunk.array();
+            int newLine = indexOf(bytes, (byte) '\n', 0, read);
+            while (newLine >= 0 && newLine + 1 + HAND_START.length <= read) {
+                if (startsWith(bytes, newLine + 1, read, HAND_START)) {
+                    return position + newLine + 1;
+                }
+                newLine = indexOf(bytes, (byte) '\n', newLine + 1, read);
+            }
+            if (newLine > 0) {
+                position += newLine; // the line runs past the chunk, so read it again
+            } else if (newLine == 0 && position + read >= size) {
+                return size;
+            } else {
+                position += read;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Parses the hands starting within one region of a file
+     */
+    private class RegionParser {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final int table = log.newTable();
+        private final HandHistoryEncoder encoder = new HandHistoryEncoder();
+        private byte[] buf = new byte[bufferSize];
+
+        // the hand being parsed, names being offsets into buf
+        private int players;
+        private final int[] nameStart = new int[MAX_SEATS];
+        private final int[] nameLength = new int[MAX_SEATS];
+        private final int[] stacks = new int[MAX_SEATS];
+        private final int[] holes = new int[2 * MAX_SEATS];
+        private final int[] streetBets = new int[MAX_SEATS];
+        private final int[] board = new int[5];
+        private int boardSize;
+        private int[] eventKinds = new int[64]; // an Action's ordinal, or STREET
+        private int[] eventActors = new int[64];
+        private int[] eventAmounts = new int[64];
+        private int events;
+        private final int[] winners = new int[MAX_SEATS];
+        private int winnerCount;
+        private boolean cash;
+        private byte[][] tableNames = new byte[0][]; // the names last recorded for this table
+
+        RegionParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        void run() throws IOException {
+            long filePos = start; // the file offset of buf[0]
+            int filled = 0;
+            int scan = 0; // the start of the next line to look at
+            int handStart = -1;
+            boolean eof = false;
+            while (true) {
+                int read = channel.read(ByteBuffer.wrap(buf, filled, buf.length - filled), filePos + filled);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    filled += read;
+                }
+                if (filePos == 0 && scan == 0 && filled >= BOM.length && startsWith(buf, 0, filled, BOM)) {
+                    scan = BOM.length; // the byte order mark the files start with
+                }
+
+                while (scan < filled) {
+                    int newLine = indexOf(buf, (byte) '\n', scan, filled);
+                    if (newLine < 0 && !eof) {
+                        break; // the line is not all read yet
+                    }
+                    int lineEnd = newLine < 0 ? filled : newLine;
+                    if (startsWith(buf, scan, lineEnd, HAND_START)) {
+                        if (handStart >= 0) {
+                            parseHand(handStart, scan);
+                        }
+                        if (filePos + scan >= end) {
+                            return; // the next region's hand
+                        }
+                        handStart = scan;
+                    }
+                    scan = newLine < 0 ? filled : newLine + 1;
+                }
+
+                if (eof) {
+                    if (handStart >= 0) {
+                        parseHand(handStart, filled);
+                    }
+                    return;
+                }
+                int keep = handStart >= 0 ? handStart : scan;
+                if (keep == 0 && filled == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2); // one hand fills the whole buffer
+                } else {
+                    System.arraycopy(buf, keep, buf, 0, filled - keep);
+                    filled -= keep;
+                    filePos += keep;
+                    scan -= keep;
+                    if (handStart >= 0) {
+                        handStart -= keep;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Parses one hand from its header line up to the next hand and
+         * appends it to the log
+         */
+        private void parseHand(int from, int to) throws IOException {
+            players = 0;
+            boardSize = 0;
+            events = 0;
+            winnerCount = 0;
+            Arrays.fill(holes, HandHistoryEncoder.UNKNOWN_CARD);
+            Arrays.fill(streetBets, 0);
+            int pot = -1;
+            boolean summary = false;
+
+            int headerEnd = lineEnd(from, to);
+            int holdem = indexOf(buf, HOLDEM, from, headerEnd);
+            if (holdem < 0) {
+                skipped.incrementAndGet();
+                return;
+            }
+            cash = indexOf(buf, TOURNAMENT, from, headerEnd) < 0 && isCurrency(holdem, headerEnd);
+
+            for (int line = headerEnd + 1; line < to; line = lineEnd(line, to) + 1) {
+                int end = lineEnd(line, to);
+                if (end > line && buf[end - 1] == '\r') {
+                    end--;
+                }
+                if (summary) {
+                    if (startsWith(buf, line, end, TOTAL_POT)) {
+                        pot = parseAmount(line + TOTAL_POT.length, end);
+                    }
+                } else if (startsWith(buf, line, end, STARS)) {
+                    if (startsWith(buf, line, end, SUMMARY)) {
+                        summary = true;
+                    } else if (startsWith(buf, line, end, FLOP) && boardSize == 0) {
+                        dealStreet(indexOf(buf, (byte) '[', line, end), end, 3);
+                    } else if ((startsWith(buf, line, end, TURN) && boardSize == 3)
+                            || (startsWith(buf, line, end, RIVER) && boardSize == 4)) {
+                        dealStreet(lastIndexOf(buf, (byte) '[', line, end), end, 1);
+                    }
+                } else if (startsWith(buf, line, end, SEAT) && events == 0) {
+                    addSeat(line, end);
+                } else if (startsWith(buf, line, end, DEALT_TO)) {
+                    int player = findPlayer(line + DEALT_TO.length, end, (byte) ' ');
+                    if (player >= 0 && !parseHole(player, indexOf(buf, (byte) '[', line, end), end)) {
+                        skipped.incrementAndGet();
+                        return;
+                    }
+                } else {
+                    int player = findPlayer(line, end, (byte) ':');
+                    if (player >= 0) {
+                        if (!parseAction(player, line + nameLength[player] + 2, end)) {
+                            skipped.incrementAndGet();
+                            return;
+                        }
+                    } else if (startsWith(buf, line, end, UNCALLED)) {
+                        int returned = indexOf(buf, RETURNED_TO, line, end);
+                        if (returned > line) {
+                            returnBet(findPlayerEnding(returned + RETURNED_TO.length, end),
+                                    parseAmount(line + UNCALLED.length, returned));
+                        }
+                    } else {
+                        int collected = indexOf(buf, COLLECTED, line, end);
+                        if (collected > line) {
+                            addWinner(findPlayer(line, end, (byte) ' '));
+                        }
+                    }
+                }
+            }
+
+            if (players == 0 || pot < 0 || boardSize < 0) {
+                skipped.incrementAndGet();
+                return;
+            }
+            writeHand(pot);
+        }
+
+        /**
+         * Finds whether the blinds in the first brackets after the game's name
+         * are given in dollars, euros or pounds, rather than in chips
+         */
+        private boolean isCurrency(int from, int end) {
+            int open = indexOf(buf, (byte) '(', from, end);
+            int close = open < 0 ? -1 : indexOf(buf, (byte) ')', open, end);
+            return close > open && (indexOf(buf, (byte) '$', open, close) >= 0
+                    || indexOf(buf, (byte) 0xAC, open, close) >= 0
+                    || indexOf(buf, (byte) 0xA3, open, close) >= 0); // $, the end of a UTF-8 euro or pound sign
+        }
+
+        /**
+         * Takes a bet returned uncalled off the player's last action which put
+         * chips in
+         */
+        private void returnBet(int player, int amount) {
+            for (int i = events - 1; i >= 0 && player >= 0; i--) {
+                if (eventKinds[i] != HandHistoryEncoder.STREET && eventActors[i] == player && eventAmounts[i] > 0) {
+                    eventAmounts[i] -= Math.min(amount, eventAmounts[i]);
+                    streetBets[player] -= amount;
+                    return;
+                }
+            }
+        }
+
+        private void addSeat(int line, int end) {
+            int colon = indexOf(buf, (byte) ':', line, end);
+            int inChips = indexOf(buf, IN_CHIPS, line, end);
+            if (colon < 0 || inChips < 0 || players == MAX_SEATS) {
+                return;
+            }
+            int paren = lastIndexOf(buf, (byte) '(', colon, inChips);
+            if (paren < colon + 3) {
+                return;
+            }
+            nameStart[players] = colon + 2;
+            nameLength[players] = paren - 1 - nameStart[players];
+            stacks[players] = parseAmount(paren + 1, inChips);
+            players++;
+        }
+
+        /**
+         * Parses the action of a player, returning false if the hand cannot be
+         * imported
+         */
+        private boolean parseAction(int player, int verb, int end) {
+            boolean allIn = endsWith(buf, verb, end, ALL_IN);
+            int amountEnd = allIn ? end - ALL_IN.length : end;
+            if (startsWith(buf, verb, end, POSTS)) {
+                int amount = parseAmount(lastIndexOf(buf, (byte) ' ', verb, amountEnd) + 1, amountEnd);
+                if (!startsWith(buf, verb, end, ANTE)) {
+                    streetBets[player] += amount;
+                }
+                addEvent(allIn ? Action.ALL_IN : Action.BET, player, amount);
+            } else if (startsWith(buf, verb, end, FOLDS)) {
+                addEvent(Action.FOLD, player, 0);
+            } else if (startsWith(buf, verb, end, CHECKS)) {
+                addEvent(Action.CHECK, player, 0);
+            } else if (startsWith(buf, verb, end, CALLS)) {
+                int amount = parseAmount(verb + CALLS.length, amountEnd);
+                streetBets[player] += amount;
+                addEvent(allIn ? Action.ALL_IN : Action.CALL, player, amount);
+            } else if (startsWith(buf, verb, end, BETS)) {
+                int amount = parseAmount(verb + BETS.length, amountEnd);
+                streetBets[player] += amount;
+                addEvent(allIn ? Action.ALL_IN : Action.BET, player, amount);
+            } else if (startsWith(buf, verb, end, RAISES)) {
+                int to = indexOf(buf, TO, verb, amountEnd);
+                if (to < 0) {
+                    return false;
+                }
+                int total = parseAmount(to + TO.length, amountEnd);
+                addEvent(allIn ? Action.ALL_IN : Action.RAISE, player, total - streetBets[player]);
+                streetBets[player] = total;
+            } else if (startsWith(buf, verb, end, SHOWS)) {
+                return parseHole(player, verb + SHOWS.length - 1, end);
+            }
+            return true;
+        }
+
+        /**
+         * Reads a player's two hole cards from a list in brackets, returning
+         * false if there are not exactly two
+         */
+        private boolean parseHole(int player, int bracket, int end) {
+            if (bracket < 0 || bracket + 7 > end || buf[bracket + 6] != ']') {
+                return false;
+            }
+            int first = parseCard(bracket + 1);
+            int second = parseCard(bracket + 4);
+            if (first < 0 || second < 0) {
+                return false;
+            }
+            holes[2 * player] = first;
+            holes[2 * player + 1] = second;
+            return true;
+        }
+
+        /**
+         * Adds the given number of new board cards from a list in brackets
+         */
+        private void dealStreet(int bracket, int end, int count) {
+            if (bracket < 0 || bracket + 3 * count > end) {
+                boardSize = -1; // marks the hand as unreadable
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                int card = parseCard(bracket + 1 + 3 * i);
+                if (card < 0) {
+                    boardSize = -1;
+                    return;
+                }
+                board[boardSize + i] = card;
+            }
+            addEvent(null, boardSize, count);
+            boardSize += count;
+            Arrays.fill(streetBets, 0);
+        }
+
+        private void addWinner(int player) {
+            if (player < 0) {
+                return;
+            }
+            for (int i = 0; i < winnerCount; i++) {
+                if (winners[i] == player) {
+                    return;
+                }
+            }
+            winners[winnerCount++] = player;
+        }
+
+        /**
+         * Adds an action, or a street if the action is null with the index of
+         * its first card and the number of cards
+         */
+        private void addEvent(Action action, int actor, int amount) {
+            if (events == eventKinds.length) {
+                eventKinds = Arrays.copyOf(eventKinds, events * 2);
+                eventActors = Arrays.copyOf(eventActors, events * 2);
+                eventAmounts = Arrays.copyOf(eventAmounts, events * 2);
+            }
+            eventKinds[events] = action == null ? HandHistoryEncoder.STREET : action.ordinal();
+            eventActors[events] = actor;
+            eventAmounts[events] = amount;
+            events++;
+        }
+
+        private void writeHand(int pot) throws IOException {
+            if (!sameNames()) {
+                tableNames = new byte[players][];
+                String[] names = new String[players];
+                for (int i = 0; i < players; i++) {
+                    tableNames[i] = Arrays.copyOfRange(buf, nameStart[i], nameStart[i] + nameLength[i]);
+                    names[i] = new String(tableNames[i], StandardCharsets.UTF_8);
+                }
+                encoder.table(table, names);
+                log.append(encoder.buffer(), encoder.size());
+            }
+
+            int[] seats = new int[players];
+            for (int i = 0; i < players; i++) {
+                seats[i] = i;
+            }
+            encoder.beginHand(table, seats, Arrays.copyOf(stacks, players), Arrays.copyOf(holes, 2 * players));
+            Action[] actions = Action.values();
+            for (int i = 0; i < events; i++) {
+                if (eventKinds[i] == HandHistoryEncoder.STREET) {
+                    encoder.street(board, eventActors[i], eventAmounts[i]);
+                } else {
+                    encoder.action(eventActors[i], actions[eventKinds[i]], eventAmounts[i]);
+                }
+            }
+            encoder.endHand(pot, Arrays.copyOf(winners, winnerCount));
+            log.append(encoder.buffer(), encoder.size());
+            hands.incrementAndGet();
+        }
+
+        private boolean sameNames() {
+            if (tableNames.length != players) {
+                return false;
+            }
+            for (int i = 0; i < players; i++) {
+                if (tableNames[i].length != nameLength[i]
+                        || !startsWith(buf, nameStart[i], nameStart[i] + nameLength[i], tableNames[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Finds the seated player whose name starts the text and is followed
+         * by the given byte, the longest name if several match
+         */
+        /**
+         * Finds the player whose whole name is the rest of the line
+         */
+        private int findPlayerEnding(int from, int end) {
+            for (int p = 0; p < players; p++) {
+                if (nameLength[p] == end - from && regionMatches(buf, from, buf, nameStart[p], nameLength[p])) {
+                    return p;
+                }
+            }
+            return -1;
+        }
+
+        private int findPlayer(int from, int end, byte after) {
+            int found = -1;
+            for (int p = 0; p < players; p++) {
+                int nameEnd = from + nameLength[p];
+                if (nameEnd < end && buf[nameEnd] == after
+                        && (found < 0 || nameLength[p] > nameLength[found])
+                        && regionMatches(buf, from, buf, nameStart[p], nameLength[p])) {
+                    found = p;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Reads an amount such as $1,234.56 or 1500, in cents for a cash game
+         */
+        private int parseAmount(int from, int end) {
+            int i = from;
+            while (i < end && (buf[i] < '0' || buf[i] > '9')) {
+                i++;
+            }
+            long whole = 0;
+            for (; i < end && (buf[i] >= '0' && buf[i] <= '9' || buf[i] == ','); i++) {
+                if (buf[i] != ',') {
+                    whole = whole * 10 + buf[i] - '0';
+                }
+            }
+            int cents = 0;
+            if (i + 1 < end && buf[i] == '.' && buf[i + 1] >= '0' && buf[i + 1] <= '9') {
+                cents = (buf[i + 1] - '0') * 10;
+                if (i + 2 < end && buf[i + 2] >= '0' && buf[i + 2] <= '9') {
+                    cents += buf[i + 2] - '0';
+                }
+            }
+            return (int) (cash ? whole * 100 + cents : whole);
+        }
+
+        private int parseCard(int at) {
+            int rank = RANKS.indexOf(buf[at]);
+            int suit = SUITS.indexOf(buf[at + 1]);
+            return rank < 0 || suit < 0 ? -1 : suit * 13 + rank;
+        }
+
+        private int lineEnd(int from, int to) {
+            int newLine = indexOf(buf, (byte) '\n', from, to);
+            return newLine < 0 ? to : newLine;
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean startsWith(byte[] buf, int from, int end, byte[] prefix) {
+        return end - from >= prefix.length && regionMatches(buf, from, prefix, 0, prefix.length);
+    }
+
+    private static boolean endsWith(byte[] buf, int from, int end, byte[] suffix) {
+        return end - from >= suffix.length && regionMatches(buf, end - suffix.length, suffix, 0, suffix.length);
+    }
+
+    private static boolean regionMatches(byte[] a, int aFrom, byte[] b, int bFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aFrom + i] != b[bFrom + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] buf, byte value, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buf[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] buf, byte[] pattern, int from, int end) {
+        for (int i = from; i <= end - pattern.length; i++) {
+            if (buf[i] == pattern[0] && regionMatches(buf, i, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] buf, byte value, int from, int end) {
+        for (int i = end - 1; i >= from; i--) {
+            if (buf[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
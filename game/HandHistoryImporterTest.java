@@ -0,0 +1,173 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import cards.Card;
+import players.Action;
+
+public class HandHistoryImporterTest {
+	private static final String CASH = "PokerStars Hand #%d:  Hold'em No Limit ($0.50/$1.00 USD) - 2026/10/17 20:15:00 ET\r\n"
+			+ "Table 'Alcyone' 6-max Seat #1 is the button\r\n"
+			+ "Seat 1: Ann (100.00 in chips)\r\n"
+			+ "Seat 2: Bob Jr (54.25 in chips)\r\n"
+			+ "Seat 3: Bob (1,200 in chips)\r\n"
+			+ "Bob Jr: posts small blind $0.50\r\n"
+			+ "Bob: posts big blind $1\r\n"
+			+ "*** HOLE CARDS ***\r\n"
+			+ "Dealt to Ann [Ah Kd]\r\n"
+			+ "Ann: raises $2 to $3\r\n"
+			+ "Bob Jr: raises $51.25 to $54.25 and is all-in\r\n"
+			+ "Bob: folds\r\n"
+			+ "Ann: calls $51.25\r\n"
+			+ "*** FLOP *** [2c 7s Td]\r\n"
+			+ "*** TURN *** [2c 7s Td] [Qh]\r\n"
+			+ "*** RIVER *** [2c 7s Td Qh] [Jc]\r\n"
+			+ "*** SHOW DOWN ***\r\n"
+			+ "Bob Jr: shows [9s 8s] (a straight, Eight to Queen)\r\n"
+			+ "Ann: shows [Ah Kd] (a straight, Ten to Ace)\r\n"
+			+ "Ann collected $107.50 from pot\r\n"
+			+ "*** SUMMARY ***\r\n"
+			+ "Total pot $109.50 | Rake $2\r\n"
+			+ "Board [2c 7s Td Qh Jc]\r\n"
+			+ "Seat 1: Ann (button) showed [Ah Kd] and won ($107.50)\r\n"
+			+ "\r\n\r\n";
+	private static final String TOURNAMENT = "PokerStars Hand #%d: Tournament #1, $10+$1 USD Hold'em No Limit - Level I (10/20) - 2026/10/17 20:16:00 ET\n"
+			+ "Table '1 1' 9-max Seat #2 is the button\n"
+			+ "Seat 1: Cy (1500 in chips)\n"
+			+ "Seat 2: Di (1480 in chips)\n"
+			+ "Cy: posts the ante 5\n"
+			+ "Di: posts the ante 5\n"
+			+ "Di: posts small blind 10\n"
+			+ "Cy: posts big blind 20\n"
+			+ "*** HOLE CARDS ***\n"
+			+ "Di: calls 10\n"
+			+ "Cy: checks\n"
+			+ "*** FLOP *** [3h 3d 9c]\n"
+			+ "Cy: bets 40\n"
+			+ "Cy said, \"Seat 1: fold (1 in chips)\"\n"
+			+ "Di: folds\n"
+			+ "Uncalled bet (40) returned to Cy\n"
+			+ "Cy collected 50 from pot\n"
+			+ "*** SUMMARY ***\n"
+			+ "Total pot 50 | Rake 0\n"
+			+ "\n\n";
+	private static final String OMAHA = "PokerStars Hand #%d:  Omaha Pot Limit ($0.05/$0.10 USD) - 2026/10/17 20:17:00 ET\n"
+			+ "Seat 1: Ed ($10 in chips)\n"
+			+ "*** SUMMARY ***\n"
+			+ "Total pot $0.15 | Rake $0\n"
+			+ "\n\n";
+
+	// testing that the actions, cards and pots of each kind of hand are read
+	@Test
+	public void test_importHands() throws IOException {
+		Path file = write(3);
+		Path dir = Files.createTempDirectory("history");
+		HandHistoryImporter importer;
+		try (HandHistoryLog log = HandHistoryLog.open(dir)) {
+			importer = new HandHistoryImporter(log, new ForkJoinPool(1));
+			assertEquals(2, importer.importFile(file));
+		}
+		assertEquals(1, importer.getSkipped());
+
+		ArrayList<HandHistory> hands = new ArrayList<HandHistory>();
+		HandHistoryLog.replay(dir, hands::add);
+		HandHistory cash = hands.get(0);
+		assertEquals(3, cash.getPlayerCount());
+		assertEquals("Bob Jr", cash.getName(1));
+		assertEquals(5425, cash.getStack(1));
+		assertEquals(120000, cash.getStack(2));
+		assertEquals(Card.fromId(12), cash.getHole(0).get(0)); // Ace of Hearts
+		assertEquals(Card.fromId(6 + 13), cash.getHole(1).get(1)); // Eight of Spades
+		assertEquals(0, cash.getHole(2).size());
+		assertEquals(5, cash.getBoard().size());
+		assertEquals(Card.fromId(9 + 39), cash.getBoard().get(4)); // Jack of Clubs
+		assertEquals(10950, cash.getPot());
+		assertArrayEquals(new int[] { 0 }, cash.getWinners());
+
+		assertEquals(6, cash.getActionCount());
+		assertEquals(Action.pack(Action.RAISE, 300), cash.getMove(2));
+		assertEquals(Action.pack(Action.ALL_IN, 5375), cash.getMove(3));
+		assertEquals(1, cash.getActor(3));
+		assertEquals(Action.pack(Action.CALL, 5125), cash.getMove(5));
+		long chipsIn = 0;
+		for (int i = 0; i < cash.getActionCount(); i++) {
+			chipsIn += Action.amountOf(cash.getMove(i));
+		}
+		assertEquals("The chips of every action should add up to the total pot", cash.getPot(), chipsIn);
+
+		HandHistory tournament = hands.get(1);
+		assertEquals("Cy", tournament.getName(0));
+		assertEquals(1500, tournament.getStack(0));
+		assertEquals(8, tournament.getActionCount());
+		assertEquals(Action.pack(Action.BET, 0), tournament.getMove(6)); // the 40 bet was returned uncalled
+		assertEquals(1, tournament.getStreet(6));
+		assertEquals(Action.FOLD, Action.actionOf(tournament.getMove(7)));
+		assertEquals(3, tournament.getBoard().size());
+		assertEquals(50, tournament.getPot());
+		chipsIn = 0;
+		for (int i = 0; i < tournament.getActionCount(); i++) {
+			chipsIn += Action.amountOf(tournament.getMove(i));
+		}
+		assertEquals("The chips of every action less the bet returned should add up to the pot", tournament.getPot(), chipsIn);
+		assertArrayEquals(new int[] { 0 }, tournament.getWinners());
+	}
+
+	// testing that a file split between threads reads the same as one read whole
+	@Test
+	public void test_splitRegions() throws IOException {
+		Path file = write(9000);
+		assertTrue(Files.size(file) > 3 << 20);
+
+		Path whole = Files.createTempDirectory("history");
+		try (HandHistoryLog log = HandHistoryLog.open(whole)) {
+			new HandHistoryImporter(log, new ForkJoinPool(1), 512).importFile(file); // grows and compacts often
+		}
+		Path split = Files.createTempDirectory("history");
+		HandHistoryImporter importer;
+		try (HandHistoryLog log = HandHistoryLog.open(split)) {
+			importer = new HandHistoryImporter(log, new ForkJoinPool(3));
+			importer.importFile(file);
+		}
+		assertEquals(6000, importer.getHands());
+		assertEquals(3000, importer.getSkipped());
+
+		ArrayList<String> wholeHands = summarize(whole);
+		ArrayList<String> splitHands = summarize(split);
+		assertEquals(6000, wholeHands.size());
+		assertEquals(wholeHands, splitHands);
+	}
+
+	private static Path write(int count) throws IOException {
+		StringBuilder text = new StringBuilder("\uFEFF");
+		String[] kinds = { CASH, TOURNAMENT, OMAHA };
+		for (int i = 0; i < count; i++) {
+			text.append(String.format(kinds[i % 3], 1000 + i));
+		}
+		Path file = Files.createTempFile("hands", ".txt");
+		Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static ArrayList<String> summarize(Path dir) throws IOException {
+		ArrayList<String> hands = new ArrayList<String>();
+		HandHistoryLog.replay(dir, hand -> {
+			StringBuilder summary = new StringBuilder(hand.getName(0) + hand.getPot() + hand.getBoard());
+			for (int i = 0; i < hand.getActionCount(); i++) {
+				summary.append(hand.getActor(i)).append(hand.getMove(i));
+			}
+			hands.add(summary.toString());
+		});
+		Collections.sort(hands);
+		return hands;
+	}
+}
@@ -0,0 +1,298 @@
+package game;
+
+/**
+ * An append-only log of played hands kept in a directory of memory-mapped
+ * segment files. Records from HandHistoryEncoder are copied straight into the
+ * mapped segment, so appending a hand is a short copy with no system call;
+ * the operating system writes the pages out in the background. When a segment
+ * is full the log rolls over to a new one and hands the full one to a
+ * background thread, which forces it to the disk and lets its mapping go, so
+ * no table waits on the disk at a rollover and a long run does not keep every
+ * segment it filled mapped. Only force and close wait for the segments to
+ * reach the disk.
+ *
+ * Each segment is named hands-NNNNNN.hhl and starts with a 16 byte header of
+ * a magic number, the version and the segment's number, followed by records
+ * each prefixed with their length as a varint. The unused end of a segment is
+ * left as zeros, so a zero length marks the end of its records. Opening an
+ * existing log carries on after its last record.
+ *
+ * The log may be shared by every table of a MultiTableRunner, each table
+ * encoding its own hands and only appending finished records.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class HandHistoryLog implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    static final int MAGIC = 0x48484C47; // "HHLG"
+    static final int VERSION = 1;
+    static final int HEADER = 16;
+
+    private final Path dir;
+    private final int segmentSize;
+    private int segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private final ExecutorService forcer = Executors.newSingleThreadExecutor(task -> { // forces full segments
+        Thread thread = new Thread(task, "hand history");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long records;
+    private int tables; // table numbers handed out since the log was opened
+
+    private HandHistoryLog(Path dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens the log in the given directory with the default segment size,
+     * creating it if needed
+     *
+     * @param dir the directory of the segments
+     * @return the log
+     * @throws IOException if a segment cannot be opened or is not part of a log
+     */
+    public static HandHistoryLog open(Path dir) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if needed
+     *
+     * @param dir         the directory of the segments
+     * @param segmentSize the size of each new segment in bytes
+     * @return the log
+     * @throws IOException if a segment cannot be opened or is not part of a log
+     */
+    public static HandHistoryLog open(Path dir, int segmentSize) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("A segment must be at least 1024 bytes");
+        }
+        Files.createDirectories(dir);
+        HandHistoryLog log = new HandHistoryLog(dir, segmentSize);
+        ArrayList<Path> segments = segments(dir);
+        if (segments.isEmpty()) {
+            log.newSegment(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            log.channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log.segment = log.channel.map(FileChannel.MapMode.READ_WRITE, 0, log.channel.size());
+            checkHeader(log.segment, last);
+            log.segmentNumber = log.segment.getInt(8);
+            while (log.segment.hasRemaining()) { // finds the end of the last record
+                int start = log.segment.position();
+                int length = log.segment.get(start) == 0 ? 0 : HandHistory.getVarint(log.segment);
+                if (length == 0 || length > log.segment.remaining()) {
+                    log.segment.position(start);
+                    break;
+                }
+                log.segment.position(log.segment.position() + length);
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Appends one record, rolling over to a new segment if it does not fit
+     *
+     * @param record the buffer holding the record
+     * @param length the length of the record
+     * @throws IOException if a new segment cannot be created
+     */
+    public synchronized void append(byte[] record, int length) throws IOException {
+        int needed = varintSize(length) + length;
+        if (needed > segmentSize - HEADER) {
+            throw new IllegalArgumentException("A record of " + length + " bytes does not fit in a segment");
+        }
+        if (segment == null) {
+            throw new IllegalStateException("The hand history log has been closed");
+        }
+        if (needed > segment.remaining()) {
+            newSegment(segmentNumber + 1);
+        }
+        int value = length;
+        while ((value & ~0x7F) != 0) {
+            segment.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        segment.put((byte) value);
+        segment.put(record, 0, length);
+        records++;
+    }
+
+    /**
+     * Hands out a table number for a recorder, unique among the tables
+     * recording to this log since it was opened. Numbers from an earlier run
+     * are reused once their tables are named again.
+     *
+     * @return the table number
+     */
+    public synchronized int newTable() {
+        return tables++;
+    }
+
+    /**
+     * Gets the number of records appended since the log was opened
+     *
+     * @return the number of records
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Writes the pages of every full segment, and of the current segment, out
+     * to the disk. The tables carry on appending while the pages are written.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = segment;
+        }
+        if (current == null) {
+            return; // closing forced every segment
+        }
+        try {
+            forcer.submit(() -> {}).get(); // waits for the full segments handed off before it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // the wait cannot fail but for the log being closed, which forces every segment
+        }
+        current.force();
+    }
+
+    /**
+     * Writes every segment out and closes the current one
+     *
+     * @throws IOException if the segment cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            forcer.shutdown();
+            try {
+                while (!forcer.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // waits for the full segments to be forced
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            segment.force();
+            segment = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads back every hand in the log in the given directory, in the order
+     * they were appended
+     *
+     * @param dir      the directory of the segments
+     * @param consumer is given each hand
+     * @return the number of hands read
+     * @throws IOException if a segment cannot be read or is not part of a log
+     */
+    public static long replay(Path dir, Consumer<HandHistory> consumer) throws IOException {
+        long hands = 0;
+        HashMap<Integer, String[]> tables = new HashMap<Integer, String[]>();
+        for (Path path : segments(dir)) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                checkHeader(data, path);
+                while (data.hasRemaining() && data.get(data.position()) != 0) {
+                    int length = HandHistory.getVarint(data);
+                    if (length > data.remaining()) {
+                        break; // cut short by a crash while appending
+                    }
+                    ByteBuffer record = data.slice();
+                    record.limit(length);
+                    data.position(data.position() + length);
+
+                    int tag = record.get();
+                    int table = HandHistory.getVarint(record);
+                    if (tag == HandHistoryEncoder.TABLE) {
+                        tables.put(table, HandHistory.decodeTable(record));
+                    } else if (tag == HandHistoryEncoder.HAND) {
+                        consumer.accept(HandHistory.decode(record, table, tables.get(table)));
+                        hands++;
+                    }
+                }
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Lists the segment files of a log in order
+     */
+    private static ArrayList<Path> segments(Path dir) throws IOException {
+        ArrayList<Path> segments = new ArrayList<Path>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "hands-*.hhl")) {
+                for (Path file : files) {
+                    segments.add(file);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static void checkHeader(ByteBuffer data, Path path) throws IOException {
+        if (data.remaining() < HEADER || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException(path + " is not a hand history segment");
+        }
+        data.position(HEADER);
+    }
+
+    /**
+     * Closes the current segment and maps a new one of the full segment size.
+     * The full segment is forced by the background thread, which then drops
+     * the last reference to it, so its mapping can be let go.
+     */
+    private void newSegment(int number) throws IOException {
+        if (channel != null) {
+            MappedByteBuffer full = segment;
+            forcer.execute(full::force);
+            channel.close();
+        }
+        segmentNumber = number;
+        channel = FileChannel.open(dir.resolve(String.format("hands-%06d.hhl", number)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(MAGIC);
+        segment.putInt(VERSION);
+        segment.putInt(number);
+        segment.position(HEADER);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
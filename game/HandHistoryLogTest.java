@@ -0,0 +1,78 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import cards.Card;
+import cards.RandomSource;
+import players.Action;
+
+public class HandHistoryLogTest {
+	// testing that every hand of several tables is read back whole across segments
+	@Test
+	public void test_recordAndReplay() throws IOException {
+		Path dir = Files.createTempDirectory("history");
+		MultiTableRunner runner = new MultiTableRunner(6, 1000, RandomSource.seeded(9), new ForkJoinPool(2));
+		try (HandHistoryLog log = HandHistoryLog.open(dir, 4096)) {
+			runner.setHistory(log);
+			runner.run(3, 300);
+			log.force();
+			log.close();
+			log.force(); // a closed log has nothing left to force
+		}
+		assertTrue("The log should roll over to new segments", Files.list(dir).count() > 1);
+
+		int[] tables = new int[3];
+		long hands = HandHistoryLog.replay(dir, hand -> {
+			tables[hand.getTable()]++;
+			assertEquals(2, hand.getHole(hand.getPlayerCount() - 1).size());
+			assertEquals(5, hand.getBoard().size());
+			assertTrue(hand.getName(0).length() > 0);
+
+			long chipsIn = 0;
+			for (int i = 0; i < hand.getActionCount(); i++) {
+				chipsIn += Action.amountOf(hand.getMove(i));
+				assertTrue(hand.getStreet(i) <= 3);
+			}
+			assertEquals("The chips of every action should add up to the pot", hand.getPot(), chipsIn);
+			assertTrue(hand.getWinners().length > 0);
+		});
+		assertEquals(900, hands);
+		assertArrayEquals(new int[] { 300, 300, 300 }, tables);
+	}
+
+	// testing that a reopened log carries on after its last record
+	@Test
+	public void test_reopen() throws IOException {
+		Path dir = Files.createTempDirectory("history");
+		HandHistoryEncoder encoder = new HandHistoryEncoder();
+		for (int run = 0; run < 2; run++) {
+			try (HandHistoryLog log = HandHistoryLog.open(dir)) {
+				encoder.table(log.newTable(), new String[] { "Ann", "Bob" });
+				log.append(encoder.buffer(), encoder.size());
+				encoder.beginHand(0, new int[] { 0, 1 }, new int[] { 1000, 800 + run }, new int[] { 51, 50, 0, 13 });
+				encoder.action(0, Action.BET, 25);
+				encoder.action(1, Action.FOLD, 0);
+				encoder.endHand(25, new int[] { 0 });
+				log.append(encoder.buffer(), encoder.size());
+			}
+		}
+
+		int[] seen = new int[1];
+		long hands = HandHistoryLog.replay(dir, hand -> {
+			assertEquals("Bob", hand.getName(1));
+			assertEquals(800 + seen[0]++, hand.getStack(1));
+			assertEquals(Card.fromId(51), hand.getHole(0).get(0));
+			assertEquals(Action.FOLD, Action.actionOf(hand.getMove(1)));
+			assertEquals(0, hand.getBoard().size());
+		});
+		assertEquals(2, hands);
+		assertEquals(1, Files.list(dir).count());
+	}
+}
@@ -0,0 +1,115 @@
+package game;
+
+/**
+ * A GameEventListener that writes every hand of one table to a
+ * HandHistoryLog. The hand is encoded into the recorder's own buffer as it is
+ * played and appended to the log in one piece once the pots are won, so a
+ * table only touches the shared log once per hand. A new table record is
+ * written whenever the players dealt in are not all seated at the table last
+ * recorded, such as when the Simulator seats a new game.
+ *
+ * Each table needs its own recorder, as a recorder follows one hand at a time.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+
+import cards.Card;
+import players.Action;
+import players.Player;
+
+public class HandRecorder implements GameEventListener {
+
+    private final HandHistoryLog log;
+    private final int tableId;
+    private final HandHistoryEncoder encoder = new HandHistoryEncoder();
+    private final ArrayList<Player> table = new ArrayList<Player>();
+    private final ArrayList<Player> hand = new ArrayList<Player>();
+    private final int[] board = new int[5];
+    private int boardSize;
+    private boolean inHand;
+
+    /**
+     * Creates a recorder for one table
+     *
+     * @param log the log the table's hands are appended to
+     */
+    public HandRecorder(HandHistoryLog log) {
+        this.log = log;
+        tableId = log.newTable();
+    }
+
+    @Override
+    public void handStarted(ArrayList<Player> players) {
+        if (!table.containsAll(players)) {
+            table.clear();
+            table.addAll(players);
+            String[] names = new String[table.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = table.get(i).getName();
+            }
+            encoder.table(tableId, names);
+            append();
+        }
+
+        hand.clear();
+        hand.addAll(players);
+        int[] seats = new int[hand.size()];
+        int[] stacks = new int[hand.size()];
+        int[] holes = new int[2 * hand.size()];
+        for (int i = 0; i < seats.length; i++) {
+            Player player = hand.get(i);
+            seats[i] = table.indexOf(player);
+            stacks[i] = player.getStack();
+            holes[2 * i] = player.getHole().get(0).id();
+            holes[2 * i + 1] = player.getHole().get(1).id();
+        }
+        encoder.beginHand(tableId, seats, stacks, holes);
+        boardSize = 0;
+        inHand = true;
+    }
+
+    @Override
+    public void streetDealt(int round, ArrayList<Card> shown) {
+        if (!inHand || shown.size() <= boardSize || shown.size() > board.length) {
+            return;
+        }
+        int from = boardSize;
+        for (int i = from; i < shown.size(); i++) {
+            board[i] = shown.get(i).id();
+        }
+        boardSize = shown.size();
+        encoder.street(board, from, boardSize - from);
+    }
+
+    @Override
+    public void playerActed(Player player, Action action, int amount) {
+        int index = hand.indexOf(player);
+        if (inHand && index >= 0) {
+            encoder.action(index, action, amount);
+        }
+    }
+
+    @Override
+    public void potsSettled(ArrayList<Player> winners, int pot) {
+        if (!inHand) {
+            return;
+        }
+        int[] indexes = new int[winners.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = hand.indexOf(winners.get(i));
+        }
+        encoder.endHand(pot, indexes);
+        append();
+        inHand = false;
+    }
+
+    private void append() {
+        try {
+            log.append(encoder.buffer(), encoder.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package game;
+
+/**
+ * Plays many independent AI tables at the same time, each table a Simulator
+ * run as a task on a work-stealing ForkJoinPool so the work spreads over
+ * every core. Each table has its own Game, players and random stream split
+ * from the runner's source, so a seeded run gives the same results however
+ * the tables are scheduled. The stats of all tables are merged at the end.
+ * The tables do not run on virtual threads, which only arrived in Java 21,
+ * as the project supports JDKs from 1.8. Each table is CPU-bound and never
+ * blocks, so the pool's platform threads lose nothing.
+ *
+ * Run from the command line with the optional number of tables, hands per
+ * table, seats, stack, seed, threads and a directory to keep the history of
+ * the measured hands in:
+ *
+ * java game.MultiTableRunner [tables] [hands] [seats] [stack] [seed] [threads] [history]
+ */
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import cards.RandomSource;
+
+public class MultiTableRunner {
+
+    private final int seats;
+    private final int stackAmt;
+    private final RandomSource random;
+    private final ForkJoinPool pool;
+    private HandHistoryLog history;
+
+    /**
+     * Creates a runner for tables of the given size
+     *
+     * @param seats    the number of AI players at each table
+     * @param stackAmt the starting stack of each player
+     * @param random   the source every table is seeded from
+     * @param pool     the pool the tables are played on
+     */
+    public MultiTableRunner(int seats, int stackAmt, RandomSource random, ForkJoinPool pool) {
+        this.seats = seats;
+        this.stackAmt = stackAmt;
+        this.random = random;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long hands = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int seats = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int stack = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        RandomSource random = args.length > 4 ? RandomSource.seeded(Long.parseLong(args[4]))
+                : RandomSource.threadLocal();
+        ForkJoinPool pool = args.length > 5 ? new ForkJoinPool(Integer.parseInt(args[5])) : ForkJoinPool.commonPool();
+
+        MultiTableRunner runner = new MultiTableRunner(seats, stack, random, pool);
+        runner.run(pool.getParallelism(), Math.min(hands, 10000)); // warm up
+        System.out.printf("%d tables on %d threads%n", tables, pool.getParallelism());
+        if (args.length > 6) {
+            try (HandHistoryLog log = HandHistoryLog.open(Paths.get(args[6]))) {
+                runner.setHistory(log);
+                System.out.print(runner.run(tables, hands));
+                System.out.printf("%,d records logged%n", log.getRecords());
+            }
+        } else {
+            System.out.print(runner.run(tables, hands));
+        }
+    }
+
+    /**
+     * Sets the log every hand played from now on is recorded to, each table
+     * with its own HandRecorder, or null to record nothing
+     *
+     * @param log the hand history log
+     */
+    public void setHistory(HandHistoryLog log) {
+        history = log;
+    }
+
+    /**
+     * Plays the given number of hands at each of the given number of tables
+     *
+     * @param tables        the number of tables
+     * @param handsPerTable the number of hands each table plays
+     * @return the merged stats of every table
+     */
+    public SimulationStats run(int tables, long handsPerTable) {
+        ArrayList<ForkJoinTask<SimulationStats>> tasks = new ArrayList<ForkJoinTask<SimulationStats>>(tables);
+        for (int t = 0; t < tables; t++) {
+            Simulator table = new Simulator(seats, stackAmt, random.split());
+            if (history != null) {
+                table.setListener(new HandRecorder(history));
+            }
+            tasks.add(ForkJoinTask.adapt(() -> table.run(handsPerTable)));
+        }
+
+        long start = System.nanoTime();
+        for (ForkJoinTask<SimulationStats> task : tasks) {
+            pool.execute(task);
+        }
+        SimulationStats stats = new SimulationStats();
+        for (ForkJoinTask<SimulationStats> task : tasks) {
+            stats.merge(task.join());
+        }
+        stats.setWallNanos(System.nanoTime() - start);
+        return stats;
+    }
+}
@@ -0,0 +1,241 @@
+package game;
+
+/**
+ * Keeps each player's contribution to the pot over a whole hand and splits
+ * the chips into a main pot and side pots at the showdown. A player who goes
+ * all in for less than the others can only win the chips matched by their
+ * own contribution, and a folded player's chips stay in the pots without
+ * them being able to win any.
+ *
+ * The contributions are sorted once, so the pots are layered in O(n log n):
+ * every distinct contribution level starts a new layer, and a layer whose
+ * eligible players are the same as the layer below is merged into it.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+import players.Player;
+
+public class PotManager {
+
+    private final ArrayList<Player> contributors = new ArrayList<Player>();
+    private int[] amounts = new int[10];
+    private boolean[] folded = new boolean[10];
+    private int total;
+
+    /**
+     * A pot of chips and the players who can win it
+     */
+    public static class Pot {
+        private int amount;
+        private final ArrayList<Player> eligible;
+
+        Pot(int amount, ArrayList<Player> eligible) {
+            this.amount = amount;
+            this.eligible = eligible;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public ArrayList<Player> getEligible() {
+            return eligible;
+        }
+    }
+
+    /**
+     * Adds chips a player has put in to their contribution
+     *
+     * @param player the player
+     * @param amount the chips put in
+     */
+    public void add(Player player, int amount) {
+        int index = indexOf(player);
+        amounts[index] += amount;
+        total += amount;
+    }
+
+    /**
+     * Marks a player as folded, so their chips stay in the pots but they cannot
+     * win any of them
+     *
+     * @param player the player who folded
+     */
+    public void fold(Player player) {
+        folded[indexOf(player)] = true;
+    }
+
+    /**
+     * Empties the pots for a new hand
+     */
+    public void clear() {
+        for (int i = 0; i < contributors.size(); i++) {
+            amounts[i] = 0;
+            folded[i] = false;
+        }
+        contributors.clear();
+        total = 0;
+    }
+
+    /**
+     * Gets the chips in every pot together
+     *
+     * @return the total of the pots
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets a player's contribution this hand
+     *
+     * @param player the player
+     * @return the chips they have put in, 0 if none
+     */
+    public int getContribution(Player player) {
+        int index = contributors.indexOf(player);
+        return index < 0 ? 0 : amounts[index];
+    }
+
+    /**
+     * Gets every player who has put chips in this hand, in the order they
+     * first did
+     *
+     * @return the contributors
+     */
+    ArrayList<Player> getContributors() {
+        return contributors;
+    }
+
+    /**
+     * Whether a player has folded this hand
+     *
+     * @param player the player
+     * @return true if they put chips in and then folded
+     */
+    boolean isFolded(Player player) {
+        int index = contributors.indexOf(player);
+        return index >= 0 && folded[index];
+    }
+
+    /**
+     * Layers the contributions into the main pot followed by each side pot.
+     * Chips above the highest contribution of any player still in the hand,
+     * such as those of a player who bet and then folded, join the last pot.
+     *
+     * @return the pots, the main pot first
+     */
+    public ArrayList<Pot> getPots() {
+        int n = contributors.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> amounts[i]));
+
+        ArrayList<Pot> pots = new ArrayList<Pot>();
+        int live = 0; // players still in the hand from order[i] on
+        for (int i = 0; i < n; i++) {
+            if (!folded[order[i]]) {
+                live++;
+            }
+        }
+
+        int level = 0;
+        for (int i = 0; i < n; i++) {
+            int index = order[i];
+            int layer = (amounts[index] - level) * (n - i);
+            level = amounts[index];
+            Pot last = pots.isEmpty() ? null : pots.get(pots.size() - 1);
+            if (layer > 0) {
+                if (last != null && (last.eligible.size() == live || live == 0)) {
+                    last.amount += layer;
+                } else {
+                    ArrayList<Player> eligible = new ArrayList<Player>(live);
+                    for (int j = i; j < n; j++) {
+                        if (!folded[order[j]]) {
+                            eligible.add(contributors.get(order[j]));
+                        }
+                    }
+                    pots.add(new Pot(layer, eligible));
+                }
+            }
+            if (!folded[index]) {
+                live--;
+            }
+        }
+        return pots;
+    }
+
+    /**
+     * Awards every pot to the eligible players holding the strongest hand, an
+     * even split between tied players with the odd chips going to the first of
+     * them. A pot with none of its eligible players remaining, which only
+     * happens when those still in the hand put nothing in, is contested by
+     * every remaining player.
+     *
+     * @param remaining the players still in the hand, in seat order
+     * @param strength  gives the strength of a player's hand
+     * @return every player who won chips, the winners of the main pot first
+     */
+    public ArrayList<Player> settle(ArrayList<Player> remaining, ToIntFunction<Player> strength) {
+        ArrayList<Player> winners = new ArrayList<Player>();
+        for (Pot pot : getPots()) {
+            ArrayList<Player> contenders = new ArrayList<Player>();
+            for (Player player : remaining) { // seat order decides who gets the odd chips
+                if (pot.eligible.contains(player)) {
+                    contenders.add(player);
+                }
+            }
+            if (contenders.isEmpty()) {
+                contenders = remaining;
+            }
+
+            ArrayList<Player> potWinners = new ArrayList<Player>();
+            int highestStrength = -1;
+            for (Player player : contenders) {
+                int handStrength = strength.applyAsInt(player);
+                if (handStrength > highestStrength) {
+                    highestStrength = handStrength;
+                    potWinners.clear();
+                    potWinners.add(player);
+                } else if (handStrength == highestStrength) {
+                    potWinners.add(player);
+                }
+            }
+            if (potWinners.isEmpty()) {
+                continue;
+            }
+
+            int share = pot.amount / potWinners.size();
+            int oddChips = pot.amount % potWinners.size();
+            for (Player player : potWinners) {
+                player.setStack(player.getStack() + share + (oddChips-- > 0 ? 1 : 0));
+                if (!winners.contains(player)) {
+                    winners.add(player);
+                }
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Finds a player's place in the contributions, adding them if new
+     */
+    private int indexOf(Player player) {
+        int index = contributors.indexOf(player);
+        if (index < 0) {
+            index = contributors.size();
+            contributors.add(player);
+            if (index == amounts.length) {
+                amounts = Arrays.copyOf(amounts, index * 2);
+                folded = Arrays.copyOf(folded, index * 2);
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,106 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import cards.RandomSource;
+import players.Human;
+import players.Player;
+
+public class PotManagerTest {
+	// testing that a short all-in only wins the main pot and folded chips stay in
+	@Test
+	public void test_sidePots() {
+		Human a = new Human("A", 0);
+		Human b = new Human("B", 0);
+		Human c = new Human("C", 0);
+		Human d = new Human("D", 0);
+		PotManager pots = new PotManager();
+		pots.add(d, 50);
+		pots.fold(d);
+		pots.add(a, 100);
+		pots.add(b, 300);
+		pots.add(c, 100);
+		pots.add(c, 200);
+
+		ArrayList<PotManager.Pot> layered = pots.getPots();
+		assertEquals(750, pots.getTotal());
+		assertEquals(2, layered.size());
+		assertEquals(350, layered.get(0).getAmount());
+		assertEquals(Arrays.asList(a, b, c), sorted(layered.get(0).getEligible()));
+		assertEquals(400, layered.get(1).getAmount());
+		assertEquals(Arrays.asList(b, c), sorted(layered.get(1).getEligible()));
+
+		ArrayList<Player> winners = pots.settle(new ArrayList<Player>(Arrays.asList(a, b, c)),
+				player -> player == a ? 3 : player == b ? 2 : 1);
+		assertEquals(Arrays.asList(a, b), winners);
+		assertEquals(350, a.getStack());
+		assertEquals(400, b.getStack());
+		assertEquals(0, c.getStack());
+	}
+
+	// testing that a tied pot is split with the odd chips going to the first in seat order
+	@Test
+	public void test_splitOddChips() {
+		Human a = new Human("A", 0);
+		Human b = new Human("B", 0);
+		Human c = new Human("C", 0);
+		PotManager pots = new PotManager();
+		pots.add(a, 101);
+		pots.add(b, 101);
+		pots.add(c, 100);
+		pots.fold(c);
+
+		pots.settle(new ArrayList<Player>(Arrays.asList(a, b)), player -> 5);
+		assertEquals(151, a.getStack());
+		assertEquals(151, b.getStack());
+	}
+
+	// testing that chips above every remaining player's contribution are still won
+	@Test
+	public void test_deadChips() {
+		Human a = new Human("A", 0);
+		Human b = new Human("B", 0);
+		Human c = new Human("C", 0);
+		PotManager pots = new PotManager();
+		pots.add(a, 100);
+		pots.add(b, 250);
+		pots.fold(b);
+
+		assertEquals(1, pots.getPots().size());
+		pots.settle(new ArrayList<Player>(Arrays.asList(a)), player -> 0);
+		assertEquals(350, a.getStack());
+
+		pots.clear();
+		pots.add(b, 40);
+		pots.fold(b);
+		pots.settle(new ArrayList<Player>(Arrays.asList(c)), player -> 0);
+		assertEquals("A player who put nothing in wins the chips of those who folded", 40, c.getStack());
+		assertEquals(0, pots.getContribution(a));
+	}
+
+	// testing that a game closes its betting once only one player can still bet
+	@Test
+	public void test_runOut() {
+		Game game = new Game(RandomSource.seeded(3));
+		game.generateAIPlayers(3, 1000);
+		game.setupRound();
+		assertTrue(game.isBettingOpen());
+
+		game.getPlayerList().get(0).setStack(0);
+		game.getPlayerList().get(1).setStack(0);
+		assertFalse(game.isBettingOpen());
+		game.runOut();
+		assertEquals(4, game.getRound());
+	}
+
+	private static ArrayList<Player> sorted(ArrayList<Player> players) {
+		ArrayList<Player> names = new ArrayList<Player>(players);
+		names.sort((x, y) -> x.getName().compareTo(y.getName()));
+		return names;
+	}
+}
@@ -1,11 +1,31 @@
 package game;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
 
+import cards.RandomSource;
 import players.Player;
 
 /**
  * Saves All names and their stacks in a file.
+ * 
+ * A whole game can also be saved, mid hand or not, to one binary file: a
+ * header of a magic number, the format version, the length and a CRC32 of
+ * the body, then the body written by the Game itself. The file is written
+ * beside the old save and renamed over it, so a crash while saving leaves
+ * the last save whole, and it is loaded with a single mapped read.
+ * 
  * @author Kyle Wen
  * @version April 11, 2019
  */
@@ -15,6 +35,11 @@ public class SaveIO {
 	private ArrayList<Integer> stacks = new ArrayList<Integer>();
 	private int smallBlind;	
 	
+	public static final Path GAME_FILE = Paths.get("Save.dat");
+	private static final int MAGIC = 0x54485347; // "THSG"
+	private static final short VERSION = 2; // 2 added the number of transitions, for the GameJournal
+	private static final int HEADER = 14; // magic, version, body length and CRC
+	
 	/**
 	 * pre: none
 	 * post: The players' names and their stack values are saved to a .txt file.
@@ -102,6 +127,147 @@ public class SaveIO {
 		return nGame;
 	}
 	
+	/**
+	 * pre: none
+	 * post: The whole game has been saved to Save.dat.
+	 * 
+	 * @param game the game to save
+	 * @throws IOException if the save could not be written
+	 */
+	public void saveGame(Game game) throws IOException {
+		saveGame(game, GAME_FILE);
+	}
+	
+	/**
+	 * pre: none
+	 * post: The whole game has been saved to the file, replacing any earlier
+	 * save only once the new one is on disk.
+	 * 
+	 * @param game the game to save
+	 * @param file the save file
+	 * @throws IOException if the save could not be written
+	 */
+	public void saveGame(Game game, Path file) throws IOException {
+		saveSnapshot(game.snapshot(), file);
+	}
+	
+	/**
+	 * pre: none
+	 * post: The game has been copied out and is saved to the file on the
+	 * executor, so the game may carry on while it is written.
+	 * 
+	 * @param game the game to save
+	 * @param file the save file
+	 * @param executor runs the save
+	 * @return completes once the game is saved, or exceptionally with an
+	 * UncheckedIOException if it could not be
+	 */
+	public CompletableFuture<Void> saveGame(Game game, Path file, Executor executor) {
+		ByteBuffer state = game.snapshot();
+		return CompletableFuture.runAsync(() -> {
+			try {
+				saveSnapshot(state, file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, executor);
+	}
+	
+	/**
+	 * pre: The snapshot was taken from a game.
+	 * post: The snapshot has been saved to the file, so it can be written
+	 * away from the thread the game is played on.
+	 * 
+	 * @param body the game's state from Game.snapshot
+	 * @param file the save file
+	 * @throws IOException if the save could not be written
+	 */
+	void saveSnapshot(ByteBuffer body, Path file) throws IOException {
+		body = body.duplicate();
+		CRC32 crc = new CRC32();
+		crc.update(body.duplicate());
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		header.putInt(MAGIC).putShort(VERSION).putInt(body.remaining()).putInt((int) crc.getValue());
+		header.flip();
+		writeAtomically(file, header, body);
+	}
+	
+	/**
+	 * pre: none
+	 * post: The buffers have been written to a file beside the given one,
+	 * forced to disk and renamed over it, so the file is either the old one
+	 * or the new one whole.
+	 * 
+	 * @param file the file to replace
+	 * @param buffers the new contents
+	 * @throws IOException if the file could not be written
+	 */
+	static void writeAtomically(Path file, ByteBuffer... buffers) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffers[buffers.length - 1].hasRemaining()) {
+				out.write(buffers);
+			}
+			out.force(true);
+		}
+		try {
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * pre: A game has been saved to Save.dat.
+	 * post: The game has been rebuilt as it was saved and returned.
+	 * 
+	 * @return the game
+	 * @throws IOException if the save could not be read or is corrupt
+	 */
+	public Game loadGame() throws IOException {
+		return loadGame(GAME_FILE, RandomSource.threadLocal());
+	}
+	
+	/**
+	 * pre: A game has been saved to the file.
+	 * post: The game has been rebuilt as it was saved and returned, its AI
+	 * players and later shuffles drawing from the given source.
+	 * 
+	 * @param file the save file
+	 * @param random the source of the game's randomness from now on
+	 * @return the game
+	 * @throws IOException if the save could not be read or is corrupt
+	 */
+	public Game loadGame(Path file, RandomSource random) throws IOException {
+		MappedByteBuffer save;
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			save = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+		}
+		if (save.remaining() < HEADER || save.getInt() != MAGIC) {
+			throw new IOException(file + " is not a saved game");
+		}
+		short version = save.getShort();
+		if (version < 1 || version > VERSION) {
+			throw new IOException(file + " was saved in format " + version + ", not up to " + VERSION);
+		}
+		int length = save.getInt();
+		int expected = save.getInt();
+		if (length != save.remaining()) {
+			throw new IOException(file + " is cut short");
+		}
+		CRC32 crc = new CRC32();
+		crc.update(save.duplicate());
+		if ((int) crc.getValue() != expected) {
+			throw new IOException(file + " is corrupt");
+		}
+		try {
+			return Game.fromSnapshot(save, version, random);
+		} catch (RuntimeException e) {
+			throw new IOException(file + " holds a game that cannot be rebuilt", e);
+		}
+	}
+	
 	/**
 	 * pre: none
 	 * post: The name list has been returned.
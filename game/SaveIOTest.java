@@ -3,9 +3,12 @@ package game;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import org.junit.Test;
 
+import cards.RandomSource;
 import players.Player;
 
 public class SaveIOTest extends SaveIO {
@@ -75,6 +78,95 @@ public class SaveIOTest extends SaveIO {
 		assertEquals("The small blind was saved incorrectly.", 25, Integer.parseInt(blind));
 	}
 	
+	//tests that a game saved mid hand is loaded back exactly as it was
+	@Test
+	public void testSaveGameMidHand() throws IOException {
+		Game game = new Game(RandomSource.seeded(4));
+		game.generateAIPlayers(5, 1000);
+		game.setupRound();
+		//plays through the blinds and into the flop
+		while (game.getRound() < 2) {
+			game.processTurn();
+			game.incrementPlayer();
+			game.isBetRoundRunning();
+		}
+		game.processTurn();
+		game.incrementPlayer();
+		
+		Path file = Files.createTempDirectory("save").resolve("Save.dat");
+		super.saveGame(game, file);
+		Game loaded = super.loadGame(file, RandomSource.seeded(5));
+		
+		assertEquals("The round should be kept", game.getRound(), loaded.getRound());
+		assertEquals("The pot should be kept", game.getPot(), loaded.getPot());
+		assertEquals("The community cards should be kept", game.getComm(), loaded.getComm());
+		assertEquals("The players in the round should be kept", game.getPlayers().size(), loaded.getPlayers().size());
+		for (int i = 0; i < game.getPlayerList().size(); i++) {
+			Player player = game.getPlayerList().get(i);
+			Player loadedPlayer = loaded.getPlayerList().get(i);
+			assertEquals("Player's name was loaded incorrectly.", player.getName(), loadedPlayer.getName());
+			assertEquals("Player's stack was loaded incorrectly.", player.getStack(), loadedPlayer.getStack());
+			assertEquals("Player's bet was loaded incorrectly.", player.getBet(), loadedPlayer.getBet());
+			assertEquals("Player's hole was loaded incorrectly.", player.getHole(), loadedPlayer.getHole());
+			assertEquals("Player's action was loaded incorrectly.", player.getAction(), loadedPlayer.getAction());
+		}
+		assertEquals("Every part of the game should be loaded", game.snapshot(), loaded.snapshot());
+	}
+	
+	//tests that a game loaded mid hand carries on that hand with every chip still on the table
+	@Test
+	public void testLoadGameMidHandKeepsChips() throws IOException {
+		Game game = new Game(RandomSource.seeded(3));
+		game.generateAIPlayers(4, 1000);
+		assertTrue("A game yet to be dealt is between hands", game.isBetweenHands());
+		game.setupRound();
+		//plays into the flop, leaving bets out in front of the players
+		while (game.getRound() < 1) {
+			game.processTurn();
+			game.incrementPlayer();
+			game.isBetRoundRunning();
+		}
+		game.processTurn();
+		game.incrementPlayer();
+		assertFalse("A hand is being played", game.isBetweenHands());
+		
+		Path file = Files.createTempDirectory("save").resolve("Save.dat");
+		super.saveGame(game, file);
+		Game loaded = super.loadGame(file, RandomSource.seeded(8));
+		
+		assertFalse("The loaded hand should be carried on, not dealt again", loaded.isBetweenHands());
+		assertEquals("No chips should be lost or made by loading", 4000, chipsOnTable(loaded));
+		assertEquals("Every part of the game should be loaded", game.snapshot(), loaded.snapshot());
+		
+		//finishing the hand leaves the game between hands with the chips all in stacks
+		loaded.runOut();
+		loaded.showdown();
+		assertTrue("A hand that has been shown down is over", loaded.isBetweenHands());
+		assertEquals("The pot should be paid out in full", 4000, chipsOnTable(loaded));
+	}
+	
+	//tests that a damaged save is refused rather than loaded
+	@Test(expected = IOException.class)
+	public void testLoadGameCorrupt() throws IOException {
+		Game game = new Game(RandomSource.seeded(4));
+		game.generateAIPlayers(3, 1000);
+		game.setupRound();
+		Path file = Files.createTempDirectory("save").resolve("Save.dat");
+		super.saveGame(game, file);
+		
+		byte[] save = Files.readAllBytes(file);
+		save[save.length - 10] ^= 1;
+		Files.write(file, save);
+		super.loadGame(file, RandomSource.seeded(5));
+	}
+	
+	private int chipsOnTable(Game game) {
+		int chips = game.getPot();
+		for (Player player : game.getPlayerList())
+			chips += player.getStack() + player.getBet();
+		return chips;
+	}
+	
 	private void createFile(String filename, String[] lines) throws IOException {
 		PrintWriter output = new PrintWriter(new BufferedWriter(new FileWriter(filename)));
         for (String line : lines) {
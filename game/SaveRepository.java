@@ -0,0 +1,326 @@
+package game;
+
+/**
+ * Holds any number of named saves in one directory. Each save is a SaveIO
+ * file of its own, and a small index file keeps who was seated with what
+ * stack, the blind and when each was saved, so the saves can be listed
+ * without opening any of them. The index is read once when the repository
+ * is opened and kept in memory from then on.
+ *
+ * A game's state is copied out on the thread that saves it, which is quick,
+ * and the files are written on the repository's own background thread, so a
+ * GUI never waits on the disk. A save is listed as soon as it is asked for,
+ * but only goes into the index file once its own file is written, and both
+ * are written beside the old file and renamed over it, so a crash leaves
+ * every save listed in the index whole.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import cards.RandomSource;
+import players.Player;
+
+public class SaveRepository implements AutoCloseable {
+
+    public static final Path DIRECTORY = Paths.get("saves");
+    private static final String INDEX = "index.dat";
+    private static final int MAGIC = 0x54485349; // "THSI"
+    private static final short VERSION = 1;
+
+    private final Path dir;
+    private final SaveIO saveIO = new SaveIO();
+    private final ExecutorService io = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "save-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<String, Slot>(); // every save asked for
+    private final LinkedHashMap<String, Slot> written = new LinkedHashMap<String, Slot>(); // the saves on disk, used only by the background thread
+    private int nextFile; // the number of the next save file
+
+    /**
+     * What the index keeps of one save
+     */
+    public static class Slot {
+        private final String name;
+        private final int file;
+        private final long savedAt;
+        private final int smallBlind;
+        private final String[] players;
+        private final int[] stacks;
+
+        Slot(String name, int file, long savedAt, int smallBlind, String[] players, int[] stacks) {
+            this.name = name;
+            this.file = file;
+            this.savedAt = savedAt;
+            this.smallBlind = smallBlind;
+            this.players = players;
+            this.stacks = stacks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets when the game was saved
+         *
+         * @return the time in milliseconds since the epoch
+         */
+        public long getSavedAt() {
+            return savedAt;
+        }
+
+        public int getSmallBlind() {
+            return smallBlind;
+        }
+
+        public int getPlayerCount() {
+            return players.length;
+        }
+
+        public String getPlayer(int seat) {
+            return players[seat];
+        }
+
+        public int getStack(int seat) {
+            return stacks[seat];
+        }
+    }
+
+    private SaveRepository(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Opens the saves in a directory, reading their index
+     *
+     * @param dir the directory, created if it does not exist
+     * @return the repository
+     * @throws IOException if the directory cannot be made or the index is
+     *                     corrupt
+     */
+    public static SaveRepository open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        SaveRepository repository = new SaveRepository(dir);
+        Path index = dir.resolve(INDEX);
+        if (Files.exists(index)) {
+            repository.readIndex(Files.readAllBytes(index), index);
+        }
+        return repository;
+    }
+
+    /**
+     * Lists the saves, including those still being written, without touching
+     * the disk
+     *
+     * @return the saves, the most recent first
+     */
+    public synchronized ArrayList<Slot> list() {
+        ArrayList<Slot> list = new ArrayList<Slot>(slots.values());
+        list.sort(Comparator.comparingLong(Slot::getSavedAt).reversed());
+        return list;
+    }
+
+    /**
+     * Saves a game under a name, replacing any save of that name. The game is
+     * copied out before this returns, so it may carry on straight away.
+     *
+     * @param name the name of the save
+     * @param game the game to save
+     * @return completes with the save once it is on disk, or exceptionally
+     *         with an UncheckedIOException if it could not be written
+     */
+    public CompletableFuture<Slot> save(String name, Game game) {
+        ByteBuffer state = game.snapshot();
+        ArrayList<Player> seated = game.getPlayerList();
+        String[] players = new String[seated.size()];
+        int[] stacks = new int[seated.size()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = seated.get(i).getName();
+            stacks[i] = seated.get(i).getStack();
+        }
+        Slot slot;
+        synchronized (this) {
+            Slot old = slots.get(name);
+            int file = old != null ? old.file : nextFile++;
+            slot = new Slot(name, file, System.currentTimeMillis(), game.getSmallBlind(), players, stacks);
+            slots.put(name, slot);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                saveIO.saveSnapshot(state, file(slot.file));
+                written.put(name, slot);
+                writeIndex();
+                return slot;
+            } catch (IOException e) {
+                unlist(name, slot);
+                throw new UncheckedIOException(e);
+            }
+        }, io);
+    }
+
+    /**
+     * Loads a save on the background thread
+     *
+     * @param name the name of the save
+     * @return completes with the game as it was saved, or exceptionally with
+     *         an UncheckedIOException if there is no such save or it could not
+     *         be read
+     */
+    public CompletableFuture<Game> load(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Slot slot = written.get(name); // any earlier save of it has been written by now
+                if (slot == null) {
+                    throw new NoSuchFileException(name, null, "There is no save of this name");
+                }
+                return saveIO.loadGame(file(slot.file), RandomSource.threadLocal());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, io);
+    }
+
+    /**
+     * Deletes a save and its entry in the index
+     *
+     * @param name the name of the save
+     * @return completes once the save is gone, or exceptionally with an
+     *         UncheckedIOException if there is no such save or the index could
+     *         not be written
+     */
+    public CompletableFuture<Void> delete(String name) {
+        synchronized (this) {
+            slots.remove(name);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Slot slot = written.remove(name);
+                if (slot == null) {
+                    throw new NoSuchFileException(name, null, "There is no save of this name");
+                }
+                writeIndex();
+                Files.deleteIfExists(file(slot.file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, io);
+    }
+
+    /**
+     * Finishes every save already asked for and stops the background thread
+     */
+    @Override
+    public void close() {
+        io.shutdown();
+        try {
+            io.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lists a save as it is on disk again after a save of it failed, unless it
+     * was saved or deleted again since
+     */
+    private synchronized void unlist(String name, Slot failed) {
+        if (slots.get(name) == failed) {
+            Slot old = written.get(name);
+            if (old != null) {
+                slots.put(name, old);
+            } else {
+                slots.remove(name);
+            }
+        }
+    }
+
+    private Path file(int number) {
+        return dir.resolve(String.format("save-%06d.dat", number));
+    }
+
+    /**
+     * Writes the index of the saves on disk: a magic number, the format
+     * version, the number of the next save file and the number of saves, then
+     * each save's name, file number, time, small blind and seats, and last a
+     * CRC32 of it all
+     */
+    private void writeIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 128 * written.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        synchronized (this) {
+            out.writeInt(nextFile);
+        }
+        out.writeInt(written.size());
+        for (Slot slot : written.values()) {
+            out.writeUTF(slot.name);
+            out.writeInt(slot.file);
+            out.writeLong(slot.savedAt);
+            out.writeInt(slot.smallBlind);
+            out.writeByte(slot.players.length);
+            for (int i = 0; i < slot.players.length; i++) {
+                out.writeUTF(slot.players[i]);
+                out.writeInt(slot.stacks[i]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        SaveIO.writeAtomically(dir.resolve(INDEX), ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private void readIndex(byte[] index, Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(index, 0, Math.max(0, index.length - 4));
+        if (index.length < 18 || ByteBuffer.wrap(index, index.length - 4, 4).getInt() != (int) crc.getValue()) {
+            throw new IOException(file + " is corrupt");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(index, 0, index.length - 4));
+        if (in.readInt() != MAGIC) {
+            throw new IOException(file + " is not a save index");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException(file + " was written in format " + version + ", not " + VERSION);
+        }
+        nextFile = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            int number = in.readInt();
+            long savedAt = in.readLong();
+            int smallBlind = in.readInt();
+            String[] players = new String[in.readUnsignedByte()];
+            int[] stacks = new int[players.length];
+            for (int seat = 0; seat < players.length; seat++) {
+                players[seat] = in.readUTF();
+                stacks[seat] = in.readInt();
+            }
+            Slot slot = new Slot(name, number, savedAt, smallBlind, players, stacks);
+            slots.put(name, slot);
+            written.put(name, slot);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import cards.RandomSource;
+
+public class SaveRepositoryTest {
+	// testing that many saves are listed from the index once the repository is reopened
+	@Test
+	public void test_listSaves() throws Exception {
+		Path dir = Files.createTempDirectory("saves");
+		ArrayList<CompletableFuture<SaveRepository.Slot>> saving = new ArrayList<CompletableFuture<SaveRepository.Slot>>();
+		try (SaveRepository saves = SaveRepository.open(dir)) {
+			for (int i = 0; i < 100; i++) {
+				Game game = new Game(RandomSource.seeded(i));
+				game.generateAIPlayers(2 + i % 8, 1000 * (1 + i % 3));
+				game.setupRound();
+				saving.add(saves.save("Game " + i, game));
+			}
+			assertEquals(100, saves.list().size());
+		}
+		for (CompletableFuture<SaveRepository.Slot> save : saving) {
+			assertTrue(save.isDone());
+		}
+
+		try (SaveRepository saves = SaveRepository.open(dir)) {
+			ArrayList<SaveRepository.Slot> list = saves.list();
+			assertEquals(100, list.size());
+			for (int i = 1; i < list.size(); i++) {
+				assertTrue("The most recent save should be listed first",
+						list.get(i - 1).getSavedAt() >= list.get(i).getSavedAt());
+			}
+			SaveRepository.Slot slot = saving.get(13).get();
+			SaveRepository.Slot listed = list.stream().filter(s -> s.getName().equals("Game 13")).findFirst().get();
+			assertEquals(7, listed.getPlayerCount());
+			assertEquals(slot.getPlayer(3), listed.getPlayer(3));
+			assertEquals(2000, listed.getStack(3));
+			assertEquals(50, listed.getSmallBlind());
+		}
+	}
+
+	// testing that a save is loaded, replaced and deleted by its name
+	@Test
+	public void test_loadReplaceDelete() throws Exception {
+		Path dir = Files.createTempDirectory("saves");
+		try (SaveRepository saves = SaveRepository.open(dir)) {
+			Game game = new Game(RandomSource.seeded(3));
+			game.generateAIPlayers(4, 1000);
+			game.setupRound();
+			saves.save("Table", game).get();
+			game.processTurn();
+			game.incrementPlayer();
+			saves.save("Table", game).get();
+			saves.save("Other", game).get();
+
+			Game loaded = saves.load("Table").get();
+			assertEquals(game.snapshot(), loaded.snapshot());
+			assertEquals(2, saves.list().size());
+
+			saves.delete("Other").get();
+			assertEquals(1, saves.list().size());
+			assertEquals(2, Files.list(dir).count()); // the index and the one save
+			try {
+				saves.load("Other").get();
+				fail("A deleted save should not load");
+			} catch (Exception e) {
+				assertTrue(e.getCause() instanceof java.io.UncheckedIOException);
+			}
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package game;
+
+/**
+ * Totals gathered while the Simulator plays hands: the number of hands, games
+ * and actions, and the time spent in each street, so throughput can be given
+ * per hand and per street. Stats of separate runs can be merged together,
+ * such as those of tables played at the same time by the MultiTableRunner.
+ */
+
+public class SimulationStats {
+
+    public static final String[] STREETS = { "Preflop", "Flop", "Turn", "River", "Showdown" };
+
+    private long hands;
+    private long games;
+    private long actions;
+    private long stalls;
+    private long elapsedNanos; // time spent playing, summed over threads
+    private long wallNanos; // real time from the start to the end of the run
+    private final long[] streetNanos = new long[STREETS.length];
+    private final long[] streetCounts = new long[STREETS.length];
+
+    /**
+     * Records the time spent in one street of a hand
+     *
+     * @param street the index of the street in STREETS
+     * @param nanos  the time taken
+     */
+    void addStreet(int street, long nanos) {
+        streetNanos[street] += nanos;
+        streetCounts[street]++;
+    }
+
+    void addHand() {
+        hands++;
+    }
+
+    void addGame() {
+        games++;
+    }
+
+    void addAction() {
+        actions++;
+    }
+
+    /**
+     * Records a betting round which never closed and was moved on from
+     */
+    void addStall() {
+        stalls++;
+    }
+
+    void addElapsed(long nanos) {
+        elapsedNanos += nanos;
+        wallNanos += nanos;
+    }
+
+    void setWallNanos(long nanos) {
+        wallNanos = nanos;
+    }
+
+    /**
+     * Adds the totals of another run to these ones
+     *
+     * @param other the stats to add
+     */
+    public void merge(SimulationStats other) {
+        hands += other.hands;
+        games += other.games;
+        actions += other.actions;
+        stalls += other.stalls;
+        elapsedNanos += other.elapsedNanos;
+        wallNanos = Math.max(wallNanos, other.wallNanos);
+        for (int i = 0; i < STREETS.length; i++) {
+            streetNanos[i] += other.streetNanos[i];
+            streetCounts[i] += other.streetCounts[i];
+        }
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getActions() {
+        return actions;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+
+    /**
+     * Gets the time spent playing hands, summed over every thread that played
+     * them
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the real time the run took, which for tables played at the same time
+     * is less than the time spent playing
+     *
+     * @return the time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Gets the number of hands played per second of real time
+     *
+     * @return hands per second
+     */
+    public double getHandsPerSecond() {
+        return wallNanos == 0 ? 0.0 : hands * 1e9 / wallNanos;
+    }
+
+    /**
+     * Gets the number of hands played per second of playing time on one thread
+     *
+     * @return hands per second per thread
+     */
+    public double getHandsPerThreadSecond() {
+        return elapsedNanos == 0 ? 0.0 : hands * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the average time spent in a street each time it was played
+     *
+     * @param street the index of the street in STREETS
+     * @return the average time in nanoseconds
+     */
+    public double getStreetNanos(int street) {
+        return streetCounts[street] == 0 ? 0.0 : (double) streetNanos[street] / streetCounts[street];
+    }
+
+    /**
+     * Gets the number of times a street was played
+     *
+     * @param street the index of the street in STREETS
+     * @return the number of times
+     */
+    public long getStreetCount(int street) {
+        return streetCounts[street];
+    }
+
+    /**
+     * Gives the totals, throughput and per street timing in a readable form
+     *
+     * @return the report
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%,d hands in %,d games, %,d actions, %,d stalled rounds%n", hands, games,
+                actions, stalls));
+        text.append(String.format("%,.0f hands/s, %,.0f hands/s per thread%n", getHandsPerSecond(),
+                getHandsPerThreadSecond()));
+        for (int i = 0; i < STREETS.length; i++) {
+            text.append(String.format("  %-9s %,12d played, %,10.0f ns each%n", STREETS[i], streetCounts[i],
+                    getStreetNanos(i)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package game;
+
+/**
+ * A headless driver for Game that seats only AI players and plays hands as
+ * fast as it can, with no console output, animations or waiting on input.
+ * Whenever a game ends with one player holding every chip a new game is
+ * seated, so any number of hands may be played. The hands played and the
+ * time spent in each street are gathered in SimulationStats.
+ *
+ * Run from the command line with the optional number of hands, seats, stack
+ * and seed, and a file to write every event of the measured hands to:
+ *
+ * java game.Simulator [hands] [seats] [stack] [seed] [log]
+ */
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import cards.RandomSource;
+
+public class Simulator {
+
+    private static final int MAX_ACTIONS = 1000; // actions in one street before the betting is moved on from
+
+    private final int seats;
+    private final int stackAmt;
+    private final RandomSource random;
+    private GameEventListener listener = GameEventListener.NONE;
+    private Game game;
+
+    /**
+     * Creates a simulator for tables of the given size
+     *
+     * @param seats    the number of AI players at each table, 2 to 10
+     * @param stackAmt the starting stack of each player
+     * @param random   the source every game is seeded from
+     */
+    public Simulator(int seats, int stackAmt, RandomSource random) {
+        if (seats < 2 || seats > 10) {
+            throw new IllegalArgumentException("A table seats 2 to 10 players");
+        }
+        if (stackAmt < 100) {
+            throw new IllegalArgumentException("The stack must be at least 100 for the AI to size its bets");
+        }
+        this.seats = seats;
+        this.stackAmt = stackAmt;
+        this.random = random;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long hands = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int stack = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        RandomSource random = args.length > 3 ? RandomSource.seeded(Long.parseLong(args[3]))
+                : RandomSource.threadLocal();
+
+        Simulator simulator = new Simulator(seats, stack, random);
+        simulator.run(Math.min(hands, 10000)); // warm up
+        if (args.length > 4) {
+            try (AsyncEventSink log = AsyncEventSink.file(Paths.get(args[4]))) {
+                simulator.setListener(log);
+                System.out.print(simulator.run(hands));
+            }
+        } else {
+            System.out.print(simulator.run(hands));
+        }
+    }
+
+    /**
+     * Plays the given number of hands
+     *
+     * @param hands the number of hands to play
+     * @return the stats of the hands played
+     */
+    public SimulationStats run(long hands) {
+        SimulationStats stats = new SimulationStats();
+        long start = System.nanoTime();
+        for (long h = 0; h < hands; h++) {
+            if (game == null || game.isGameOver()) {
+                newGame();
+                stats.addGame();
+            }
+            playHand(stats);
+        }
+        stats.addElapsed(System.nanoTime() - start);
+        return stats;
+    }
+
+    /**
+     * Sets the listener told of every event of the games played from now on,
+     * GameEventListener.NONE to play without any output
+     *
+     * @param gameListener the listener
+     */
+    public void setListener(GameEventListener gameListener) {
+        listener = gameListener;
+        if (game != null) {
+            game.setListener(gameListener);
+        }
+    }
+
+    /**
+     * Seats a new table of AI players
+     */
+    private void newGame() {
+        game = new Game(random.split());
+        game.generateAIPlayers(seats, stackAmt);
+        game.setListener(listener);
+    }
+
+    /**
+     * Plays one hand through every street to the showdown, the rest of the
+     * board being run out once no one is left to bet
+     */
+    private void playHand(SimulationStats stats) {
+        game.setupRound();
+        while (game.getRound() < 4) {
+            int street = game.getRound();
+            long start = System.nanoTime();
+            int actions = 0;
+            boolean running = game.isBettingOpen();
+            while (running) {
+                if (++actions > MAX_ACTIONS) {
+                    stats.addStall();
+                    break;
+                }
+                if (game.getCurrentPlayer().getStack() > 0) {
+                    game.processTurn();
+                    stats.addAction();
+                }
+                game.incrementPlayer();
+                running = game.isBettingOpen() && game.isBetRoundRunning();
+            }
+            if (!game.isBettingOpen()) {
+                game.runOut(); // no one is left to bet, so the board is dealt straight to the showdown
+            } else if (game.getRound() == street) {
+                game.incrementRound();
+            }
+            stats.addStreet(street, System.nanoTime() - start);
+        }
+
+        long start = System.nanoTime();
+        game.showdown();
+        stats.addStreet(4, System.nanoTime() - start);
+        stats.addHand();
+    }
+}
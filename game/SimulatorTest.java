@@ -0,0 +1,66 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import cards.RandomSource;
+import players.AI;
+import players.Player;
+
+public class SimulatorTest {
+	// testing that headless hands are all played through without printing
+	@Test
+	public void test_runQuietly() {
+		PrintStream console = System.out;
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(printed));
+		SimulationStats stats;
+		try {
+			stats = new Simulator(6, 1000, RandomSource.seeded(7)).run(2000);
+		} finally {
+			System.setOut(console);
+		}
+
+		assertEquals("Nothing should be printed", "", printed.toString());
+		assertEquals(2000, stats.getHands());
+		assertTrue(stats.getGames() >= 1);
+		assertEquals("Every betting round should close", 0, stats.getStalls());
+		assertEquals(2000, stats.getStreetCount(0));
+		assertEquals(2000, stats.getStreetCount(4));
+		assertTrue(stats.getHandsPerSecond() > 0);
+	}
+
+	// testing that many tables played at once share no state and merge their stats
+	@Test
+	public void test_multiTable() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		SimulationStats first = new MultiTableRunner(6, 1000, RandomSource.seeded(7), pool).run(40, 100);
+		SimulationStats second = new MultiTableRunner(6, 1000, RandomSource.seeded(7), pool).run(40, 100);
+		pool.shutdown();
+
+		assertEquals(4000, first.getHands());
+		assertEquals(0, first.getStalls());
+		assertTrue(first.getGames() >= 40);
+		assertEquals("A seeded run should play the same however tables are scheduled", first.getActions(),
+				second.getActions());
+		assertEquals(first.getGames(), second.getGames());
+	}
+
+	// testing that a table of AI players has no user
+	@Test
+	public void test_generateAIPlayers() {
+		Game game = new Game(RandomSource.seeded(7));
+		game.generateAIPlayers(4, 1000);
+
+		assertEquals(4, game.getPlayerList().size());
+		for (Player player : game.getPlayerList()) {
+			assertTrue(player instanceof AI);
+			assertEquals(1000, player.getStack());
+		}
+	}
+}
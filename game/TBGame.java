@@ -14,6 +14,7 @@ import java.io.IOException;
 
 import cards.Card;
 import players.AI;
+import players.Action;
 import players.Human;
 import players.Player;
 
@@ -50,6 +51,12 @@ public class TBGame {
     private static void setupGame() {
         game = null;
         game = new Game();
+        game.setListener(new GameEventListener() { // only the actions are printed, worded as a TextEventSink would, since the rounds and board are printed with the prompts
+            @Override
+            public void playerActed(Player actor, Action action, int amount) {
+                System.out.println(TextEventSink.describe(actor, action, amount));
+            }
+        });
         int playerNum = playerAmt();
         int stackNum = stackAmt();
         players = game.generatePlayers(playerNum, stackNum);
@@ -109,6 +116,11 @@ public class TBGame {
             }
 
             while (game.getRound() < 5) {
+                if (!game.isBettingOpen()) {
+                    game.runOut(); // no one is left to bet, so the board is dealt straight to the showdown
+                    break;
+                }
+
                 clearScreen();
                 System.out.println("Betting Round: " + game.getRoundString());
                 continueCheck();
@@ -364,8 +376,8 @@ public class TBGame {
         if (game.getPlayerCount() != 0 && game.getHighestBet() != 0) {
             lastPlayer = game.getLastPlayer();
             System.out.printf("Last Player's Action: " + lastPlayer.getAction());
-            if (lastPlayer.getAction() == "Bet" || lastPlayer.getAction() == "All In"
-                    || lastPlayer.getAction() == "Raised") {
+            if (lastPlayer.getAction() == Action.BET || lastPlayer.getAction() == Action.ALL_IN
+                    || lastPlayer.getAction() == Action.RAISE) {
                 System.out.printf(" - " + lastPlayer.getBet());
             }
             System.out.println("\n");
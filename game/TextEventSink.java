@@ -0,0 +1,116 @@
+package game;
+
+/**
+ * A GameEventListener that describes every event as a line of text and prints
+ * it straight away, for a console game where the lines must come out in step
+ * with the prompts.
+ */
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import cards.Card;
+import players.Action;
+import players.Player;
+
+public class TextEventSink implements GameEventListener {
+
+    private final PrintStream out;
+
+    /**
+     * Creates a sink that prints to the given stream
+     *
+     * @param out the stream to print to
+     */
+    public TextEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates a sink for a subclass that writes the lines itself
+     */
+    protected TextEventSink() {
+        this(null);
+    }
+
+    /**
+     * Describes a player's action as it is announced at the table
+     *
+     * @param player the player
+     * @param action the action taken
+     * @param amount the chips the action put in
+     * @return the description
+     */
+    public static String describe(Player player, Action action, int amount) {
+        switch (action) {
+        case CHECK:
+            return player.getName() + " checked.";
+        case FOLD:
+            return player.getName() + " folded.";
+        case BET:
+            return player.getName() + " bet $" + amount + ".";
+        case RAISE:
+            return player.getName() + " raised, putting in $" + amount + ".";
+        case CALL:
+            return player.getName() + " called $" + amount + ".";
+        case ALL_IN:
+            return player.getName() + " went all-in with $" + amount + "!";
+        default:
+            return player.getName() + " waits.";
+        }
+    }
+
+    @Override
+    public void handStarted(ArrayList<Player> players) {
+        StringBuilder line = new StringBuilder("A new hand is dealt to ");
+        appendNames(line, players);
+        write(line.append('.').toString());
+    }
+
+    @Override
+    public void streetDealt(int round, ArrayList<Card> board) {
+        StringBuilder line = new StringBuilder(SimulationStats.STREETS[round]).append(':');
+        for (int i = 0; i < board.size(); i++) {
+            line.append(i == 0 ? " " : ", ").append(board.get(i).toString());
+        }
+        write(line.toString());
+    }
+
+    @Override
+    public void playerActed(Player player, Action action, int amount) {
+        write(describe(player, action, amount));
+    }
+
+    @Override
+    public void potsSettled(ArrayList<Player> winners, int pot) {
+        StringBuilder line = new StringBuilder();
+        appendNames(line, winners);
+        write(line.append(winners.size() == 1 ? " wins $" : " share $").append(pot).append('!').toString());
+    }
+
+    @Override
+    public void message(String text) {
+        write(text);
+    }
+
+    /**
+     * Writes one line of text
+     *
+     * @param line the line, without a line separator
+     */
+    protected void write(String line) {
+        out.println(line);
+    }
+
+    /**
+     * Lists the players' names as "A", "A and B" or "A, B and C"
+     */
+    private static void appendNames(StringBuilder line, ArrayList<Player> players) {
+        for (int i = 0; i < players.size(); i++) {
+            if (i > 0) {
+                line.append(i == players.size() - 1 ? " and " : ", ");
+            }
+            line.append(players.get(i).getName());
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package gui;
 import java.io.*;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import cards.Card;
+import cards.RandomSource;
 import game.Game;
+import game.GameJournal;
 import game.SaveIO;
+import game.SaveRepository;
 import javafx.animation.SequentialTransition;
 import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import players.Action;
 import players.Human;
 import players.Player;
 import javafx.scene.Parent;
@@ -26,6 +38,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Slider;
 import javafx.scene.shape.Ellipse;
 
@@ -40,6 +53,15 @@ public class GUI extends Application {
 	private final double WIN_WIDTH = Screen.getPrimary().getVisualBounds().getWidth();
 	private final double WIN_HEIGHT = Screen.getPrimary().getVisualBounds().getHeight();
 	private SaveIO saveLoad = new SaveIO();
+	private GameJournal journal; //Journals the game being played, so it can be continued after a crash
+	private SaveRepository saves; //Every named save, opened with the first menu
+	private String slotName; //The name the game being played is saved under
+	private MainMenu mainMenu;
+	private final ExecutorService io = Executors.newSingleThreadExecutor(task -> { //Reads and writes the disk, so the table never waits on it
+		Thread thread = new Thread(task, "gui-io");
+		thread.setDaemon(true);
+		return thread;
+	});
 	private Animator animator = new Animator();
 	private MusicPlayer mp = new MusicPlayer();
 	
@@ -67,15 +89,44 @@ public class GUI extends Application {
 		generateMenu(scene);
 	}
 	
-	private void generateMenu(Scene scene) {
-		scene.setRoot((new MainMenu()).getMenu());
-		
-		try { //If a local save file is not available the continue option is greyed out
-			(new FileReader("Save.txt")).close();
+	/**
+	 * When the GUI is closed any saves still being written are finished and
+	 * the last transitions of the game are forced to the journal.
+	 */
+	@Override
+	public void stop() throws IOException {
+		io.shutdown();
+		try {
+			io.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
-		catch(FileNotFoundException e) {
-			((Button) scene.lookup("#continue")).setDisable(true);
-		} catch (IOException e) {}
+		if (journal != null)
+			journal.close();
+		if (saves != null)
+			saves.close();
+	}
+	
+	private void generateMenu(Scene scene) {
+		MainMenu menu = new MainMenu();
+		mainMenu = menu;
+		scene.setRoot(menu.getMenu());
+		
+		((Button) scene.lookup("#continue")).setDisable(true); //Both are greyed out until the disk shows there is a game to load
+		((Button) scene.lookup("#load")).setDisable(true);
+		CompletableFuture.supplyAsync(() -> {
+			if (saves == null) {
+				try {
+					saves = SaveRepository.open(SaveRepository.DIRECTORY);
+				} catch (IOException e) {} //Without the saves directory only the last game can be continued
+			}
+			return SaveIO.GAME_FILE.toFile().exists() || (new File("Save.txt")).exists();
+		}, io).thenAccept(saved -> Platform.runLater(() -> {
+			if (scene.getRoot() != menu.getMenu()) //The menu was left before the disk was read
+				return;
+			((Button) scene.lookup("#continue")).setDisable(!saved); //If a local save file is not available the continue option stays greyed out
+			listSaves(scene);
+		}));
 		
 		((Button) scene.lookup("#continue")).setOnAction(e -> loadFromFile(scene)); //The continue button allows a game to be loaded from file
 		((Button) scene.lookup("#help")).setOnAction(e -> generateTutorial(scene)); //The how to play button opens the tutorial
@@ -90,6 +141,48 @@ public class GUI extends Application {
 		});
 	}
 	
+	/**
+	 * The saved games are listed in the load game menu from the save index,
+	 * the most recent first, without any save being opened. A chosen save is
+	 * read in the background and the game resumed once it has been.
+	 * 
+	 * @param scene the master node tree
+	 */
+	private void listSaves(Scene scene) {
+		if (saves == null)
+			return;
+		
+		ArrayList<SaveRepository.Slot> slots = saves.list();
+		ArrayList<String> descriptions = new ArrayList<String>();
+		SimpleDateFormat date = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+		for (SaveRepository.Slot slot : slots) {
+			String stack = "";
+			for (int seat = 0; seat < slot.getPlayerCount(); seat++) {
+				if (slot.getPlayer(seat).equals("You"))
+					stack = ", your stack " + new MoneyFormatter(slot.getStack(seat));
+			}
+			descriptions.add(slot.getName() + " - " + slot.getPlayerCount() + " players, blinds "
+					+ new MoneyFormatter(slot.getSmallBlind()) + "/" + new MoneyFormatter(slot.getSmallBlind() * 2)
+					+ stack + ", saved " + date.format(new Date(slot.getSavedAt())));
+		}
+		
+		ListView<String> slotList = (ListView<String>) scene.lookup("#slotList");
+		slotList.setItems(FXCollections.observableArrayList(descriptions));
+		slotList.getSelectionModel().selectFirst();
+		((Button) scene.lookup("#load")).setDisable(slots.isEmpty()); //With nothing saved the load game option is greyed out
+		
+		((Button) scene.lookup("#loadButton")).setOnAction(new EventHandler<ActionEvent>() { //The load button resumes the chosen save
+			@Override
+			public void handle(ActionEvent event) {
+				int chosen = slotList.getSelectionModel().getSelectedIndex();
+				if (chosen < 0)
+					return;
+				String name = slots.get(chosen).getName();
+				startGame(scene, name, saves.load(name), false);
+			}
+		});
+	}
+	
 	/**
 	 * On the press of the appropriate help button in either the main menu
 	 * or in game will cause the current root to be held 
@@ -104,7 +197,8 @@ public class GUI extends Application {
 	
 	/**
 	 * From the parameters given by the main menu a new game is generated and
-	 * begun.
+	 * begun. It is not journaled until it is first saved, so the game the
+	 * continue option resumes is left as it was.
 	 * 
 	 * @param scene the master node tree
 	 * @param playerNum the number of players
@@ -113,20 +207,75 @@ public class GUI extends Application {
 	private void makeNewGame(Scene scene, int playerNum, int stackSize) {
 		Game game = new Game(); //The new game is created and its parameters are generated
 		game.generatePlayers(playerNum, stackSize);
-		game.setupRound();
-		generatePlayArea(scene, game);
+		startGame(scene, newSlotName(), CompletableFuture.completedFuture(game), false);
 	}
 	
 	/**
 	 * The SaveIO will load the saved game, which will be used to generate a play
-	 * area and resume the game.
+	 * area and resume the game. Every hand finished since the save is replayed
+	 * from the journal, unless the journal cannot be replayed, in which case
+	 * the game resumes from the save alone. Only when there is no save of the
+	 * whole game is one loaded from its names and stacks instead. A save that
+	 * cannot be read is left as it is and the menu made ready again. All of it
+	 * is read in the background, and the game carries on journaling to the
+	 * same save.
 	 * 
 	 * @param scene the master node tree
 	 */
 	private void loadFromFile(Scene scene) {
-		Game game = saveLoad.loadState();
-		game.setupRound();
-		generatePlayArea(scene, game);
+		startGame(scene, newSlotName(), CompletableFuture.supplyAsync(() -> {
+			if (!SaveIO.GAME_FILE.toFile().exists())
+				return saveLoad.loadState();
+			try {
+				return GameJournal.recover(SaveIO.GAME_FILE, GameJournal.FILE, RandomSource.threadLocal(), true);
+			} catch (IOException e) {} //The journal may have been replayed in part, so the save is read afresh
+			try {
+				return saveLoad.loadGame(SaveIO.GAME_FILE, RandomSource.threadLocal());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, io), true);
+	}
+	
+	/**
+	 * Once a game has been read its first hand is dealt and, if it was
+	 * continued, its journal started in the background, while the menu shows
+	 * that it is loading. A game saved
+	 * in the middle of a hand keeps that hand rather than being dealt a new one,
+	 * so none of the chips already bet are lost. The play
+	 * area is generated back on the JavaFX thread when all of it is done, or
+	 * the menu made ready again if the game could not be read.
+	 * 
+	 * @param scene the master node tree
+	 * @param name the name the game is saved under
+	 * @param loading completes with the game to play
+	 * @param continued whether the game was continued from the journaled save
+	 */
+	private void startGame(Scene scene, String name, CompletableFuture<Game> loading, boolean continued) {
+		MainMenu menu = mainMenu;
+		menu.setBusy("Loading...");
+		loading.thenApplyAsync(game -> {
+			if (game.isBetweenHands()) //A new hand is only dealt if none was being played
+				game.setupRound();
+			startJournal(game, continued);
+			return game;
+		}, io).whenComplete((game, error) -> Platform.runLater(() -> {
+			menu.setReady();
+			if (error != null) //The game could not be read, so another may be chosen
+				return;
+			slotName = name;
+			generatePlayArea(scene, game);
+		}));
+	}
+	
+	/**
+	 * A game is saved under the time it was begun or continued, unless it was
+	 * loaded from a save of its own.
+	 * 
+	 * @return the name of a new save
+	 */
+	private String newSlotName() {
+		return "Game " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
 	}
 	
 	/**
@@ -134,7 +283,8 @@ public class GUI extends Application {
 	 * new Game object, ActionBar and Table objects based on Game information,
 	 * and creating EventHandlers for the user's action buttons. These 
 	 * EventHandlers will likely be moved to their own class for future
-	 * iterations. The start of a round is called once all this is set up.
+	 * iterations. The start of a round is called once all this is set up, or
+	 * the hand carried on if it was already under way.
 	 * 
 	 * @param scene the GUI scene
 	 */
@@ -157,7 +307,7 @@ public class GUI extends Application {
 				
 				for (Player player : game.getPlayers()) { //Each player not all-in has their action reset
 					if (!(player.getStack() == 0)) {
-						player.setAction(" ");
+						player.setAction(Action.NONE);
 						((Label) scene.lookup("#" + player.getName() + "Action")).setText(" ");
 					}
 				}
@@ -232,9 +382,25 @@ public class GUI extends Application {
 		((Button) scene.lookup("#save")).setOnAction(new EventHandler<ActionEvent>() { //Handler for saving the game
 			@Override
 			public void handle(ActionEvent event) {
-				saveLoad.saveState(game.getPlayerList(), game.getSmallBlind());
-				((Button) scene.lookup("#save")).setText("Saved!");
-				((Button) scene.lookup("#save")).setDisable(true);
+				Button save = (Button) scene.lookup("#save");
+				save.setDisable(true);
+				save.setText("Saving...");
+				
+				CompletableFuture<Void> saving; //The game is copied out here and written in the background
+				if (journal != null)
+					saving = journal.checkpoint(game, SaveIO.GAME_FILE, io);
+				else //A game is journaled from its first save on, as it is now the one to continue
+					saving = CompletableFuture.supplyAsync(() -> createJournal(), io).thenComposeAsync(opened -> {
+						if (opened == null) //The game is saved without a journal if one cannot be opened
+							return saveLoad.saveGame(game, SaveIO.GAME_FILE, io);
+						journal = opened;
+						game.setJournal(opened);
+						return opened.checkpoint(game, SaveIO.GAME_FILE, io);
+					}, Platform::runLater);
+				if (saves != null)
+					saving = saving.thenCombine(saves.save(slotName, game), (saved, slot) -> null);
+				saving.whenComplete((saved, error) -> Platform.runLater(() ->
+						save.setText(error == null ? "Saved!" : "Not Saved")));
 			}
 		});
 		
@@ -247,9 +413,75 @@ public class GUI extends Application {
 			}
 		});
 		
-		startPlayRound(scene, game); //The first round of play is begun
+		if (isHandBegun(game)) //A hand loaded part way through is carried on
+			resumePlayRound(scene, game);
+		else
+			startPlayRound(scene, game); //The first round of play is begun
+	}
+	
+	/**
+	 * A hand has begun once its flop is dealt or any player has acted in it.
+	 * 
+	 * @param game the Game object
+	 * @return whether the hand is already under way
+	 */
+	private boolean isHandBegun(Game game) {
+		if (game.getRound() > 0)
+			return true;
+		for (Player player : game.getPlayers()) {
+			if (player.getAction() != Action.NONE)
+				return true;
+		}
+		return false;
 	}
 
+	/**
+	 * A continued game has every transition journaled from a save of it as it
+	 * is now, so it can be continued from its last hand after a crash. Any
+	 * other game is left unjournaled until the user saves it, as the save and
+	 * journal belong to the game the continue option resumes. So does a game
+	 * continued from the names and stacks of an older save, which was not read
+	 * from the save and must not be written over it. The game is
+	 * played without a journal if one cannot be opened. This is run in the
+	 * background, before the game is played.
+	 * 
+	 * @param game the game about to be played
+	 * @param continued whether the game was continued from the journaled save
+	 */
+	private void startJournal(Game game, boolean continued) {
+		try {
+			if (journal != null)
+				journal.close();
+		} catch (IOException e) {} //The last game's journal is no longer needed
+		journal = null;
+		game.setJournal(null);
+		if (!continued || !SaveIO.GAME_FILE.toFile().exists()) //Only a game read from the save is checkpointed over it
+			return;
+		
+		try {
+			journal = GameJournal.open(GameJournal.FILE);
+			game.setJournal(journal);
+			journal.checkpoint(game, SaveIO.GAME_FILE);
+		} catch (IOException e) {
+			game.setJournal(null);
+		}
+	}
+	
+	/**
+	 * Creates the journal kept beside the save the continue option resumes
+	 * afresh for a game being saved for the first time, so none of the records
+	 * of the game saved there before are left to be replayed onto it.
+	 * 
+	 * @return the journal, or null if it cannot be created
+	 */
+	private GameJournal createJournal() {
+		try {
+			return GameJournal.create(GameJournal.FILE);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	
 	/**
 	 * Before starting a round of play the small blind, big blind, and dealer
 	 * chips are set in their appropriate spot, players' hole cards are
@@ -260,6 +492,76 @@ public class GUI extends Application {
 	 * @param game the Game object
 	 */
 	private void startPlayRound(Scene scene, Game game) {
+		setupTable(scene, game);
+		
+		SequentialTransition iniAnim = animator.iniMovement(scene, game); //To ensure lower nodes can be found the animation must first be initialized
+		iniAnim.setOnFinished(new EventHandler<ActionEvent>() { 
+			@Override
+			public void handle(ActionEvent event) { //On the finish of the initialization the starting animations are played
+				SequentialTransition startAnim = animator.roundStartAnim(scene, game); //The deck shuffle animation is played
+				startAnim.setOnFinished(e -> interRound(scene, game)); //At the end of the animation the round start notification is displayed
+				startAnim.play();
+			}
+		});
+		iniAnim.play();
+	}
+	
+	/**
+	 * To carry on a hand loaded part way through the table is set up as at the
+	 * start of a round, but with each player's bet and action, the pot and the
+	 * highest wager as they were saved. Once the hole cards are dealt the
+	 * community cards already turned over are dealt again, and play continues
+	 * from the player whose turn it was without a new round notification, so
+	 * the actions taken so far this round still count.
+	 * 
+	 * @param scene the GUI scene
+	 * @param game the Game object
+	 */
+	private void resumePlayRound(Scene scene, Game game) {
+		setupTable(scene, game);
+		
+		for (Player player : game.getPlayers()) { //The players' bets and actions so far are shown
+			((Label) scene.lookup("#" + player.getName() + "Bet")).setText("Current Bet: " + (new MoneyFormatter(player.getBet())).toString());
+			if (player.getAction() != Action.NONE)
+				((Label) scene.lookup("#" + player.getName() + "Action")).setText("Action: " + player.getAction());
+		}
+		((Label) scene.lookup("#pot")).setText("Pot: " + (new MoneyFormatter(game.getPot())).toString());
+		((Label) scene.lookup("#wager")).setText("Highest Wager: " + (new MoneyFormatter(game.getHighestBet())).toString());
+		
+		SequentialTransition iniAnim = animator.iniMovement(scene, game);
+		iniAnim.setOnFinished(new EventHandler<ActionEvent>() { 
+			@Override
+			public void handle(ActionEvent event) {
+				SequentialTransition startAnim = animator.roundStartAnim(scene, game);
+				startAnim.setOnFinished(e -> {
+					Boolean fast = game.isUserFolded();
+					if (game.getRound() >= 1) //The community cards of the restored round are dealt again
+						animator.dealFlop(scene, game);
+					if (game.getRound() >= 2)
+						animator.dealStreet(scene, (ImageView) scene.lookup("#commBack3"), (ImageView) scene.lookup("#commFront3"), fast);
+					if (game.getRound() >= 3)
+						animator.dealStreet(scene, (ImageView) scene.lookup("#commBack4"), (ImageView) scene.lookup("#commFront4"), fast);
+					
+					if (game.getRound() == 4) //A hand saved at the showdown only has the showdown left
+						interRound(scene, game);
+					else
+						runTurn(scene, game);
+				});
+				startAnim.play();
+			}
+		});
+		iniAnim.play();
+	}
+	
+	/**
+	 * The small blind, big blind, and dealer chips are set in their appropriate
+	 * spot, players' hole cards are updated, and the community cards are
+	 * updated, ready for the hand to be dealt.
+	 * 
+	 * @param scene the GUI scene
+	 * @param game the Game object
+	 */
+	private void setupTable(Scene scene, Game game) {
 		for (Player player : game.getPlayerList()) {
 			if (player.getStack() == 0) {
 				((Label) scene.lookup("#" + player.getName() + "Action")).setText("BUSTED OUT");
@@ -289,17 +591,6 @@ public class GUI extends Application {
 			ArrayList<Card> comm = game.getComm();
 			((ImageView) scene.lookup("#commFront" + index)).setImage(new Image("/Images/" + comm.get(index).getSuit() + "/" + comm.get(index).getRank() + ".png"));
 		}
-		
-		SequentialTransition iniAnim = animator.iniMovement(scene, game); //To ensure lower nodes can be found the animation must first be initialized
-		iniAnim.setOnFinished(new EventHandler<ActionEvent>() { 
-			@Override
-			public void handle(ActionEvent event) { //On the finish of the initialization the starting animations are played
-				SequentialTransition startAnim = animator.roundStartAnim(scene, game); //The deck shuffle animation is played
-				startAnim.setOnFinished(e -> interRound(scene, game)); //At the end of the animation the round start notification is displayed
-				startAnim.play();
-			}
-		});
-		iniAnim.play();
 	}
 	
 	/**
@@ -350,15 +641,9 @@ public class GUI extends Application {
 	 * @param game the Game object
 	 */
 	private void runTurn(Scene scene, Game game) {
-		int allInCounter = 0;
-		for (Player player : game.getPlayers()) {
-			if (player.getStack() == 0)
-				allInCounter++;
-		}
-		
 		Player player = game.getCurrentPlayer();
 		
-		if ((game.getPlayers().size() == 1) || (allInCounter == game.getPlayers().size())) { //If one player remains or all players are all-in, fast track to showdown
+		if (!game.isBettingOpen()) { //If no one is left to bet, such as when one player remains or all but one are all-in, fast track to showdown
 			game.incrementRound();
 			interRound(scene, game);
 		}
@@ -419,7 +704,7 @@ public class GUI extends Application {
 		game.incrementPlayer();
 		((Label) scene.lookup("#" + player.getName() + "Name")).setStyle("-fx-text-fill: black;");
 		
-		if (player.getAction() == "Folded") { //If the AI folds their cards are returned to the deck
+		if (player.getAction() == Action.FOLD) { //If the AI folds their cards are returned to the deck
 			Boolean fast = false;
 			if (game.isUserFolded())
 				fast = true;
@@ -513,7 +798,7 @@ public class GUI extends Application {
 		updatePlayerInfo(user, scene, game);
 		game.incrementPlayer();
 		
-		if (user.getAction() == "Folded") { //If the user folds their cards are returned to the deck
+		if (user.getAction() == Action.FOLD) { //If the user folds their cards are returned to the deck
 			animator.returnHole(scene, user, true, true).play();
 		}
 		
@@ -542,7 +827,7 @@ public class GUI extends Application {
 		if (player.getBet() > game.getHighestBet()) //If the player has the highest bet their wager becomes the highest in the centre
 			((Label) scene.lookup("#wager")).setText("Highest Wager: " + wager);
 		
-		if (player.getAction() == "Folded") { //If the player folded their bet label is cleared and the centre pot is updated
+		if (player.getAction() == Action.FOLD) { //If the player folded their bet label is cleared and the centre pot is updated
 			((Label) scene.lookup("#" + player.getName() + "Bet")).setText(" ");
 			((Label) scene.lookup("#pot")).setText("Pot: " + (new MoneyFormatter(game.getPot())).toString());
 		}
@@ -5,9 +5,12 @@ import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Slider;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -18,14 +21,18 @@ import javafx.scene.layout.VBox;
 /**
  * Currently, this method produces a primitive main menu for demo purposes. The
  * default stack and blind information is displayed and the player can choose
- * their desired number of computer opponents before beginning a game. The menu
- * can also be quit to desktop.
+ * their desired number of computer opponents before beginning a game. Any of
+ * the saved games can be chosen from a list and loaded. The menu can also be
+ * quit to desktop. While a game is read from disk the menu shows its progress
+ * and cannot be used until it is ready again.
  * 
  * @author Adam Hiles
  * @version 03/28/19
  */
 public class MainMenu {
 	private StackPane menu;
+	private VBox busyBox;
+	private Label busyLabel;
 	
 	/**
 	 * On construction a new root menu is created.
@@ -44,6 +51,28 @@ public class MainMenu {
 		return menu;
 	}
 	
+	/**
+	 * The menu is greyed out behind a spinning progress indicator and a
+	 * message, for as long as the game waits on the disk.
+	 * 
+	 * @param message what is being waited on
+	 */
+	public void setBusy(String message) {
+		busyLabel.setText(message);
+		for (Node box : menu.getChildren())
+			box.setDisable(box != busyBox);
+		busyBox.setVisible(true);
+	}
+	
+	/**
+	 * The menu is made usable again once the disk has been read.
+	 */
+	public void setReady() {
+		for (Node box : menu.getChildren())
+			box.setDisable(false);
+		busyBox.setVisible(false);
+	}
+	
 	/**
 	 * All aspects of the menu are created and compiled here.
 	 * 
@@ -69,6 +98,9 @@ public class MainMenu {
 					Button resume = new Button("Continue");
 					resume.getStyleClass().add("button-main-menu");
 					resume.setId("continue");
+					Button loadGame = new Button("Load Game");
+					loadGame.getStyleClass().add("button-main-menu");
+					loadGame.setId("load");
 					Button newGame = new Button("New Game");
 					newGame.getStyleClass().add("button-main-menu");
 					Button help = new Button("How to Play");
@@ -77,7 +109,7 @@ public class MainMenu {
 					Button quit = new Button("Quit to Desktop");
 					quit.getStyleClass().add("button-main-menu");
 		
-				mainButtonBox.getChildren().addAll(resume, newGame, help, quit);
+				mainButtonBox.getChildren().addAll(resume, loadGame, newGame, help, quit);
 				
 			mainBox.getChildren().addAll(title, mainButtonBox);
 				
@@ -139,6 +171,51 @@ public class MainMenu {
 				
 			newGameBox.getChildren().addAll(newGameTitle, stackBox, blindLabel, sliderLabel, comSlider, newGameButtonBox);
 			
+			//Box for choosing a saved game
+			VBox loadBox = new VBox();
+			loadBox.setAlignment(Pos.CENTER);
+			loadBox.getStyleClass().add("custom-popup");
+			loadBox.setSpacing(10);
+			loadBox.setMaxSize(640, 600);
+			loadBox.setVisible(false);
+			
+				Label loadTitle = new Label("Choose a Saved Game");
+				loadTitle.setStyle("-fx-font-size: 36;");
+				loadTitle.getStyleClass().add("bar-label");
+				
+				ListView<String> slotList = new ListView<String>(); //Filled from the save index when the menu is shown
+				slotList.setMaxWidth(560);
+				slotList.setId("slotList");
+				
+				//Enter/Exit Buttons
+				HBox loadButtonBox = new HBox();
+				loadButtonBox.setAlignment(Pos.CENTER);
+				loadButtonBox.setSpacing(10);
+				
+					Button load = new Button("Load");
+					load.getStyleClass().add("button-large");
+					load.setId("loadButton");
+					Button loadBack = new Button("Back");
+					loadBack.getStyleClass().add("button-large");
+				
+				loadButtonBox.getChildren().addAll(load, loadBack);
+			
+			loadBox.getChildren().addAll(loadTitle, slotList, loadButtonBox);
+			
+			//Box shown while the menu waits on the disk
+			busyBox = new VBox();
+			busyBox.setAlignment(Pos.CENTER);
+			busyBox.getStyleClass().add("custom-popup");
+			busyBox.setSpacing(10);
+			busyBox.setMaxSize(320, 200);
+			busyBox.setVisible(false);
+			
+				ProgressIndicator busyIndicator = new ProgressIndicator(); //Spins until the menu is ready
+				busyLabel = new Label();
+				busyLabel.getStyleClass().add("bar-label");
+			
+			busyBox.getChildren().addAll(busyIndicator, busyLabel);
+			
 			//=================================================================
 			// Event Handlers/Listeners
 			
@@ -158,6 +235,22 @@ public class MainMenu {
 				}
 			});
 			
+			loadBack.setOnAction(new EventHandler<ActionEvent>() { //The user is returned to the main menu from the load game menu
+				@Override
+				public void handle(ActionEvent event) {
+					loadBox.setVisible(false);
+					mainBox.setVisible(true);
+				}
+			});
+			
+			loadGame.setOnAction(new EventHandler<ActionEvent>() { //The user is brought to the load game menu from the main menu
+				@Override
+				public void handle(ActionEvent event) {
+					loadBox.setVisible(true);
+					mainBox.setVisible(false);
+				}
+			});
+			
 			quit.setOnAction(new EventHandler<ActionEvent>() { //The game quits to desktop
 				@Override
 				public void handle(ActionEvent event) {
@@ -175,7 +268,7 @@ public class MainMenu {
 				}
 			});
 			
-		menu.getChildren().addAll(mainBox, newGameBox);
+		menu.getChildren().addAll(mainBox, newGameBox, loadBox, busyBox);
 		
 		return menu;
 	}
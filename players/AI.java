@@ -1,6 +1,10 @@
 package players;
 import java.util.ArrayList;
-import java.util.Random;
+
+import cards.PreflopEquityTable;
+import cards.RandomSource;
+
+import static cards.HandEvaluator.*; // Hand ranking constants
 
 /**
  * The AI class handles the random decisions that the AI commits
@@ -12,23 +16,17 @@ import java.util.Random;
 
 public class AI extends Player {
 
-	private static int betInterval; // Interval for bets
+	private static int defaultBetInterval; // Interval for bets of AIs created outside of a game
+	private int betInterval; // Interval for bets
 	private int minBet; // Minimum bet amount
+	private final RandomSource random; // Source of the AI's names, decisions and bet amounts
 	private ArrayList<Integer> smartAIDec = new ArrayList<Integer>(); // Empty list of percentages that will be passed
-	
-	// Next few lines are variable from Hand class
-	private static final int HIGH_CARD = 0;
-	private static final int ONE_PAIR = 1;
-	private static final int TWO_PAIRS = 2;
-	private static final int THREE_OF_A_KIND = 3;
-	private static final int STRAIGHT = 4;
-	private static final int FLUSH = 5;
-	private static final int FULL_HOUSE = 6;
-	private static final int FOUR_OF_A_KIND = 7;
-	private static final int STRAIGHT_FLUSH = 8;
-	private static final int ROYAL_FLUSH = 9;
-
-	public static ArrayList<String> cpuName = new ArrayList<String>(); // This is an empty array of CPU player names
+	private PreflopEquityTable preflop; // Starting hand equities used before the flop, null if there is no table
+	private static final double PREMIUM_EQUITY = 0.70; // Starting hands at least this strong against a random hand are played like a straight
+	private static final double WEAK_EQUITY = 0.40; // Starting hands weaker than this against a random hand are played like high card
+
+	public static ArrayList<String> cpuName = new ArrayList<String>(); // This is an empty array of CPU player names for AIs created outside of a game
+	private final ArrayList<String> namePool; // Names still free at the AI's table, shared with the other AIs of its game only
 	public static final String[] newNames = new String[] { "AdventurousAlonzo", "ButcherBoone", "CleverClayton",
 			"DickheadDallas", "EasyEarle", "FrenchmanFrank", "GallantGary", "HeartyHenry", "IdiotIgnacio",
 			"ProspectorPatrick", "MagnificentMick", "SpeedyGonzales" }; // This is a list of names for the CPU player
@@ -37,12 +35,40 @@ public class AI extends Player {
 	
 	// Constructor that initiates the name of AI, betting interval, and minimum betting amount
 	public AI() {
+		this(RandomSource.threadLocal());
+	}
+	
+	// Constructor that draws all of the AI's random choices from the given source so games can be replayed from a seed
+	public AI(RandomSource random) {
+		this(random, cpuName, defaultBetInterval, PreflopEquityTable.getDefault());
+	}
+	
+	// Constructor for an AI of a game, which takes its name from the game's own pool of names, bets in the game's interval and judges starting hands with the game's preflop table
+	public AI(RandomSource random, ArrayList<String> namePool, int betInterval, PreflopEquityTable preflop) {
+		this.random = random;
+		this.namePool = namePool;
+		this.betInterval = betInterval;
+		this.preflop = preflop;
 		setCPUName(); // Calls method to make random AI name
 		this.minBet = (int) (super.getStack() * 0.025); // Sets up the minimum amount AI can make a bet
 	}
 	
 	//Constructor that sets the name of the AI and the stack - Kyle
 	public AI(String name, int stack) {
+		this(name, stack, RandomSource.threadLocal());
+	}
+	
+	// Constructor that sets the name and stack of the AI and the source of its random choices
+	public AI(String name, int stack, RandomSource random) {
+		this(name, stack, random, defaultBetInterval, PreflopEquityTable.getDefault());
+	}
+	
+	// Constructor that sets the name and stack of an AI of a game, the source of its random choices, the game's bet interval and the game's preflop table
+	public AI(String name, int stack, RandomSource random, int betInterval, PreflopEquityTable preflop) {
+		this.random = random;
+		this.namePool = cpuName;
+		this.betInterval = betInterval;
+		this.preflop = preflop;
 		super.name = name; // Sets AI name
 		super.stack = stack; // Sets AI's initial stack amount
 	}
@@ -68,22 +94,31 @@ public class AI extends Player {
 
 	// This method sets the name of AI and removes the name from the list to avoid duplicates
 	public void setCPUName() {
-		Random name = new Random();
-		int rName = name.nextInt(cpuName.size()); // rName chooses a random integer based on cpuName ArrayList size
-		super.name = cpuName.get(rName); // From rName, this will set the CPU player's name
-		cpuName.remove(rName); // Removes name from cpuName so there are no duplicate player names on poker table
+		int rName = random.nextInt(namePool.size()); // rName chooses a random integer based on the name pool size
+		super.name = namePool.get(rName); // From rName, this will set the CPU player's name
+		namePool.remove(rName); // Removes name from the pool so there are no duplicate player names on poker table
 	}
 
-	// This method sets up the intervals for betting
+	// This method sets up the intervals for betting of AIs created outside of a game
 	public static void setBetIntervals(int stack) {
-		betInterval = (int) (0.01 * stack); // Sets the bet interval to 1% of the initial stack
+		defaultBetInterval = (int) (0.01 * stack); // Sets the bet interval to 1% of the initial stack
 	}
 
 	// This method is only for testing
 	public static int getBetInterval() {
+		return defaultBetInterval;
+	}
+
+	// This method gives the interval this AI bets in
+	public int getInterval() {
 		return betInterval;
 	}
 
+	// This method sets the preflop equity table the AI judges its starting hands with, null to use the default percentages
+	public void setPreflopTable(PreflopEquityTable preflop) {
+		this.preflop = preflop;
+	}
+
 	// THE METHODS BELOW THIS LINE ARE ALL AI ACTIONS AND ACTION QUALIFICATION CHECKS-------------------------------------------------------------------------------
 	
 	/**
@@ -95,9 +130,8 @@ public class AI extends Player {
 	 * Implement this method if highest bet is NOT 0
 	 */
 	public void getDecision() {
-		// Next 2 lines of code sets up probability of AI decisions
-		Random choice = new Random();
-		int decision = choice.nextInt(100); // Generates a random choice out of 100
+		// Sets up probability of AI decisions
+		int decision = random.nextInt(100); // Generates a random choice out of 100
 
 		smartAIDec.clear();
 
@@ -109,11 +143,11 @@ public class AI extends Player {
 
 			// All in action
 			if (decision < percent.get(0)) {
-				super.allIn("A");
+				super.allIn();
 			}
 			// Fold action
 			else {
-				super.fold("F");
+				super.fold();
 			}
 		}
 
@@ -123,15 +157,15 @@ public class AI extends Player {
 
 			// All in action
 			if (decision < percent.get(0)) {
-				super.allIn("A");
+				super.allIn();
 			}
 			// Call action
 			else if (decision >= percent.get(0) && decision < percent.get(1)) {
-				super.call("L");
+				super.call();
 			}
 			// Fold action
 			else {
-				super.fold("F");
+				super.fold();
 			}
 		}
 
@@ -141,20 +175,20 @@ public class AI extends Player {
 
 			// AI all in action
 			if (decision < percent.get(0)) {
-				super.allIn("A");
+				super.allIn();
 			}
 			// AI raise action
 			else if (decision >= percent.get(0) && decision < percent.get(1)) {
 				int bet = checkAIRaise(); // Generates a random number within the bounds of stack for raising
-				super.BetRaise("R", bet - super.getHighBet());
+				super.raise(bet - super.getHighBet());
 			}
 			// AI call action
 			else if (decision >= percent.get(1) && decision < percent.get(2)) {
-				super.call("L");
+				super.call();
 			}
 			// AI fold action
 			else if (decision >= percent.get(2) && decision < 100) {
-				super.fold("F");
+				super.fold();
 			}
 		}
 
@@ -169,9 +203,8 @@ public class AI extends Player {
 	 * Implement this method if current player is AI and is first player after flop
 	 */
 	public void getDecision2() {
-		// Next 2 lines of code sets up probability of AI decisions
-		Random choice = new Random();
-		int decision = choice.nextInt(100);
+		// Sets up probability of AI decisions
+		int decision = random.nextInt(100);
 
 		smartAIDec.clear();
 
@@ -183,15 +216,15 @@ public class AI extends Player {
 
 			// All in action
 			if (decision < percent.get(0)) {
-				super.allIn("A");
+				super.allIn();
 			}
 			// Check action
 			else if (decision >= percent.get(1) && decision < percent.get(2)) {
-				super.check("C");
+				super.check();
 			}
 			// Fold action
 			else {
-				super.fold("F");
+				super.fold();
 			}
 		}
 
@@ -201,25 +234,25 @@ public class AI extends Player {
 
 			// AI all in action
 			if (decision < percent.get(0)) {
-				super.allIn("A");
+				super.allIn();
 			}
 			// AI bet action
 			else if (decision >= percent.get(0) && decision < percent.get(1)) {
 				if (super.getStack() > minBet && super.getStack() <= 2 * betInterval) {
-					super.BetRaise("B", betInterval);
+					super.bet(betInterval);
 				}
 				else {
 					int bet = checkAIBets(); // Generates a random number within the bounds of minimum bet and stack for betting
-					super.BetRaise("B", bet);
+					super.bet(bet);
 				}
 			}
 			// AI check action
 			else if (decision >= percent.get(1) && decision < percent.get(2)) {
-				super.check("C");
+				super.check();
 			}
 			// AI fold action
 			else {
-				super.fold("F");
+				super.fold();
 			}
 		}
 
@@ -233,18 +266,16 @@ public class AI extends Player {
 	 * @return newRaise
 	 */
 	public int checkAIRaise() {
-		Random bet = new Random();
-		
 		int newRaise = 0;
 
 		Boolean canBet = false;
 
 		while (canBet == false) { // Loop will run until raising amount is satisfied
-			int raising = bet.nextInt(super.getStack() + 1);
+			int raising = random.nextInt(super.getStack() + 1);
 
 			// Raise amount must be greater than highest bet but lower than stack to avoid all in action
 			if (raising > super.getHighBet() && raising < super.getStack()) { 
-				newRaise = checkBetInterval("R", raising);
+				newRaise = checkBetInterval(Action.RAISE, raising);
 				canBet = true;
 			}
 		}
@@ -258,15 +289,13 @@ public class AI extends Player {
 	 * @return returnBet
 	 */
 	public int checkAIBets() {
-		Random bet = new Random(); // Random betting amount
-		Random betMount = new Random(); // Probability of betting/raising alot or little
-		int betProb = betMount.nextInt(100);
+		int betProb = random.nextInt(100); // Probability of betting/raising alot or little
 		int returnBet = 0;
 		// int minRaise = super.getStack() + betInterval;
 		Boolean canBet = false;
 
 		while (canBet == false) {
-			int betting = bet.nextInt(super.getStack() + 1); // Creating a random number for betting
+			int betting = random.nextInt(super.getStack() + 1); // Creating a random number for betting
 
 			// Probability of betting alot is 5%
 			if (betProb < 5) {
@@ -277,7 +306,7 @@ public class AI extends Player {
 						canBet = true;
 					}
 					else {
-						returnBet = checkBetInterval("B", betting); // Checks if the betting amount is an interval of betting
+						returnBet = checkBetInterval(Action.BET, betting); // Checks if the betting amount is an interval of betting
 						canBet = true; // Condition satisfied and betting amount modified to break loop
 					}
 				}
@@ -287,7 +316,7 @@ public class AI extends Player {
 			else if (betProb >= 5) {
 				// Must bet less than half of AI's stack
 				if (betting < (super.getStack() / 2) && betting >= minBet) {
-					returnBet = checkBetInterval("B", betting); // Checks if the betting amount is an interval of betting
+					returnBet = checkBetInterval(Action.BET, betting); // Checks if the betting amount is an interval of betting
 					canBet = true; // Condition satisfied and betting amount modified to break loop
 				}
 			}
@@ -302,12 +331,12 @@ public class AI extends Player {
 	 * @param toBet random generated number for updating
 	 * @return returnBet
 	 */
-	public int checkBetInterval(String decision, int toBet) {
+	public int checkBetInterval(Action decision, int toBet) {
 		int returnBet = toBet;
 		int checkBet = returnBet % betInterval; // Checks if bet amount from AI is a betting interval
 		double halfWayP = betInterval / 2; // Mid point of betting interval
 
-		if (decision == "B") { // Handles bet dection
+		if (decision == Action.BET) { // Handles bet dection
 			// Rounds the bet amount to the closest bet interval
 			if (checkBet != 0) { // Betting amount is not an interval for betting
 				if ((double) checkBet < halfWayP) { // Rounds down the bet amount
@@ -326,7 +355,7 @@ public class AI extends Player {
 			}
 		}
 
-		else if (decision == "R") { // Handles raise decision
+		else if (decision == Action.RAISE) { // Handles raise decision
 			if (checkBet != 0) { // This will round the raise amount if it is not an interval for raising
 				if ((double) checkBet < halfWayP) { // This will round the raise amount down
 					if (returnBet - checkBet <= super.getHighBet()) { // Tests if chosen raise amount is lower than highest bet
@@ -361,6 +390,29 @@ public class AI extends Player {
 
 	// AI DECIDES ON PROBABILITY OF EACH ACTION BASED UPON THE RANKING OF IT'S OWN CARDS ---------------------------------------------------------------------------
 
+	/**
+	 * This method gives the ranking of the AI's hand. Before the flop the starting hand is looked up in the preflop
+	 * equity table, premium hands being played like a straight and weak hands like high card
+	 * 
+	 * @return the hand ranking, or -1 if the hand has no ranking yet
+	 */
+	private int handRank() {
+		if (hand.size() > 0) {
+			return hand.getRank();
+		}
+		if (preflop == null || hole.size() < 2) {
+			return -1;
+		}
+		double equity = preflop.equityVsRandom(PreflopEquityTable.startingHand(getHoleSet()));
+		if (equity >= PREMIUM_EQUITY) {
+			return STRAIGHT;
+		}
+		else if (equity < WEAK_EQUITY) {
+			return HIGH_CARD;
+		}
+		return -1;
+	}
+
 	/**
 	 * This method will decide the probability of percentage of which action the AI will implement
 	 * based on the card ranking it has
@@ -372,11 +424,10 @@ public class AI extends Player {
 	 */
 	protected ArrayList<Integer> smartAIDecision(int numChoice) {
 		smartAIDec.clear();
-
-		hand = super.getHand();
+		int rank = handRank();
 
 		// Default probabilities when AI cards have no ranking yet
-		if (hand.getCards().size() == 0) {
+		if (rank < 0) {
 			if (numChoice == 2) {
 				smartAIDec.add(5);
 			}
@@ -391,7 +442,7 @@ public class AI extends Player {
 			}
 		}
 		else {
-			if (hand.getRank() == HIGH_CARD) {
+			if (rank == HIGH_CARD) {
 				if (numChoice == 2) {
 					smartAIDec.add(1);
 				}
@@ -405,7 +456,7 @@ public class AI extends Player {
 					smartAIDec.add(17);
 				}
 			}
-			else if (hand.getRank() == ONE_PAIR) {
+			else if (rank == ONE_PAIR) {
 				if (numChoice == 2) {
 					smartAIDec.add(2);
 				}
@@ -419,7 +470,7 @@ public class AI extends Player {
 					smartAIDec.add(17);
 				}
 			}
-			else if (hand.getRank() == TWO_PAIRS) {
+			else if (rank == TWO_PAIRS) {
 				if (numChoice == 2) {
 					smartAIDec.add(2);
 				}
@@ -433,7 +484,7 @@ public class AI extends Player {
 					smartAIDec.add(30);
 				}
 			}
-			else if (hand.getRank() == THREE_OF_A_KIND) {
+			else if (rank == THREE_OF_A_KIND) {
 				if (numChoice == 2) {
 					smartAIDec.add(2);
 				}
@@ -447,7 +498,7 @@ public class AI extends Player {
 					smartAIDec.add(70);
 				}
 			}
-			else if (hand.getRank() == STRAIGHT) {
+			else if (rank == STRAIGHT) {
 				if (numChoice == 2) {
 					smartAIDec.add(10);
 				}
@@ -461,7 +512,7 @@ public class AI extends Player {
 					smartAIDec.add(85);
 				}
 			}
-			else if (hand.getRank() == FLUSH) {
+			else if (rank == FLUSH) {
 				if (numChoice == 2) {
 					smartAIDec.add(30);
 				}
@@ -475,7 +526,7 @@ public class AI extends Player {
 					smartAIDec.add(90);
 				}
 			}
-			else if (hand.getRank() == FULL_HOUSE) {
+			else if (rank == FULL_HOUSE) {
 				if (numChoice == 2) {
 					smartAIDec.add(60);
 				}
@@ -489,7 +540,7 @@ public class AI extends Player {
 					smartAIDec.add(95);
 				}
 			}
-			else if (hand.getRank() == FOUR_OF_A_KIND) {
+			else if (rank == FOUR_OF_A_KIND) {
 				if (numChoice == 2) {
 					smartAIDec.add(98);
 				}
@@ -503,7 +554,7 @@ public class AI extends Player {
 					smartAIDec.add(99);
 				}
 			}
-			else if (hand.getRank() == STRAIGHT_FLUSH) {
+			else if (rank == STRAIGHT_FLUSH) {
 				if (numChoice == 2) {
 					smartAIDec.add(99);
 				}
@@ -517,7 +568,7 @@ public class AI extends Player {
 					smartAIDec.add(99);
 				}
 			}
-			else if (hand.getRank() == ROYAL_FLUSH) {
+			else if (rank == ROYAL_FLUSH) {
 				if (numChoice == 2) {
 					smartAIDec.add(100);
 				}
@@ -546,11 +597,10 @@ public class AI extends Player {
 	 */
 	protected ArrayList<Integer> smartAIDecision2(int numChoice) { 
 		smartAIDec.clear();
-
-		hand = super.getHand();
+		int rank = handRank();
 
 		// Default probabilities when AI cards have no ranking yet
-		if (hand == null) {
+		if (rank < 0) {
 			if (numChoice == 3) {
 				smartAIDec.add(3);
 				smartAIDec.add(75);
@@ -562,7 +612,7 @@ public class AI extends Player {
 			}
 		}
 		else {
-			if (hand.getRank() == HIGH_CARD) {
+			if (rank == HIGH_CARD) {
 				if (numChoice == 3) {
 					smartAIDec.add(1);
 					smartAIDec.add(70);
@@ -573,7 +623,7 @@ public class AI extends Player {
 					smartAIDec.add(70);
 				}
 			}
-			else if (hand.getRank() == ONE_PAIR) {
+			else if (rank == ONE_PAIR) {
 				if (numChoice == 3) {
 					smartAIDec.add(2);
 					smartAIDec.add(65);
@@ -584,7 +634,7 @@ public class AI extends Player {
 					smartAIDec.add(70);
 				}
 			}
-			else if (hand.getRank() == TWO_PAIRS) {
+			else if (rank == TWO_PAIRS) {
 				if (numChoice == 3) {
 					smartAIDec.add(2);
 					smartAIDec.add(80);
@@ -595,7 +645,7 @@ public class AI extends Player {
 					smartAIDec.add(70);
 				}
 			}
-			else if (hand.getRank() == THREE_OF_A_KIND) {
+			else if (rank == THREE_OF_A_KIND) {
 				if (numChoice == 3) {
 					smartAIDec.add(3);
 					smartAIDec.add(80);
@@ -606,7 +656,7 @@ public class AI extends Player {
 					smartAIDec.add(75);
 				}
 			}
-			else if (hand.getRank() == STRAIGHT) {
+			else if (rank == STRAIGHT) {
 				if (numChoice == 3) {
 					smartAIDec.add(10);
 					smartAIDec.add(85);
@@ -617,7 +667,7 @@ public class AI extends Player {
 					smartAIDec.add(85);
 				}
 			}
-			else if (hand.getRank() == FLUSH) {
+			else if (rank == FLUSH) {
 				if (numChoice == 3) {
 					smartAIDec.add(20);
 					smartAIDec.add(90);
@@ -628,7 +678,7 @@ public class AI extends Player {
 					smartAIDec.add(90);
 				}
 			}
-			else if (hand.getRank() == FULL_HOUSE) {
+			else if (rank == FULL_HOUSE) {
 				if (numChoice == 3) {
 					smartAIDec.add(20);
 					smartAIDec.add(90);
@@ -639,7 +689,7 @@ public class AI extends Player {
 					smartAIDec.add(95);
 				}
 			}
-			else if (hand.getRank() == FOUR_OF_A_KIND) {
+			else if (rank == FOUR_OF_A_KIND) {
 				if (numChoice == 3) {
 					smartAIDec.add(30);
 					smartAIDec.add(95);
@@ -650,7 +700,7 @@ public class AI extends Player {
 					smartAIDec.add(99);
 				}
 			}
-			else if (hand.getRank() == STRAIGHT_FLUSH) {
+			else if (rank == STRAIGHT_FLUSH) {
 				if (numChoice == 3) {
 					smartAIDec.add(40);
 					smartAIDec.add(99);
@@ -661,7 +711,7 @@ public class AI extends Player {
 					smartAIDec.add(99);
 				}
 			}
-			else if (hand.getRank() == ROYAL_FLUSH) {
+			else if (rank == ROYAL_FLUSH) {
 				if (numChoice == 3) {
 					smartAIDec.add(50);
 					smartAIDec.add(99);
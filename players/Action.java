@@ -0,0 +1,71 @@
+package players;
+
+/**
+ * The actions a player can take on their turn. Each action keeps the label
+ * shown to the user, and an action with the chips it put in can be packed
+ * into a single long so that moves can be logged and replayed without
+ * creating objects: the action's ordinal in the low byte and the amount in
+ * the high 32 bits.
+ */
+public enum Action {
+	NONE(""), // no action yet this betting round
+	CHECK("Checked"),
+	FOLD("Folded"),
+	BET("Bet"),
+	RAISE("Raised"),
+	CALL("Called"),
+	ALL_IN("All In");
+
+	private static final Action[] VALUES = values();
+
+	private final String label;
+
+	private Action(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * pre: none
+	 * post: The action and amount have been packed into a long.
+	 *
+	 * @param action the action taken
+	 * @param amount the chips the action put in
+	 * @return the packed move
+	 */
+	public static long pack(Action action, int amount) {
+		return ((long) amount << 32) | action.ordinal();
+	}
+
+	/**
+	 * pre: The move was packed by pack.
+	 * post: The action of the move has been returned.
+	 *
+	 * @param move the packed move
+	 * @return the action taken
+	 */
+	public static Action actionOf(long move) {
+		return VALUES[(int) (move & 0xFF)];
+	}
+
+	/**
+	 * pre: The move was packed by pack.
+	 * post: The amount of the move has been returned.
+	 *
+	 * @param move the packed move
+	 * @return the chips the action put in
+	 */
+	public static int amountOf(long move) {
+		return (int) (move >> 32);
+	}
+
+	/**
+	 * pre: none
+	 * post: The label shown to the user has been returned.
+	 *
+	 * @return the label of the action
+	 */
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -0,0 +1,26 @@
+package players;
+
+/**
+ * Receives each action a player takes, with the chips it put in. A Player
+ * publishes its actions here instead of printing them; the game's own
+ * listener of every event at the table extends this one, so players need
+ * know nothing of the game.
+ */
+public interface ActionListener {
+
+	/**
+	 * The listener that ignores every action, used unless another is set
+	 */
+	ActionListener NONE = (player, action, amount) -> {
+	};
+
+	/**
+	 * pre: none
+	 * post: The listener has been told of the action.
+	 *
+	 * @param player the player
+	 * @param action the action taken
+	 * @param amount the chips the action put in
+	 */
+	void playerActed(Player player, Action action, int amount);
+}
@@ -2,7 +2,10 @@ package players;
 import java.util.ArrayList;
 
 import cards.Card;
+import cards.CardSet;
 import cards.Hand;
+import cards.HandEvaluator;
+import cards.IncrementalEvaluator;
 
 /**
  * An abstract class that; Manages each players' amount of money, their two card
@@ -17,11 +20,14 @@ public class Player {
 	public int stack; // Tracks each player's stack of money
 	protected ArrayList<Card> hole = new ArrayList<Card>(); // the player's 2 card hand
 	protected Hand hand = new Hand(); // player's 5 card hand as an object
+	private final IncrementalEvaluator evaluator = new IncrementalEvaluator(); // evaluation state of the hole and community cards seen this round
 	protected String name = ""; // the name of the human player
 	protected int minBet = 0;
 	protected int highBet = 0;
 	private int totBet = 0; // the player's total bet for the round
-	private String action = "";
+	private Action action = Action.NONE;
+	private long lastMove = Action.pack(Action.NONE, 0); // the last action and the chips it put in
+	private ActionListener listener = ActionListener.NONE; // told of each action taken
 
 	// method in main that sets the blinds
 	// make the current player bet into a list?
@@ -45,12 +51,27 @@ public class Player {
 	}
 	
 	/**
-	 *
+	 * pre: none
+	 * post: The player's action has been set, such as to NONE when a new
+	 * betting round begins.
+	 * 
+	 * @param newAction
 	 */
-	public void setAction(String newAction) {
+	public void setAction(Action newAction) {
 		action = newAction;
 	}
 
+	/**
+	 * pre: none
+	 * post: The player's last move has been set, such as when a saved game
+	 * is restored.
+	 * 
+	 * @param move the action and the chips it put in, packed as in Action.pack
+	 */
+	public void setLastMove(long move) {
+		lastMove = move;
+	}
+
 	/**
 	 * pre: A name for the player has been set. 
 	 * post: The player's name has been set.
@@ -63,50 +84,38 @@ public class Player {
 
 	/**
 	 * Given the community and a player's hole cards, this method will find their
-	 * highest ranking hand. The rank of each possible hand is determined and
-	 * compared to one and another to find the highest. If two hands share the
-	 * highest rank they are passed through to the dispute methods to find the
-	 * highest.
+	 * highest ranking hand. The player's evaluator already holds the hole cards
+	 * and any community cards from earlier streets, so only newly dealt cards
+	 * are added before the best hand is found. The five Cards themselves are
+	 * only picked out if the hand is later displayed.
 	 * 
 	 * @param comm the community cards
 	 * @return none
 	 */
 	public void setHand(ArrayList<Card> comm) {
-		int highestRank = -1, result;
+		evaluator.update(comm);
+		hand = evaluator.toHand();
+	}
 
-		ArrayList<Card> allCards = new ArrayList<Card>();
-		Hand highestHand = new Hand();
-		allCards.addAll(comm); // The hole and community cards are combined to a single ArrayList
-		allCards.addAll(hole);
+	/**
+	 * pre: none
+	 * post: Each action the player takes will be published to the listener
+	 * instead of being printed.
+	 * 
+	 * @param newListener the listener, ActionListener.NONE to publish nothing
+	 */
+	public void setListener(ActionListener newListener) {
+		listener = newListener;
+	}
 
-		if (allCards.size() == 5) {
-			for (Card card : allCards)
-				hand.addCard(card);
-		} else {
-			ArrayList<Hand> combs = new ArrayList<Hand>();
-			if (allCards.size() == 6)
-				combs = combSix(allCards); // All six combinations of the cards are found for a six card set
-			else if (allCards.size() == 7)
-				combs = combSeven(allCards); // All 21 combinations of the cards are found for a seven card set
-
-			for (Hand potenHand : combs) {
-				if (potenHand.getRank() > highestRank) { // A potential hand becomes the new highest if its rank
-															// surpasses the previous highest
-					highestRank = potenHand.getRank();
-					highestHand = potenHand;
-				}
-
-				else if (potenHand.getRank() == highestRank) { // If its rank is equal the two are disputed, the new
-																// only succeeding the old if it is greater in value
-					result = potenHand.compareHand(highestHand);
-					if (result == 1) {
-						highestRank = potenHand.getRank();
-						highestHand = potenHand;
-					}
-				}
-			}
-		}
-		hand = highestHand;
+	/**
+	 * pre: none
+	 * post: The player's hands will be evaluated by the given HandEvaluator.
+	 * 
+	 * @param handEvaluator the engine to find hand strengths with
+	 */
+	public void setEvaluator(HandEvaluator handEvaluator) {
+		evaluator.setEvaluator(handEvaluator);
 	}
 
 	/**
@@ -118,6 +127,7 @@ public class Player {
 	public void setHole(Card c) {
 		// adds the cards to the hand list
 		hole.add(c);
+		evaluator.addHole(c);
 	}
 
 	/**
@@ -143,10 +153,22 @@ public class Player {
 	 * 
 	 * @return action
 	 */
-	public String getAction() {
+	public Action getAction() {
 		return action;
 	}
 
+	/**
+	 * pre: none 
+	 * post: The player's last action and the chips it put in have been
+	 * returned packed into a long, to be read with Action.actionOf and
+	 * Action.amountOf.
+	 * 
+	 * @return the packed last move
+	 */
+	public long getLastMove() {
+		return lastMove;
+	}
+
 	/**
 	 * pre: none 
 	 * post: The player's stack of money amount is returned.
@@ -179,6 +201,17 @@ public class Player {
 		return new Hand(hand);
 	}
 
+	/**
+	 * pre: none 
+	 * post: The strength of the player's hand has been returned without
+	 * copying the hand.
+	 * 
+	 * @return the packed strength of the hand, 0 if there is none
+	 */
+	public int getHandStrength() {
+		return hand.strength();
+	}
+
 	/**
 	 * pre: none 
 	 * post: Returns the player's hole. 
@@ -190,6 +223,16 @@ public class Player {
 		return hole;
 	}
 
+	/**
+	 * pre: none 
+	 * post: The player's hole has been returned as a CardSet.
+	 * 
+	 * @return the hole cards as a set
+	 */
+	public CardSet getHoleSet() {
+		return CardSet.fromList(hole);
+	}
+
 	/**
 	 * pre: none 
 	 * post: The player's total bet has been returned.
@@ -218,6 +261,16 @@ public class Player {
 		// Goes to getDecision2 in AI;
 	}
 	
+	/**
+	 * pre: none
+	 * post: minBet has been returned.
+	 * 
+	 * @return minBet
+	 */
+	public int getMinBet() {
+		return minBet;
+	}
+
 	/**
 	 * pre: none
 	 * pre: highbet has been returned. 
@@ -235,6 +288,7 @@ public class Player {
 	 */
 	public void emptyHole() {
 		hole.clear();
+		evaluator.reset();
 	}
 
 	/**
@@ -249,65 +303,86 @@ public class Player {
 
 	/**
 	 * pre: A player decision has been made.
-	 * post: The player has "checked" and chosen to do nothing.
+	 * post: The player has taken the action. The amount is the bet for a bet
+	 * and the raise for a raise, and is not used by the other actions.
 	 * 
 	 * @param choice
+	 * @param amount
 	 */
-	public void check(String choice) {
-		// If the input is c, play moves to the next player
-		if (choice.equalsIgnoreCase("C")) {
-			action = "Checked";
-			System.out.println("Player checked.");
-			// Nothing
+	public void act(Action choice, int amount) {
+		switch (choice) {
+		case CHECK:
+			check();
+			break;
+		case FOLD:
+			fold();
+			break;
+		case BET:
+			bet(amount);
+			break;
+		case RAISE:
+			raise(amount);
+			break;
+		case CALL:
+			call();
+			break;
+		case ALL_IN:
+			allIn();
+			break;
+		default:
+			break;
 		}
 	}
 
+	/**
+	 * pre: A player decision has been made.
+	 * post: The player has "checked" and chosen to do nothing.
+	 */
+	public void check() {
+		record(Action.CHECK, 0);
+	}
+
 	/**
 	 * pre: A player decision has been made.
 	 * post: The player's hand has been cleared 
 	 * as they have given up on this round.
-	 * 
-	 * @param choice
 	 */
-	public void fold(String choice) {
-		// if the input is f, the list is emptied
-		if (choice.equalsIgnoreCase("F")) {
-			emptyHand(); // Clears hand
-			emptyHole(); // Clears hole
-			action = "Folded";
-			System.out.println("Player Folded.");
-			// Nothing
-
-		}
+	public void fold() {
+		emptyHand(); // Clears hand
+		emptyHole(); // Clears hole
+		record(Action.FOLD, 0);
 	}
 
 	/**
-	 * pre: A player decision and their increased bet have been entered. 
+	 * pre: A player decision and their bet have been entered. 
 	 * post: The player has added money to the pot with 
 	 * their total amount of money decreasing appropriately.
 	 * 
-	 * @param choice
 	 * @param newBet
 	 */
-	public void BetRaise(String choice, int newBet) {
-		if (choice.equalsIgnoreCase("B")) { // checks to see if the bet is less than the
-			// money in the player's balance if (newBet <= stack) { stack -= newBet;
-			// decreases the player's money value. totBet += newBet; // adds the bet to the
-			// player's total bet.
-			if (newBet >= 0) {
-				stack -= newBet;
-				totBet += newBet;
-				action = "Bet";
-				System.out.println("Player bet $" + newBet + ".");
-			}
-		} else if (choice.equalsIgnoreCase("R")) { // Raise action
-			// must be 2x the amount to call
-			if (newBet >= 0) {
-				stack -= (highBet + newBet);
-				System.out.println("Player raised $" + newBet + ".");
-				totBet += (highBet + newBet); // check logic
-			}
-			action = "Raised";
+	public void bet(int newBet) {
+		if (newBet >= 0) {
+			stack -= newBet;
+			totBet += newBet;
+			record(Action.BET, newBet);
+		}
+	}
+
+	/**
+	 * pre: A player decision and their raise have been entered. 
+	 * post: The player has added the highest bet and the raise to the pot
+	 * with their total amount of money decreasing appropriately.
+	 * 
+	 * @param newBet
+	 */
+	public void raise(int newBet) {
+		// must be 2x the amount to call
+		if (newBet >= 0) {
+			stack -= (highBet + newBet);
+			totBet += (highBet + newBet); // check logic
+			record(Action.RAISE, highBet + newBet);
+		} else {
+			record(Action.RAISE, 0);
 		}
 	}
 
@@ -315,91 +390,52 @@ public class Player {
 	 * pre: A player decision has been made. 
 	 * post: The player has called. 
 	 * Calculates the amount to call and adds that amount to the pot.
-	 * 
-	 * @param choice
-	 * @param currentBet
 	 */
-	public void call(String choice) {
+	public void call() {
 		int toCall = highBet - totBet; // highBet must be tracked
-		// need to determine how to compare each player's current Bet to generate a
-		// toCall
-		if (choice.equalsIgnoreCase("L")) {
-			stack -= toCall;
-			totBet += toCall;
-			action = "Called";
-			System.out.println("Player called.");
-		}
+		stack -= toCall;
+		totBet += toCall;
+		record(Action.CALL, toCall);
 	}
 
 	/**
 	 * pre: A player decision has been made. 
 	 * post: The player has $0 remaining and has gone "All-In."
-	 * 
-	 * @param choice
 	 */
-	public void allIn(String choice) {
-		if (choice.equalsIgnoreCase("A")) {
-			totBet += stack;
-			stack = 0;
-			System.out.println("Player went all-in!");
-			action = "All In";
-		}
+	public void allIn() {
+		int allIn = stack;
+		totBet += stack;
+		stack = 0;
+		record(Action.ALL_IN, allIn);
 	}
 
 	/**
-	 * All six unique combinations of five card hands from a six card set are found
-	 * by the below algorithm. One blank space is cycled through all the indices of
-	 * the passed Card ArrayList, writing those Cards not occupied by the blank
-	 * space to a new Hand.
+	 * pre: The action was taken before and journaled.
+	 * post: The action has been taken again, the chips it put in moving from
+	 * the stack to the bet, without being published to the listener.
 	 * 
-	 * @param allCards the combined community and a given player's hole cards
-	 * @return An ArrayList of all five card hand combinations
-	 */
-	private ArrayList<Hand> combSix(ArrayList<Card> allCards) {
-		ArrayList<Hand> combs = new ArrayList<Hand>(); // A six Hand ArrayList is created to store all possible
-														// combinations
-		for (int i = 0; i < 6; i++)
-			combs.add(new Hand());
-
-		for (int blank = 0; blank < 6; blank++) { // The blank space is moved through each index, also doubles as the
-													// index in the Hand ArrayList to write to
-			for (int index = 0; index < 6; index++) { // Each Card index in allCards is ran through
-				if (index != blank) // If the index of the card doesn't fall on the blank it is written to the
-									// current combination index
-					combs.get(blank).addCard(allCards.get(index));
-			}
+	 * @param taken the action
+	 * @param amount the chips it put in
+	 */
+	public void replay(Action taken, int amount) {
+		if (taken == Action.FOLD) {
+			emptyHand();
+			emptyHole();
 		}
-		return combs;
+		stack -= amount;
+		totBet += amount;
+		action = taken;
+		lastMove = Action.pack(taken, amount);
 	}
 
 	/**
-	 * All 21 unique combinations of five card hands from a seven card set are found
-	 * by the below algorithm. Two blank spaces in the seven card set are cycled,
-	 * their indices being exempt from a hand possibility when it is written to the
-	 * master list.
-	 * 
-	 * @param allCards the combined community and a given player's hole cards
-	 * @return An ArrayList of all five card hand combinations
-	 */
-	private ArrayList<Hand> combSeven(ArrayList<Card> allCards) {
-		ArrayList<Hand> combs = new ArrayList<Hand>(); // A 21 Hand ArrayList is created to store all possible
-														// combinations
-		for (int i = 0; i < 21; i++)
-			combs.add(new Hand());
-
-		int writeIndex = 0; // The index of the 21 ArrayList ArrayList is cycled for each blank2 change
-		for (int blank1 = 0; blank1 < 6; blank1++) { // The first blank advanced after the second has gone through each
-														// space following it
-			for (int blank2 = blank1 + 1; blank2 < 7; blank2++) { // The second blank cycles through each index
-																	// following the first blank
-				for (int index = 0; index < 7; index++) { // Each Card index in allCards is ran through
-					if ((index != blank1) && (index != blank2)) // If the index of the card doesn't fall on a blank it
-																// is written to the current combination index
-						combs.get(writeIndex).addCard(allCards.get(index));
-				}
-				writeIndex++;
-			}
-		}
-		return combs;
+	 * pre: An action has been taken.
+	 * post: The action and the chips it put in have been kept as the
+	 * player's last move and published to the listener.
+	 */
+	private void record(Action taken, int amount) {
+		action = taken;
+		lastMove = Action.pack(taken, amount);
+		listener.playerActed(this, taken, amount);
 	}
 }
@@ -25,7 +25,7 @@ public class PlayerTest {
 
         a.setStack(100);
         assertEquals("Player stack is suppose to be: 100", 100, a.getStack());
-        assertEquals("", a.getAction());
+        assertEquals(Action.NONE, a.getAction());
 
         Human b = new Human(a.getName(), 1000);
         assertEquals("Player name is suppose to be: Jeff", "Jeff", b.getName());
@@ -78,8 +78,8 @@ public class PlayerTest {
         assertEquals("Player name is suppose to be: Harvey", "Harvey", a.getName());
         assertEquals("Player stack is suppose to be: 0", 0, a.getStack());
 
-        a.setAction("Fold");
-        assertEquals("Player action is suppose to be: Fold", "Fold", a.getAction());
+        a.setAction(Action.FOLD);
+        assertEquals("Player action is suppose to be: Folded", Action.FOLD, a.getAction());
 
         a.setBet(250);
         assertEquals("Bet amount is suppose to be" + 250, 250, a.getBet());
@@ -129,4 +129,60 @@ public class PlayerTest {
         assertEquals("Player hand should be empty", 0, a.getHand().getCards().size());
         
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSetHandIncremental() {
+        Deck deck = new Deck();
+        Human a = new Human("Tom");
+        ArrayList<Card> middleCards = new ArrayList<Card>();
+
+        a.setHole(deck.dealSingle());
+        a.setHole(deck.dealSingle());
+
+        for (int street = 0; street < 3; street++) {
+            middleCards = deck.dealCard(middleCards);
+            a.setHand(middleCards);
+
+            ArrayList<Card> allCards = new ArrayList<Card>(middleCards);
+            allCards.addAll(a.getHole());
+            assertEquals("Incremental strength should match a full evaluation", new Hand(allCards).strength(),
+                    a.getHandStrength());
+        }
+
+        a.emptyHole();
+        a.setHole(deck.dealSingle());
+        a.setHole(deck.dealSingle());
+        middleCards.clear();
+        middleCards = deck.dealCard(middleCards);
+        a.setHand(middleCards);
+
+        ArrayList<Card> allCards = new ArrayList<Card>(middleCards);
+        allCards.addAll(a.getHole());
+        assertEquals("A new round should not keep the old cards", new Hand(allCards).strength(), a.getHandStrength());
+    }
+
+    @Test
+    public void testActionMoves() {
+        Human a = new Human("Ann", 1000);
+        a.setHighBet(100);
+
+        a.act(Action.BET, 100);
+        assertEquals(900, a.getStack());
+        assertEquals(Action.BET, Action.actionOf(a.getLastMove()));
+        assertEquals(100, Action.amountOf(a.getLastMove()));
+
+        a.setHighBet(300);
+        a.act(Action.CALL, 0);
+        assertEquals(Action.CALL, a.getAction());
+        assertEquals("A call should put in the rest of the highest bet", 200, Action.amountOf(a.getLastMove()));
+
+        a.act(Action.ALL_IN, 0);
+        assertEquals(0, a.getStack());
+        assertEquals(700, Action.amountOf(a.getLastMove()));
+        assertEquals("All In", a.getAction().toString());
+
+        long move = Action.pack(Action.RAISE, Integer.MAX_VALUE);
+        assertEquals(Action.RAISE, Action.actionOf(move));
+        assertEquals(Integer.MAX_VALUE, Action.amountOf(move));
+    }
+}